@@ -39,6 +39,9 @@ Java_org_gearvrf_NativeAssimpImporter_getNodeMesh(JNIEnv * env,
 JNIEXPORT jobject JNICALL
 Java_org_gearvrf_NativeAssimpImporter_getMeshMaterial(JNIEnv * env,
         jobject obj, jlong jassimp_importer, jstring jnode_name, jint index);
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeAssimpImporter_getMaterialIndex(JNIEnv * env,
+        jobject obj, jlong jassimp_importer, jint index);
 }
 
 JNIEXPORT jint JNICALL
@@ -94,4 +97,13 @@ Java_org_gearvrf_NativeAssimpImporter_getMeshMaterial(JNIEnv * env,
     const aiScene *assimp_scene = assimp_importer->getAssimpScene();
     return reinterpret_cast<jobject>(mesh_material(env, assimp_scene, current_node->mMeshes[index]));
 }
+
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeAssimpImporter_getMaterialIndex(JNIEnv * env,
+        jobject obj, jlong jassimp_importer, jint index) {
+    AssimpImporter* assimp_importer =
+            reinterpret_cast<AssimpImporter*>(jassimp_importer);
+    const aiScene *assimp_scene = assimp_importer->getAssimpScene();
+    return assimp_scene->mMeshes[index]->mMaterialIndex;
+}
 }
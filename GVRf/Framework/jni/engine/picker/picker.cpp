@@ -41,21 +41,50 @@ Picker::Picker() {
 Picker::~Picker() {
 }
 
-std::vector<EyePointeeHolder*> Picker::pickScene(Scene* scene, float ox,
-        float oy, float oz, float dx, float dy, float dz) {
-    std::vector<SceneObject*> scene_objects = scene->getWholeSceneObjects();
-    std::vector<EyePointeeHolder*> eye_pointee_holders;
-    for (auto it = scene_objects.begin(); it != scene_objects.end(); ++it) {
-        EyePointeeHolder* eye_pointee_holder = (*it)->eye_pointee_holder();
-        if (eye_pointee_holder != 0 && eye_pointee_holder->enable()) {
-            eye_pointee_holders.push_back(eye_pointee_holder);
-        }
+/*
+ * Collects the enabled eye pointee holders of a subtree, skipping every
+ * subtree whose pick bounding volume the world space ray cannot hit.
+ */
+void Picker::collectEyePointeeHolders(SceneObject* scene_object,
+        const glm::vec3& ray_origin, const glm::vec3& ray_direction,
+        std::vector<EyePointeeHolder*>& eye_pointee_holders) {
+    if (!scene_object->intersectsPickBoundingVolume(ray_origin,
+            ray_direction)) {
+        return;
+    }
+
+    EyePointeeHolder* eye_pointee_holder = scene_object->eye_pointee_holder();
+    if (eye_pointee_holder != 0 && eye_pointee_holder->enable()) {
+        eye_pointee_holders.push_back(eye_pointee_holder);
     }
 
+    const std::vector<SceneObject*>& children = scene_object->children();
+    for (auto it = children.begin(); it != children.end(); ++it) {
+        collectEyePointeeHolders(*it, ray_origin, ray_direction,
+                eye_pointee_holders);
+    }
+}
+
+std::vector<EyePointeeHolder*> Picker::pickScene(Scene* scene, float ox,
+        float oy, float oz, float dx, float dy, float dz) {
     std::vector<EyePointeeHolder*> picked_holders;
     Transform* const t = scene->main_camera_rig()->getHeadTransform();
     if (nullptr != t) {
-        glm::mat4 view_matrix = glm::affineInverse(t->getModelMatrix());
+        glm::mat4 head_matrix = t->getModelMatrix();
+        glm::mat4 view_matrix = glm::affineInverse(head_matrix);
+
+        // The pick ray is given in head space, the bounding volumes are
+        // in world space
+        glm::vec3 ray_origin(head_matrix * glm::vec4(ox, oy, oz, 1.0f));
+        glm::vec3 ray_direction(head_matrix * glm::vec4(dx, dy, dz, 0.0f));
+
+        std::vector<EyePointeeHolder*> eye_pointee_holders;
+        const std::vector<SceneObject*>& scene_objects =
+                scene->scene_objects();
+        for (auto it = scene_objects.begin(); it != scene_objects.end(); ++it) {
+            collectEyePointeeHolders(*it, ray_origin, ray_direction,
+                    eye_pointee_holders);
+        }
 
         std::vector<EyePointeeHolderData> picked_holder_data;
         for (auto it = eye_pointee_holders.begin(); it != eye_pointee_holders.end(); ++it) {
@@ -111,4 +140,39 @@ glm::vec3 Picker::pickSceneObjectAgainstBoundingBox(
     return glm::vec3(std::numeric_limits<float>::infinity());
 }
 
+/*
+ * Picks a pre-order list of scene objects in one pass. subtree_ends[i] is
+ * the index just past the last descendant of scene_objects[i], so a subtree
+ * whose hierarchical bounding volume the ray misses is skipped whole.
+ *
+ * Writes the index and the hit point of each object whose bounding box the
+ * ray hits, in list order, and returns the number of hits.
+ */
+int Picker::pickSceneObjectsAgainstBoundingBoxes(
+        SceneObject* const * scene_objects, const int* subtree_ends,
+        int count, float ox, float oy, float oz, float dx, float dy,
+        float dz, int* hit_indices, float* hit_points) {
+    int hits = 0;
+    int i = 0;
+    while (i < count) {
+        SceneObject* scene_object = scene_objects[i];
+        if (!scene_object->intersectsBoundingVolume(ox, oy, oz, dx, dy, dz)) {
+            i = subtree_ends[i];
+            continue;
+        }
+
+        glm::vec3 hit = pickSceneObjectAgainstBoundingBox(scene_object, ox,
+                oy, oz, dx, dy, dz);
+        if (hit != glm::vec3(std::numeric_limits<float>::infinity())) {
+            hit_indices[hits] = i;
+            hit_points[hits * 3] = hit.x;
+            hit_points[hits * 3 + 1] = hit.y;
+            hit_points[hits * 3 + 2] = hit.z;
+            ++hits;
+        }
+        ++i;
+    }
+    return hits;
+}
+
 }
@@ -47,6 +47,15 @@ public:
     static glm::vec3 pickSceneObjectAgainstBoundingBox(
             const SceneObject* scene_object, float ox, float oy, float oz,
             float dx, float dy, float dz);
+    static int pickSceneObjectsAgainstBoundingBoxes(
+            SceneObject* const * scene_objects, const int* subtree_ends,
+            int count, float ox, float oy, float oz, float dx, float dy,
+            float dz, int* hit_indices, float* hit_points);
+
+private:
+    static void collectEyePointeeHolders(SceneObject* scene_object,
+            const glm::vec3& ray_origin, const glm::vec3& ray_direction,
+            std::vector<EyePointeeHolder*>& eye_pointee_holders);
 };
 
 }
@@ -36,6 +36,11 @@ JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativePicker_pickSceneObjectAgainstBoundingBox(JNIEnv * env,
         jobject obj, jlong jscene_object, jfloat ox, jfloat oy, jfloat oz, jfloat dx,
         jfloat dy, jfloat dz);
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativePicker_pickSceneObjectsAgainstBoundingBoxes(JNIEnv * env,
+        jobject obj, jlongArray jscene_objects, jintArray jsubtree_ends,
+        jint count, jfloat ox, jfloat oy, jfloat oz, jfloat dx, jfloat dy,
+        jfloat dz, jintArray jhit_indices, jfloatArray jhit_points);
 }
 
 JNIEXPORT jlongArray JNICALL
@@ -90,4 +95,35 @@ Java_org_gearvrf_NativePicker_pickSceneObjectAgainstBoundingBox(JNIEnv * env,
     return jhit;
 }
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativePicker_pickSceneObjectsAgainstBoundingBoxes(JNIEnv * env,
+        jobject obj, jlongArray jscene_objects, jintArray jsubtree_ends,
+        jint count, jfloat ox, jfloat oy, jfloat oz, jfloat dx, jfloat dy,
+        jfloat dz, jintArray jhit_indices, jfloatArray jhit_points) {
+    if (count <= 0) {
+        return 0;
+    }
+
+    std::vector<SceneObject*> scene_objects(count);
+    std::vector<jint> subtree_ends(count);
+    jlong* longs = env->GetLongArrayElements(jscene_objects, 0);
+    for (int i = 0; i < count; ++i) {
+        scene_objects[i] = reinterpret_cast<SceneObject*>(longs[i]);
+    }
+    env->ReleaseLongArrayElements(jscene_objects, longs, JNI_ABORT);
+    env->GetIntArrayRegion(jsubtree_ends, 0, count, subtree_ends.data());
+
+    std::vector<jint> hit_indices(count);
+    std::vector<jfloat> hit_points(count * 3);
+    int hits = Picker::pickSceneObjectsAgainstBoundingBoxes(
+            scene_objects.data(), subtree_ends.data(), count, ox, oy, oz, dx,
+            dy, dz, hit_indices.data(), hit_points.data());
+
+    if (hits > 0) {
+        env->SetIntArrayRegion(jhit_indices, 0, hits, hit_indices.data());
+        env->SetFloatArrayRegion(jhit_points, 0, hits * 3, hit_points.data());
+    }
+    return hits;
+}
+
 }
@@ -0,0 +1,55 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * One recorded draw: everything the GL step needs, and nothing it has to
+ * work out.
+ ***************************************************************************/
+
+#ifndef RENDER_COMMAND_H_
+#define RENDER_COMMAND_H_
+
+#include "glm/glm.hpp"
+
+namespace gvr {
+class Material;
+class Mesh;
+class RenderData;
+
+/*
+ * Plain data: recording a command makes no GL calls, so the cull, sort and
+ * record stages can run (and be measured) without a GL context, and a
+ * range of commands can be recorded on any thread.
+ */
+struct RenderCommand {
+    RenderData* render_data;
+    Mesh* mesh;
+    Material* material;
+    int pass;
+
+    glm::mat4 model_matrix;
+    glm::mat4 mv_matrix;
+    glm::mat4 mvp_matrix;
+
+    int cull_face;
+    bool offset;
+    float offset_factor;
+    float offset_units;
+    bool depth_test;
+    bool alpha_blend;
+};
+
+}
+#endif
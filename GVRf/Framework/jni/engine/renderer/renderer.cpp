@@ -19,9 +19,13 @@
 
 #include "renderer.h"
 
+#include <cstring>
+
 #include "glm/gtc/matrix_inverse.hpp"
 
 #include "eglextension/tiledrendering/tiled_rendering_enhancer.h"
+#include "engine/renderer/worker_pool.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/post_effect_data.h"
 #include "objects/scene.h"
@@ -40,6 +44,10 @@ namespace gvr {
 static int numberDrawCalls;
 static int numberTriangles;
 
+// The render list of cull(), cullStereo() and renderCamera(), on the GL
+// thread
+static RenderListState gl_render_list;
+
 void Renderer::initializeStats() {
     // TODO: this function will be filled in once we add draw time stats
 }
@@ -47,6 +55,8 @@ void Renderer::initializeStats() {
 void Renderer::resetStats() {
     numberDrawCalls = 0;
     numberTriangles = 0;
+    gl_render_list.number_render_list_sorts = 0;
+    GLStateCache::resetStats();
 }
 
 int Renderer::getNumberDrawCalls() {
@@ -57,11 +67,26 @@ int Renderer::getNumberTriangles() {
     return numberTriangles;
 }
 
-static std::vector<RenderData*> render_data_vector;
-static std::vector<SceneObject*> scene_objects;
+int Renderer::getNumberVisibleObjects() {
+    return gl_render_list.number_visible_objects;
+}
+
+int Renderer::getNumberRenderListSorts() {
+    return gl_render_list.number_render_list_sorts;
+}
+
+int Renderer::getNumberProgramBinds() {
+    return GLStateCache::getNumberProgramBinds();
+}
+
+int Renderer::getNumberTextureBinds() {
+    return GLStateCache::getNumberTextureBinds();
+}
+
+static void addRenderData(RenderListState& state, RenderData *render_data);
 
 void Renderer::frustum_cull(Camera *camera, SceneObject *object,
-        float frustum[6][4]) {
+        float frustum[6][4], std::vector<SceneObject*>& visible_objects) {
     // frustumCull() return 3 possible values:
     // 0 when the bounding volume of the object is completely outside the frustum: cull it out and do not continue with its children
     // 1 when the bounding volume of the object is intersecting(or inside) the frustum but the object itself is not: cull it out and continue culling with its children
@@ -72,23 +97,106 @@ void Renderer::frustum_cull(Camera *camera, SceneObject *object,
     }
 
     if (cullVal == 2) {
-        scene_objects.push_back(object);
+        visible_objects.push_back(object);
     }
 
     const std::vector<SceneObject*> children = object->children();
     for (auto it = children.begin(); it != children.end(); ++it) {
-        frustum_cull(camera, *it, frustum);
+        frustum_cull(camera, *it, frustum, visible_objects);
     }
 }
 
-void Renderer::cull(Scene *scene, Camera *camera,
-        ShaderManager* shader_manager) {
-    glm::mat4 view_matrix = camera->getViewMatrix();
-    glm::mat4 projection_matrix = camera->getProjectionMatrix();
-    glm::mat4 vp_matrix = glm::mat4(projection_matrix * view_matrix);
+/*
+ * Parallel frustum culling splits the tree into subtrees that are culled
+ * independently, each into its own output list. Concatenating the lists in
+ * subtree order gives exactly the serial (pre-order) result.
+ *
+ * A subtree only reads and caches state of its own nodes. The one exception
+ * is its root's parent transform, which the split below validates before
+ * the workers start. Mesh bounding volumes are computed when the vertices
+ * are set, so shared meshes are only read.
+ */
+namespace {
+typedef RenderListState::CullItem CullItem;
 
-    render_data_vector.clear();
-    scene_objects.clear();
+const int CULL_ITEMS_PER_THREAD = 4;
+const int MAX_CULL_SPLIT_DEPTH = 4;
+}
+
+void Renderer::parallel_frustum_cull(RenderListState& state, Camera *camera,
+        const std::vector<SceneObject*>& root_objects, float frustum[6][4],
+        int threads) {
+    std::vector<CullItem>& cull_items = state.cull_items;
+    std::vector<CullItem>& split_cull_items = state.split_cull_items;
+    std::vector<std::vector<SceneObject*> >& cull_outputs =
+            state.cull_outputs;
+    cull_items.clear();
+    for (auto it = root_objects.begin(); it != root_objects.end(); ++it) {
+        CullItem item = { *it, true };
+        cull_items.push_back(item);
+    }
+
+    // A few big subtrees balance badly: split them until there are enough
+    // items, testing the nodes that are split on this thread
+    for (int depth = 0;
+            depth < MAX_CULL_SPLIT_DEPTH
+                    && cull_items.size() < threads * CULL_ITEMS_PER_THREAD;
+            ++depth) {
+        bool split = false;
+        split_cull_items.clear();
+        for (auto it = cull_items.begin(); it != cull_items.end(); ++it) {
+            SceneObject* object = it->object;
+            if (!it->subtree || object->children().empty()) {
+                split_cull_items.push_back(*it);
+                continue;
+            }
+            split = true;
+            int cullVal = object->frustumCull(camera, frustum);
+            if (cullVal == 0) {
+                continue;
+            }
+            if (cullVal == 2) {
+                CullItem item = { object, false };
+                split_cull_items.push_back(item);
+            }
+            object->transform()->getModelMatrix();
+            const std::vector<SceneObject*>& children = object->children();
+            for (auto child = children.begin(); child != children.end();
+                    ++child) {
+                CullItem item = { *child, true };
+                split_cull_items.push_back(item);
+            }
+        }
+        cull_items.swap(split_cull_items);
+        if (!split) {
+            break;
+        }
+    }
+
+    if (cull_outputs.size() < cull_items.size()) {
+        cull_outputs.resize(cull_items.size());
+    }
+    state.cull_worker_pool.run(cull_items.size(), threads,
+            [camera, frustum, &cull_items, &cull_outputs](int i) {
+        std::vector<SceneObject*>& output = cull_outputs[i];
+        output.clear();
+        if (cull_items[i].subtree) {
+            frustum_cull(camera, cull_items[i].object, frustum, output);
+        } else {
+            output.push_back(cull_items[i].object);
+        }
+    });
+
+    for (int i = 0; i < cull_items.size(); ++i) {
+        state.scene_objects.insert(state.scene_objects.end(),
+                cull_outputs[i].begin(), cull_outputs[i].end());
+    }
+}
+
+void Renderer::collect_scene_objects(RenderListState& state, Scene *scene,
+        Camera *camera, float frustum[6][4]) {
+    state.culled_render_data.clear();
+    state.scene_objects.clear();
 
     // 1. Travese all scene objects in the scene as a tree and do frustum culling at the same time if enabled
     if (scene->get_frustum_culling()) {
@@ -96,12 +204,13 @@ void Renderer::cull(Scene *scene, Camera *camera,
             LOGD("FRUSTUM: start frustum culling\n");
         }
 
-        // 1. Build the view frustum
-        float frustum[6][4];
-        build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
-
         // 2. Iteratively execute frustum culling for each root object (as well as its children objects recursively)
         std::vector<SceneObject*> root_objects = scene->scene_objects();
+        if (scene->get_cull_threads() > 1) {
+            parallel_frustum_cull(state, camera, root_objects, frustum,
+                    scene->get_cull_threads());
+            return;
+        }
         for (auto it = root_objects.begin(); it != root_objects.end(); ++it) {
             SceneObject *object = *it;
             if (DEBUG_RENDERER) {
@@ -109,7 +218,7 @@ void Renderer::cull(Scene *scene, Camera *camera,
                         object->name().c_str());
             }
 
-            frustum_cull(camera, object, frustum);
+            frustum_cull(camera, object, frustum, state.scene_objects);
 
             if (DEBUG_RENDERER) {
                 LOGD("FRUSTUM: end frustum culling for root %s\n",
@@ -120,15 +229,207 @@ void Renderer::cull(Scene *scene, Camera *camera,
             LOGD("FRUSTUM: end frustum culling\n");
         }
     } else {
-        scene_objects = scene->getWholeSceneObjects();
+        state.scene_objects = scene->getWholeSceneObjects();
     }
+}
+
+void Renderer::cull(Scene *scene, Camera *camera,
+        ShaderManager* shader_manager) {
+    glm::mat4 view_matrix = camera->getViewMatrix();
+    glm::mat4 projection_matrix = camera->getProjectionMatrix();
+    glm::mat4 vp_matrix = glm::mat4(projection_matrix * view_matrix);
+
+    // 1. Build the view frustum
+    float frustum[6][4];
+    build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
+
+    collect_scene_objects(gl_render_list, scene, camera, frustum);
 
     // 2. do occlusion culling, if enabled
-    occlusion_cull(scene, scene_objects, shader_manager, vp_matrix);
+    occlusion_cull(gl_render_list, scene, shader_manager, vp_matrix);
 
     // 3. do sorting based on render order
-    std::sort(render_data_vector.begin(), render_data_vector.end(),
-            compareRenderData);
+    sort_render_data(gl_render_list);
+}
+
+void Renderer::cullStereo(Scene *scene, Camera *center_camera,
+        Camera *left_camera, Camera *right_camera,
+        ShaderManager* shader_manager) {
+    glm::mat4 vp_matrix = center_camera->getProjectionMatrix()
+            * center_camera->getViewMatrix();
+
+    float frustum[6][4];
+    build_stereo_frustum(frustum,
+            left_camera->getProjectionMatrix() * left_camera->getViewMatrix(),
+            right_camera->getProjectionMatrix()
+                    * right_camera->getViewMatrix());
+
+    // Camera distances, for LOD and sorting, are from the center camera
+    collect_scene_objects(gl_render_list, scene, center_camera, frustum);
+
+    occlusion_cull(gl_render_list, scene, shader_manager, vp_matrix);
+
+    sort_render_data(gl_render_list);
+}
+
+void Renderer::recordCamera(Scene* scene, Camera* camera,
+        RenderListState& state, std::vector<RenderCommand>& commands) {
+    glm::mat4 view_matrix = camera->getViewMatrix();
+    glm::mat4 projection_matrix = camera->getProjectionMatrix();
+    glm::mat4 vp_matrix = glm::mat4(projection_matrix * view_matrix);
+
+    float frustum[6][4];
+    build_frustum(frustum, (const float*) glm::value_ptr(vp_matrix));
+
+    collect_scene_objects(state, scene, camera, frustum);
+
+    // Occlusion queries need GL, so they are skipped here
+    for (auto it = state.scene_objects.begin();
+            it != state.scene_objects.end(); ++it) {
+        addRenderData(state, (*it)->render_data());
+    }
+
+    sort_render_data(state);
+
+    recordCommands(state.render_data_vector, view_matrix, projection_matrix,
+            camera->render_mask(), commands);
+}
+
+bool Renderer::is_render_list_unchanged(const RenderListState& state) {
+    if (state.culled_render_data != state.previous_culled_render_data) {
+        return false;
+    }
+
+    for (int i = 0; i < state.culled_render_data.size(); ++i) {
+        if (state.culled_render_data[i]->rendering_order()
+                != state.previous_rendering_orders[i]) {
+            return false;
+        }
+    }
+    return true;
+}
+
+/*
+ * Sorting by one 64-bit key puts the render list in drawing order:
+ *
+ *   63-48  rendering order
+ *
+ * then, for transparent objects (which must be drawn back to front)
+ *
+ *   31-0   camera distance, descending
+ *
+ * and for everything else, which is grouped by the GL state it needs
+ *
+ *   47-40  shader type
+ *   39-24  main texture, or the material if there is none
+ *   23-0   camera distance, ascending (front to back)
+ */
+static uint64_t sort_key(RenderData* render_data) {
+    int rendering_order = render_data->rendering_order() + 0x8000;
+    if (rendering_order < 0) {
+        rendering_order = 0;
+    } else if (rendering_order > 0xFFFF) {
+        rendering_order = 0xFFFF;
+    }
+    uint64_t key = static_cast<uint64_t>(rendering_order) << 48;
+
+    // The distance is a squared length, so never negative, and the bits of
+    // a non-negative float sort like the float itself.
+    float distance = render_data->camera_distance();
+    uint32_t distance_bits;
+    memcpy(&distance_bits, &distance, sizeof(distance_bits));
+
+    if (render_data->rendering_order() >= RenderData::Transparent
+            && render_data->rendering_order() < RenderData::Overlay) {
+        return key | ~distance_bits;
+    }
+
+    static const int main_texture_key = Material::keyId("main_texture");
+    Material* material = render_data->pass(0)->material();
+    Texture* texture = material->getTexture(main_texture_key);
+    uint64_t identity =
+            texture != 0 ?
+                    texture->getId() :
+                    reinterpret_cast<uintptr_t>(material) >> 4;
+    uint64_t shader = material->shader_type();
+    return key | ((shader & 0xFF) << 40) | ((identity & 0xFFFF) << 24)
+            | (distance_bits >> 8);
+}
+
+/*
+ * LSD radix sort, a byte at a time. Bytes that are the same in every key
+ * (most of the rendering order, usually) are skipped.
+ */
+static void radix_sort(std::vector<std::pair<uint64_t, RenderData*> >& entries,
+        std::vector<std::pair<uint64_t, RenderData*> >& scratch) {
+    if (entries.size() < 2) {
+        return;
+    }
+    scratch.resize(entries.size());
+    for (int shift = 0; shift < 64; shift += 8) {
+        int counts[256] = { 0 };
+        for (auto it = entries.begin(); it != entries.end(); ++it) {
+            counts[(it->first >> shift) & 0xFF]++;
+        }
+        if (counts[(entries[0].first >> shift) & 0xFF] == entries.size()) {
+            continue;
+        }
+        int offset = 0;
+        for (int i = 0; i < 256; ++i) {
+            int count = counts[i];
+            counts[i] = offset;
+            offset += count;
+        }
+        for (auto it = entries.begin(); it != entries.end(); ++it) {
+            scratch[counts[(it->first >> shift) & 0xFF]++] = *it;
+        }
+        entries.swap(scratch);
+    }
+}
+
+void Renderer::sort_render_data(RenderListState& state) {
+    std::vector<std::pair<uint64_t, RenderData*> >& sort_entries =
+            state.sort_entries;
+    if (is_render_list_unchanged(state)) {
+        // Same render data in the same rendering orders as the last frame:
+        // only camera distances and materials can have changed, so last
+        // frame's order is nearly sorted and an insertion sort restores it
+        // in close to linear time.
+        for (auto it = sort_entries.begin(); it != sort_entries.end(); ++it) {
+            it->first = sort_key(it->second);
+        }
+        for (int i = 1; i < sort_entries.size(); ++i) {
+            std::pair<uint64_t, RenderData*> entry = sort_entries[i];
+            int j = i - 1;
+            while (j >= 0 && entry.first < sort_entries[j].first) {
+                sort_entries[j + 1] = sort_entries[j];
+                --j;
+            }
+            sort_entries[j + 1] = entry;
+        }
+    } else {
+        sort_entries.clear();
+        for (auto it = state.culled_render_data.begin();
+                it != state.culled_render_data.end(); ++it) {
+            sort_entries.push_back(std::make_pair(sort_key(*it), *it));
+        }
+        radix_sort(sort_entries, state.sort_scratch);
+        state.number_render_list_sorts++;
+
+        state.previous_rendering_orders.clear();
+        for (auto it = state.culled_render_data.begin();
+                it != state.culled_render_data.end(); ++it) {
+            state.previous_rendering_orders.push_back(
+                    (*it)->rendering_order());
+        }
+        state.previous_culled_render_data.swap(state.culled_render_data);
+    }
+
+    state.render_data_vector.clear();
+    for (auto it = sort_entries.begin(); it != sort_entries.end(); ++it) {
+        state.render_data_vector.push_back(it->second);
+    }
+    state.number_visible_objects = state.render_data_vector.size();
 }
 
 void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
@@ -145,6 +446,8 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
 
     numberDrawCalls = 0;
     numberTriangles = 0;
+    GLStateCache::invalidate();
+    GLStateCache::resetStats();
 
     glm::mat4 view_matrix = camera->getViewMatrix();
     glm::mat4 projection_matrix = camera->getProjectionMatrix();
@@ -152,6 +455,11 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
 
     std::vector<PostEffectData*> post_effects = camera->post_effect_data();
 
+    std::vector<RenderCommand>& render_commands =
+            gl_render_list.render_commands;
+    recordCommands(gl_render_list.render_data_vector, view_matrix,
+            projection_matrix, camera->render_mask(), render_commands);
+
     glEnable (GL_DEPTH_TEST);
     glDepthFunc (GL_LEQUAL);
     glEnable (GL_CULL_FACE);
@@ -172,11 +480,8 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
                 camera->background_color_b(), camera->background_color_a());
         glClear(GL_DEPTH_BUFFER_BIT | GL_COLOR_BUFFER_BIT);
 
-        for (auto it = render_data_vector.begin();
-                it != render_data_vector.end(); ++it) {
-            renderRenderData(*it, view_matrix, projection_matrix,
-                    camera->render_mask(), shader_manager);
-        }
+        executeCommands(render_commands, view_matrix, camera->render_mask(),
+                shader_manager);
     } else {
         RenderTexture* texture_render_texture = post_effect_render_texture_a;
         RenderTexture* target_render_texture;
@@ -190,11 +495,8 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
                 camera->background_color_b(), camera->background_color_a());
         glClear(GL_DEPTH_BUFFER_BIT | GL_COLOR_BUFFER_BIT);
 
-        for (auto it = render_data_vector.begin();
-                it != render_data_vector.end(); ++it) {
-            renderRenderData(*it, view_matrix, projection_matrix,
-                    camera->render_mask(), shader_manager);
-        }
+        executeCommands(render_commands, view_matrix, camera->render_mask(),
+                shader_manager);
 
         glDisable(GL_DEPTH_TEST);
         glDisable(GL_CULL_FACE);
@@ -223,7 +525,7 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int framebufferId,
     }
 }
 
-void addRenderData(RenderData *render_data) {
+static void addRenderData(RenderListState& state, RenderData *render_data) {
     if (render_data == 0 || render_data->pass(0)->material() == 0) {
         return;
     }
@@ -236,20 +538,20 @@ void addRenderData(RenderData *render_data) {
         return;
     }
 
-    render_data_vector.push_back(render_data);
+    state.culled_render_data.push_back(render_data);
     return;
 }
 
-void Renderer::occlusion_cull(Scene* scene,
-        std::vector<SceneObject*> scene_objects, ShaderManager *shader_manager,
-        glm::mat4 vp_matrix) {
+void Renderer::occlusion_cull(RenderListState& state, Scene* scene,
+        ShaderManager *shader_manager, glm::mat4 vp_matrix) {
+    const std::vector<SceneObject*>& scene_objects = state.scene_objects;
 
     bool do_culling = scene->get_occlusion_culling();
     if (!do_culling) {
         for (auto it = scene_objects.begin(); it != scene_objects.end(); ++it) {
             SceneObject *scene_object = (*it);
             RenderData* render_data = scene_object->render_data();
-            addRenderData(render_data);
+            addRenderData(state, render_data);
         }
         return;
     }
@@ -322,7 +624,7 @@ void Renderer::occlusion_cull(Scene* scene,
 
             (*it)->set_visible(visibility);
             (*it)->set_query_issued(false);
-            addRenderData((*it)->render_data());
+            addRenderData(state, (*it)->render_data());
         }
     }
 #endif
@@ -422,6 +724,42 @@ void Renderer::build_frustum(float frustum[6][4], const float *vp_matrix) {
     frustum[5][3] /= t;
 }
 
+/*
+ * A frustum that contains both eyes' frusta. The union of two frusta is not
+ * a frustum, so this is conservative: each of the left eye's planes is
+ * pushed out until the corners of both frusta are inside it. Since both
+ * frusta are convex, everything either eye can see is then inside all six
+ * planes. For eyes that only differ by a small offset, the planes barely
+ * move.
+ */
+void Renderer::build_stereo_frustum(float frustum[6][4],
+        const glm::mat4& left_vp_matrix, const glm::mat4& right_vp_matrix) {
+    build_frustum(frustum, (const float*) glm::value_ptr(left_vp_matrix));
+
+    glm::vec3 corners[16];
+    const glm::mat4 inverse_vp_matrices[2] = { glm::inverse(left_vp_matrix),
+            glm::inverse(right_vp_matrix) };
+    for (int eye = 0; eye < 2; ++eye) {
+        for (int i = 0; i < 8; ++i) {
+            glm::vec4 ndc((i & 1) ? 1.0f : -1.0f, (i & 2) ? 1.0f : -1.0f,
+                    (i & 4) ? 1.0f : -1.0f, 1.0f);
+            glm::vec4 corner = inverse_vp_matrices[eye] * ndc;
+            corners[eye * 8 + i] = glm::vec3(corner) / corner.w;
+        }
+    }
+
+    for (int p = 0; p < 6; ++p) {
+        for (int i = 0; i < 16; ++i) {
+            float distance = frustum[p][0] * corners[i].x
+                    + frustum[p][1] * corners[i].y
+                    + frustum[p][2] * corners[i].z + frustum[p][3];
+            if (distance < 0) {
+                frustum[p][3] -= distance;
+            }
+        }
+    }
+}
+
 void Renderer::renderCamera(Scene* scene, Camera* camera,
         ShaderManager* shader_manager,
         PostEffectShaderManager* post_effect_shader_manager,
@@ -462,131 +800,185 @@ void Renderer::renderCamera(Scene* scene, Camera* camera, int viewportX,
             post_effect_render_texture_a, post_effect_render_texture_b);
 }
 
-void Renderer::renderRenderData(RenderData* render_data,
+void Renderer::recordCommands(const std::vector<RenderData*>& render_data_list,
         const glm::mat4& view_matrix, const glm::mat4& projection_matrix,
-        int render_mask, ShaderManager* shader_manager) {
-    if (render_mask & render_data->render_mask()) {
-
-        if (render_data->offset()) {
-            glEnable (GL_POLYGON_OFFSET_FILL);
-            glPolygonOffset(render_data->offset_factor(),
-                    render_data->offset_units());
-        }
-        if (!render_data->depth_test()) {
-            glDisable (GL_DEPTH_TEST);
-        }
-        if (!render_data->alpha_blend()) {
-            glDisable (GL_BLEND);
-        }
-        if (render_data->mesh() != 0) {
-            for (int curr_pass = 0; curr_pass < render_data->pass_count();
-                    ++curr_pass) {
-                numberTriangles += render_data->mesh()->getNumTriangles();
-                numberDrawCalls++;
-
-                set_face_culling(render_data->pass(curr_pass)->cull_face());
-                Material* curr_material =
-                        render_data->pass(curr_pass)->material();
-                Transform* const t = render_data->owner_object()->transform();
-
-                if (curr_material != nullptr && nullptr != t) {
-                    glm::mat4 model_matrix(t->getModelMatrix());
-                    glm::mat4 mv_matrix(view_matrix * model_matrix);
-                    glm::mat4 mvp_matrix(projection_matrix * mv_matrix);
-                    try {
-                        bool right = render_mask
-                                & RenderData::RenderMaskBit::Right;
-                        switch (curr_material->shader_type()) {
-                        case Material::ShaderType::UNLIT_HORIZONTAL_STEREO_SHADER:
-                            shader_manager->getUnlitHorizontalStereoShader()->render(
-                                    mvp_matrix, render_data, curr_material,
-                                    right);
-                            break;
-                        case Material::ShaderType::UNLIT_VERTICAL_STEREO_SHADER:
-                            shader_manager->getUnlitVerticalStereoShader()->render(
-                                    mvp_matrix, render_data, curr_material,
-                                    right);
-                            break;
-                        case Material::ShaderType::OES_SHADER:
-                            shader_manager->getOESShader()->render(mvp_matrix,
-                                    render_data, curr_material);
-                            break;
-                        case Material::ShaderType::OES_HORIZONTAL_STEREO_SHADER:
-                            shader_manager->getOESHorizontalStereoShader()->render(
-                                    mvp_matrix, render_data, curr_material,
-                                    right);
-                            break;
-                        case Material::ShaderType::OES_VERTICAL_STEREO_SHADER:
-                            shader_manager->getOESVerticalStereoShader()->render(
-                                    mvp_matrix, render_data, curr_material,
-                                    right);
-                            break;
-                        case Material::ShaderType::CUBEMAP_SHADER:
-                            shader_manager->getCubemapShader()->render(
-                                    model_matrix, mvp_matrix, render_data,
-                                    curr_material);
-                            break;
-                        case Material::ShaderType::CUBEMAP_REFLECTION_SHADER:
-                            shader_manager->getCubemapReflectionShader()->render(
-                                    mv_matrix, glm::inverseTranspose(mv_matrix),
-                                    glm::inverse(view_matrix), mvp_matrix,
-                                    render_data, curr_material);
-                            break;
-                        case Material::ShaderType::TEXTURE_SHADER:
-                            shader_manager->getTextureShader()->render(
-                                    mv_matrix, glm::inverseTranspose(mv_matrix),
-                                    mvp_matrix, render_data, curr_material);
-                            break;
-                        case Material::ShaderType::EXTERNAL_RENDERER_SHADER:
-                            shader_manager->getExternalRendererShader()->render(
-                                    mv_matrix, glm::inverseTranspose(mv_matrix),
-                                    mvp_matrix, render_data);
-                            break;
-                        case Material::ShaderType::ASSIMP_SHADER:
-                            shader_manager->getAssimpShader()->render(mv_matrix,
-                                    glm::inverseTranspose(mv_matrix),
-                                    mvp_matrix, render_data, curr_material);
-                            break;
-                        case Material::ShaderType::UNLIT_FBO_SHADER:
-                            shader_manager->getUnlitFboShader()->render(
-                                    mvp_matrix, render_data, curr_material);
-                            break;
-                        default:
-                            shader_manager->getCustomShader(
-                                    curr_material->shader_type())->render(
-                                    mvp_matrix, render_data, curr_material,
-                                    right);
-                            break;
-                        }
-                    } catch (const std::string &error) {
-                        LOGE(
-                                "Error detected in Renderer::renderRenderData; name : %s, error : %s",
-                                render_data->owner_object()->name().c_str(),
-                                error.c_str());
-                        shader_manager->getErrorShader()->render(mvp_matrix,
-                                render_data);
-                    }
-                }
-            }
+        int render_mask, std::vector<RenderCommand>& commands) {
+    commands.clear();
+    for (auto it = render_data_list.begin(); it != render_data_list.end();
+            ++it) {
+        RenderData* render_data = *it;
+        if ((render_mask & render_data->render_mask()) == 0
+                || render_data->mesh() == 0) {
+            continue;
+        }
+        Transform* const t = render_data->owner_object()->transform();
+        if (t == nullptr) {
+            continue;
         }
 
-        // Restoring to Default.
-        // TODO: There's a lot of redundant state changes. If on every render face culling is being set there's no need to
-        // restore defaults. Possibly later we could add a OpenGL state wrapper to avoid redundant api calls.
-        if (render_data->cull_face() != RenderData::CullBack) {
-            glEnable (GL_CULL_FACE);
-            glCullFace (GL_BACK);
+        RenderCommand command;
+        command.render_data = render_data;
+        command.mesh = render_data->mesh();
+        command.model_matrix = t->getModelMatrix();
+        command.mv_matrix = view_matrix * command.model_matrix;
+        command.mvp_matrix = projection_matrix * command.mv_matrix;
+        command.offset = render_data->offset();
+        command.offset_factor = render_data->offset_factor();
+        command.offset_units = render_data->offset_units();
+        command.depth_test = render_data->depth_test();
+        command.alpha_blend = render_data->alpha_blend();
+
+        for (int curr_pass = 0; curr_pass < render_data->pass_count();
+                ++curr_pass) {
+            const RenderPass* pass = render_data->pass(curr_pass);
+            if (pass->material() == nullptr) {
+                continue;
+            }
+            command.material = pass->material();
+            command.pass = curr_pass;
+            command.cull_face = pass->cull_face();
+            commands.push_back(command);
         }
+    }
+}
 
-        if (render_data->offset()) {
+/*
+ * The state renderCamera() sets up is the default; a command only changes
+ * what it needs, and what it changed is put back before the next command
+ * that needs the default, or at the end.
+ */
+void Renderer::executeCommands(const std::vector<RenderCommand>& commands,
+        const glm::mat4& view_matrix, int render_mask,
+        ShaderManager* shader_manager) {
+    const bool right = render_mask & RenderData::RenderMaskBit::Right;
+    int cull_face = RenderData::CullBack;
+    bool offset = false;
+    bool depth_test = true;
+    bool alpha_blend = true;
+    bool have_inverse_view = false;
+    glm::mat4 inverse_view_matrix;
+
+    for (auto it = commands.begin(); it != commands.end(); ++it) {
+        const RenderCommand& command = *it;
+        RenderData* render_data = command.render_data;
+        Material* curr_material = command.material;
+
+        if (command.offset) {
+            glEnable (GL_POLYGON_OFFSET_FILL);
+            glPolygonOffset(command.offset_factor, command.offset_units);
+        } else if (offset) {
             glDisable (GL_POLYGON_OFFSET_FILL);
         }
-        if (!render_data->depth_test()) {
-            glEnable (GL_DEPTH_TEST);
+        offset = command.offset;
+        if (command.depth_test != depth_test) {
+            if (command.depth_test) {
+                glEnable (GL_DEPTH_TEST);
+            } else {
+                glDisable (GL_DEPTH_TEST);
+            }
+            depth_test = command.depth_test;
+        }
+        if (command.alpha_blend != alpha_blend) {
+            if (command.alpha_blend) {
+                glEnable (GL_BLEND);
+            } else {
+                glDisable (GL_BLEND);
+            }
+            alpha_blend = command.alpha_blend;
         }
-        if (!render_data->alpha_blend()) {
-            glEnable (GL_BLEND);
+        if (command.cull_face != cull_face) {
+            set_face_culling(command.cull_face);
+            cull_face = command.cull_face;
         }
+
+        numberTriangles += command.mesh->getNumTriangles();
+        numberDrawCalls++;
+
+        const glm::mat4& model_matrix = command.model_matrix;
+        const glm::mat4& mv_matrix = command.mv_matrix;
+        const glm::mat4& mvp_matrix = command.mvp_matrix;
+        try {
+            switch (curr_material->shader_type()) {
+            case Material::ShaderType::UNLIT_HORIZONTAL_STEREO_SHADER:
+                shader_manager->getUnlitHorizontalStereoShader()->render(
+                        mvp_matrix, render_data, curr_material, right);
+                break;
+            case Material::ShaderType::UNLIT_VERTICAL_STEREO_SHADER:
+                shader_manager->getUnlitVerticalStereoShader()->render(
+                        mvp_matrix, render_data, curr_material, right);
+                break;
+            case Material::ShaderType::OES_SHADER:
+                shader_manager->getOESShader()->render(mvp_matrix,
+                        render_data, curr_material);
+                break;
+            case Material::ShaderType::OES_HORIZONTAL_STEREO_SHADER:
+                shader_manager->getOESHorizontalStereoShader()->render(
+                        mvp_matrix, render_data, curr_material, right);
+                break;
+            case Material::ShaderType::OES_VERTICAL_STEREO_SHADER:
+                shader_manager->getOESVerticalStereoShader()->render(
+                        mvp_matrix, render_data, curr_material, right);
+                break;
+            case Material::ShaderType::CUBEMAP_SHADER:
+                shader_manager->getCubemapShader()->render(model_matrix,
+                        mvp_matrix, render_data, curr_material);
+                break;
+            case Material::ShaderType::CUBEMAP_REFLECTION_SHADER:
+                if (!have_inverse_view) {
+                    inverse_view_matrix = glm::inverse(view_matrix);
+                    have_inverse_view = true;
+                }
+                shader_manager->getCubemapReflectionShader()->render(
+                        mv_matrix, glm::inverseTranspose(mv_matrix),
+                        inverse_view_matrix, mvp_matrix, render_data,
+                        curr_material);
+                break;
+            case Material::ShaderType::TEXTURE_SHADER:
+                shader_manager->getTextureShader()->render(mv_matrix,
+                        glm::inverseTranspose(mv_matrix), mvp_matrix,
+                        render_data, curr_material);
+                break;
+            case Material::ShaderType::EXTERNAL_RENDERER_SHADER:
+                shader_manager->getExternalRendererShader()->render(
+                        mv_matrix, glm::inverseTranspose(mv_matrix),
+                        mvp_matrix, render_data);
+                GLStateCache::invalidate();
+                break;
+            case Material::ShaderType::ASSIMP_SHADER:
+                shader_manager->getAssimpShader()->render(mv_matrix,
+                        glm::inverseTranspose(mv_matrix), mvp_matrix,
+                        render_data, curr_material);
+                break;
+            case Material::ShaderType::UNLIT_FBO_SHADER:
+                shader_manager->getUnlitFboShader()->render(mvp_matrix,
+                        render_data, curr_material);
+                break;
+            default:
+                shader_manager->getCustomShader(curr_material->shader_type())->render(
+                        mvp_matrix, render_data, curr_material, right);
+                break;
+            }
+        } catch (const std::string &error) {
+            LOGE(
+                    "Error detected in Renderer::executeCommands; name : %s, error : %s",
+                    render_data->owner_object()->name().c_str(),
+                    error.c_str());
+            shader_manager->getErrorShader()->render(mvp_matrix, render_data);
+        }
+    }
+
+    // Restoring to Default.
+    if (cull_face != RenderData::CullBack) {
+        set_face_culling(RenderData::CullBack);
+    }
+    if (offset) {
+        glDisable (GL_POLYGON_OFFSET_FILL);
+    }
+    if (!depth_test) {
+        glEnable (GL_DEPTH_TEST);
+    }
+    if (!alpha_blend) {
+        glEnable (GL_BLEND);
     }
 }
 
@@ -20,8 +20,10 @@
 #ifndef RENDERER_H_
 #define RENDERER_H_
 
+#include <cstdint>
 #include <vector>
 #include <memory>
+#include <utility>
 
 #define __gl2_h_
 #include "EGL/egl.h"
@@ -38,6 +40,8 @@
 #include "objects/mesh.h"
 #include "objects/bounding_volume.h"
 #include "gl/gl_program.h"
+#include "engine/renderer/render_command.h"
+#include "engine/renderer/worker_pool.h"
 
 namespace gvr {
 class Camera;
@@ -49,6 +53,48 @@ class RenderData;
 class RenderTexture;
 class ShaderManager;
 
+/*
+ * Everything that culling, sorting and recording keep between calls. The
+ * sorted render list persists across frames, and is only fully re-sorted
+ * when the culled render data or their rendering orders change, so keep
+ * one state per view and pass it every frame. Calls with different states
+ * share nothing but the scene.
+ */
+class RenderListState {
+public:
+    RenderListState() :
+            number_visible_objects(0), number_render_list_sorts(0) {
+    }
+
+    std::vector<SceneObject*> scene_objects;
+    std::vector<RenderData*> culled_render_data;
+    std::vector<RenderData*> previous_culled_render_data;
+    std::vector<int> previous_rendering_orders;
+    std::vector<std::pair<uint64_t, RenderData*> > sort_entries;
+    std::vector<std::pair<uint64_t, RenderData*> > sort_scratch;
+    std::vector<RenderData*> render_data_vector;
+    std::vector<RenderCommand> render_commands;
+
+    // Parallel frustum culling
+    struct CullItem {
+        SceneObject* object;
+        bool subtree; // false: object was already tested, and is visible
+    };
+    WorkerPool cull_worker_pool;
+    std::vector<CullItem> cull_items;
+    std::vector<CullItem> split_cull_items;
+    std::vector<std::vector<SceneObject*> > cull_outputs;
+
+    int number_visible_objects;
+    int number_render_list_sorts;
+
+private:
+    RenderListState(const RenderListState& state);
+    RenderListState(RenderListState&& state);
+    RenderListState& operator=(const RenderListState& state);
+    RenderListState& operator=(RenderListState&& state);
+};
+
 class Renderer {
 private:
     Renderer();
@@ -83,25 +129,66 @@ public:
     static void cull(Scene *scene, Camera *camera,
             ShaderManager* shader_manager);
 
+    /*
+     * Culls once for both eyes, against a frustum that contains both
+     * eyes' frusta. The render list is then shared by both eyes' (and
+     * their post effects') renderCamera() calls.
+     */
+    static void cullStereo(Scene *scene, Camera *center_camera,
+            Camera *left_camera, Camera *right_camera,
+            ShaderManager* shader_manager);
+
+    /*
+     * Culls, sorts and records a camera's draws without making any GL
+     * calls: occlusion culling, which needs GL queries, is skipped. Use it
+     * to run or measure everything but the GL step, with no GL context.
+     *
+     * It only uses 'state', not the render list of cull() and
+     * renderCamera(). Culling does cache camera distances, LOD and bounding
+     * volumes in the scene objects, though, so it must not run while
+     * anything else culls or changes the same scene.
+     */
+    static void recordCamera(Scene* scene, Camera* camera,
+            RenderListState& state, std::vector<RenderCommand>& commands);
+
+    // No GL calls
+    static void recordCommands(const std::vector<RenderData*>& render_data_list,
+            const glm::mat4& view_matrix, const glm::mat4& projection_matrix,
+            int render_mask, std::vector<RenderCommand>& commands);
+
+    // GL thread only
+    static void executeCommands(const std::vector<RenderCommand>& commands,
+            const glm::mat4& view_matrix, int render_mask,
+            ShaderManager* shader_manager);
+
     static void initializeStats();
     static void resetStats();
     static int getNumberDrawCalls();
     static int getNumberTriangles();
+    static int getNumberVisibleObjects();
+    static int getNumberRenderListSorts();
+    static int getNumberProgramBinds();
+    static int getNumberTextureBinds();
 
 private:
-    static void renderRenderData(RenderData* render_data,
-            const glm::mat4& view_matrix, const glm::mat4& projection_matrix,
-            int render_mask, ShaderManager* shader_manager);
     static void renderPostEffectData(Camera* camera,
             RenderTexture* render_texture, PostEffectData* post_effect_data,
             PostEffectShaderManager* post_effect_shader_manager);
 
-    static void occlusion_cull(Scene* scene,
-            std::vector<SceneObject*> scene_objects,
+    static void collect_scene_objects(RenderListState& state, Scene *scene,
+            Camera *camera, float frustum[6][4]);
+    static void occlusion_cull(RenderListState& state, Scene* scene,
             ShaderManager *shader_manager, glm::mat4 vp_matrix);
+    static bool is_render_list_unchanged(const RenderListState& state);
+    static void sort_render_data(RenderListState& state);
     static void build_frustum(float frustum[6][4], const float *vp_matrix);
+    static void build_stereo_frustum(float frustum[6][4],
+            const glm::mat4& left_vp_matrix, const glm::mat4& right_vp_matrix);
     static void frustum_cull(Camera *camera, SceneObject *object,
-            float frustum[6][4]);
+            float frustum[6][4], std::vector<SceneObject*>& visible_objects);
+    static void parallel_frustum_cull(RenderListState& state,
+            Camera *camera, const std::vector<SceneObject*>& root_objects,
+            float frustum[6][4], int threads);
 
     static void set_face_culling(int cull_face);
 
@@ -0,0 +1,114 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * A small pool of threads that run the iterations of a loop in parallel.
+ ***************************************************************************/
+
+#include "worker_pool.h"
+
+#include <algorithm>
+
+namespace gvr {
+
+WorkerPool::WorkerPool() :
+        threads_(), mutex_(), start_(), done_(), stopping_(false), generation_(
+                0), wanted_workers_(0), started_workers_(0), busy_workers_(
+                0), job_(0), count_(0), next_(0) {
+}
+
+WorkerPool::~WorkerPool() {
+    {
+        std::lock_guard<std::mutex> lock(mutex_);
+        stopping_ = true;
+    }
+    start_.notify_all();
+    for (auto it = threads_.begin(); it != threads_.end(); ++it) {
+        it->join();
+    }
+}
+
+void WorkerPool::run(int count, int threads,
+        const std::function<void(int)>& job) {
+    if (count <= 0) {
+        return;
+    }
+    int workers = std::min(threads, count) - 1;
+    if (workers <= 0) {
+        for (int i = 0; i < count; ++i) {
+            job(i);
+        }
+        return;
+    }
+
+    std::unique_lock<std::mutex> lock(mutex_);
+    while (threads_.size() < static_cast<size_t>(workers)) {
+        threads_.push_back(std::thread(&WorkerPool::workerMain, this));
+    }
+    job_ = &job;
+    count_ = count;
+    next_ = 0;
+    wanted_workers_ = workers;
+    started_workers_ = 0;
+    busy_workers_ = workers;
+    ++generation_;
+    lock.unlock();
+    start_.notify_all();
+
+    work();
+
+    lock.lock();
+    while (busy_workers_ > 0) {
+        done_.wait(lock);
+    }
+    job_ = 0;
+}
+
+void WorkerPool::work() {
+    int i;
+    while ((i = next_.fetch_add(1)) < count_) {
+        (*job_)(i);
+    }
+}
+
+void WorkerPool::workerMain() {
+    unsigned int seen = 0;
+    std::unique_lock<std::mutex> lock(mutex_);
+    while (true) {
+        // Only the first wanted_workers_ threads to wake join each run
+        while (!stopping_
+                && (generation_ == seen || started_workers_ == wanted_workers_)) {
+            if (generation_ != seen) {
+                seen = generation_;
+            }
+            start_.wait(lock);
+        }
+        if (stopping_) {
+            return;
+        }
+        seen = generation_;
+        ++started_workers_;
+        lock.unlock();
+
+        work();
+
+        lock.lock();
+        if (--busy_workers_ == 0) {
+            done_.notify_one();
+        }
+    }
+}
+
+}
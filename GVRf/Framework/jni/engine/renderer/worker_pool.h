@@ -0,0 +1,72 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * A small pool of threads that run the iterations of a loop in parallel.
+ ***************************************************************************/
+
+#ifndef WORKER_POOL_H_
+#define WORKER_POOL_H_
+
+#include <atomic>
+#include <condition_variable>
+#include <functional>
+#include <mutex>
+#include <thread>
+#include <vector>
+
+namespace gvr {
+
+class WorkerPool {
+public:
+    WorkerPool();
+    ~WorkerPool();
+
+    /*
+     * Runs job(0) to job(count - 1) on up to 'threads' threads (the caller
+     * is one of them), and returns when they have all finished. Iterations
+     * are handed out one at a time, so uneven ones balance out. Not
+     * reentrant: run() calls must not overlap.
+     */
+    void run(int count, int threads, const std::function<void(int)>& job);
+
+private:
+    WorkerPool(const WorkerPool& worker_pool);
+    WorkerPool(WorkerPool&& worker_pool);
+    WorkerPool& operator=(const WorkerPool& worker_pool);
+    WorkerPool& operator=(WorkerPool&& worker_pool);
+
+private:
+    void workerMain();
+    void work();
+
+private:
+    std::vector<std::thread> threads_;
+    std::mutex mutex_;
+    std::condition_variable start_;
+    std::condition_variable done_;
+    bool stopping_;
+    unsigned int generation_;
+    int wanted_workers_;
+    int started_workers_;
+    int busy_workers_;
+
+    const std::function<void(int)>* job_;
+    int count_;
+    std::atomic<int> next_;
+};
+
+}
+#endif
@@ -0,0 +1,94 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Skips program and texture binds that would not change GL state.
+ ***************************************************************************/
+
+#include "gl_state_cache.h"
+
+namespace gvr {
+
+namespace {
+// Zero is a valid program (none) and texture (the default), so "unknown"
+// needs a value of its own.
+const GLuint UNKNOWN = static_cast<GLuint>(-1);
+
+struct TextureBinding {
+    GLenum target;
+    GLuint texture;
+};
+
+GLuint current_program = UNKNOWN;
+int active_unit = -1;
+TextureBinding bindings[GLStateCache::MAX_TEXTURE_UNITS];
+
+int number_program_binds;
+int number_texture_binds;
+}
+
+void GLStateCache::invalidate() {
+    current_program = UNKNOWN;
+    active_unit = -1;
+    for (int i = 0; i < MAX_TEXTURE_UNITS; ++i) {
+        bindings[i].texture = UNKNOWN;
+    }
+}
+
+void GLStateCache::useProgram(GLuint program) {
+    if (program != current_program) {
+        glUseProgram(program);
+        current_program = program;
+        number_program_binds++;
+    }
+}
+
+void GLStateCache::bindTexture(int unit, GLenum target, GLuint texture) {
+    if (unit < 0 || unit >= MAX_TEXTURE_UNITS) {
+        glActiveTexture(GL_TEXTURE0 + unit);
+        glBindTexture(target, texture);
+        active_unit = -1;
+        number_texture_binds++;
+        return;
+    }
+
+    TextureBinding& binding = bindings[unit];
+    if (binding.texture == texture && binding.target == target) {
+        return;
+    }
+    if (unit != active_unit) {
+        glActiveTexture(GL_TEXTURE0 + unit);
+        active_unit = unit;
+    }
+    glBindTexture(target, texture);
+    binding.target = target;
+    binding.texture = texture;
+    number_texture_binds++;
+}
+
+void GLStateCache::resetStats() {
+    number_program_binds = 0;
+    number_texture_binds = 0;
+}
+
+int GLStateCache::getNumberProgramBinds() {
+    return number_program_binds;
+}
+
+int GLStateCache::getNumberTextureBinds() {
+    return number_texture_binds;
+}
+
+}
@@ -0,0 +1,54 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Skips program and texture binds that would not change GL state.
+ ***************************************************************************/
+
+#ifndef GL_STATE_CACHE_H_
+#define GL_STATE_CACHE_H_
+
+#ifndef GL_ES_VERSION_3_0
+#include "GLES3/gl3.h"
+#endif
+
+namespace gvr {
+
+/*
+ * GL thread only. The cache only knows about binds made through it, so
+ * the renderer invalidates it before drawing a camera, and after handing
+ * control to code that may bind things behind its back.
+ */
+class GLStateCache {
+public:
+    static const int MAX_TEXTURE_UNITS = 16;
+
+    static void invalidate();
+
+    static void useProgram(GLuint program);
+
+    // Makes unit the active texture unit, and binds texture to it
+    static void bindTexture(int unit, GLenum target, GLuint texture);
+
+    static void resetStats();
+    static int getNumberProgramBinds();
+    static int getNumberTextureBinds();
+
+private:
+    GLStateCache();
+};
+
+}
+#endif
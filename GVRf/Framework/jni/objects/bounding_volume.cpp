@@ -132,19 +132,18 @@ void BoundingVolume::transform(const BoundingVolume &in_volume,
     // Make sure the bounding volume itself is cleared before transformation
     reset();
 
-    glm::vec4 min_corner(in_volume.min_corner(), 1.0f);
-    glm::vec4 max_corner(in_volume.max_corner(), 1.0f);
-    glm::vec4 transformed_minCorner = matrix * min_corner;
-    glm::vec4 transformed_maxCorner = matrix * max_corner;
-
-    glm::vec3 transformed_min(transformed_minCorner.x, transformed_minCorner.y,
-            transformed_minCorner.z);
-    glm::vec3 transformed_max(transformed_maxCorner.x, transformed_maxCorner.y,
-            transformed_maxCorner.z);
-
-    // expand with the new corners
-    expand(transformed_min);
-    expand(transformed_max);
+    // Expand with all eight transformed corners so the result still
+    // encloses the volume under rotation
+    const glm::vec3& min_corner = in_volume.min_corner();
+    const glm::vec3& max_corner = in_volume.max_corner();
+    for (int i = 0; i < 8; ++i) {
+        glm::vec4 corner((i & 1) ? max_corner.x : min_corner.x,
+                (i & 2) ? max_corner.y : min_corner.y,
+                (i & 4) ? max_corner.z : min_corner.z, 1.0f);
+        glm::vec4 transformed_corner = matrix * corner;
+        expand(glm::vec3(transformed_corner.x, transformed_corner.y,
+                transformed_corner.z));
+    }
 }
 } // namespace
 
@@ -29,15 +29,26 @@ EyePointeeHolder::EyePointeeHolder() :
 }
 
 EyePointeeHolder::~EyePointeeHolder() {
+    for (auto it = pointees_.begin(); it != pointees_.end(); ++it) {
+        (*it)->removeHolder(this);
+    }
 }
 
 void EyePointeeHolder::addPointee(EyePointee* pointee) {
     pointees_.push_back(pointee);
+    pointee->addHolder(this);
+    if (owner_object()) {
+        owner_object()->dirtyHierarchicalBoundingVolume();
+    }
 }
 
 void EyePointeeHolder::removePointee(EyePointee* pointee) {
     pointees_.erase(std::remove(pointees_.begin(), pointees_.end(), pointee),
             pointees_.end());
+    pointee->removeHolder(this);
+    if (owner_object()) {
+        owner_object()->dirtyHierarchicalBoundingVolume();
+    }
 }
 
 EyePointData EyePointeeHolder::isPointed(const glm::mat4& view_matrix, float ox,
@@ -54,6 +54,10 @@ public:
         hit_ = hit;
     }
 
+    const std::vector<EyePointee*>& pointees() const {
+        return pointees_;
+    }
+
     void addPointee(EyePointee* pointee);
     void removePointee(EyePointee* pointee);
     EyePointData isPointed(const glm::mat4& view_matrix);
@@ -124,6 +124,7 @@ void TextureCapturer::endCapture() {
 void TextureCapturer::render(
         const glm::mat4& mv_matrix, const glm::mat4& mv_it_matrix,
         const glm::mat4& mvp_matrix, RenderData* render_data) {
+    static const Material::Key opacity_key("opacity");
 
     Material* material = render_data->pass(0)->material();
     if (material == NULL) {
@@ -134,7 +135,7 @@ void TextureCapturer::render(
     // Create the texture material
     Material textureMaterial(Material::TEXTURE_SHADER);
     textureMaterial.setTexture("main_texture", mRenderTexture);
-    textureMaterial.setFloat("opacity", material->getFloat("opacity"));
+    textureMaterial.setFloat("opacity", material->getFloat(opacity_key));
 
     // OpenGL default
     textureMaterial.setVec4("ambient_color", glm::vec4(0.2f, 0.2f, 0.2f, 1.0f));
@@ -167,6 +167,20 @@ public:
         invalidate(false);
     }
 
+    // Sets position, rotation and scale with a single invalidation; a no-op
+    // if none of them changed
+    void set_trs(const glm::vec3& position, const glm::quat& rotation,
+            const glm::vec3& scale) {
+        if (position == position_ && rotation == rotation_
+                && scale == scale_) {
+            return;
+        }
+        position_ = position;
+        rotation_ = rotation;
+        scale_ = scale;
+        invalidate(true);
+    }
+
     bool isModelMatrixValid() {
         return model_matrix_.isValid();
     }
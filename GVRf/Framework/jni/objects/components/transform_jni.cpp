@@ -146,6 +146,19 @@ Java_org_gearvrf_NativeTransform_rotateWithPivot(
         jfloat quat_x, jfloat quat_y, jfloat quat_z, jfloat pivot_x,
         jfloat pivot_y, jfloat pivot_z);
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getLocalTransforms(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setLocalTransforms(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer,
+        jintArray jindices, jint count);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getModelMatrices(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer);
+
 }
 ;
 
@@ -399,5 +412,76 @@ Java_org_gearvrf_NativeTransform_rotateWithPivot(
             pivot_y, pivot_z);
 }
 
+/*
+ * The bulk calls exchange a whole GVRTransformBatch in one transition. Local
+ * transforms are packed as position (x, y, z), rotation (w, x, y, z) and
+ * scale (x, y, z); model matrices as 16 column-major floats.
+ */
+static const int TRS_SIZE = 10;
+static const int MATRIX_SIZE = 16;
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getLocalTransforms(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer) {
+    jsize count = env->GetArrayLength(jtransforms);
+    jlong* transforms = env->GetLongArrayElements(jtransforms, 0);
+    float* trs = static_cast<float*>(env->GetDirectBufferAddress(jbuffer));
+
+    for (int i = 0; i < count; ++i, trs += TRS_SIZE) {
+        Transform* transform = reinterpret_cast<Transform*>(transforms[i]);
+        const glm::vec3& position = transform->position();
+        const glm::quat& rotation = transform->rotation();
+        const glm::vec3& scale = transform->scale();
+        trs[0] = position.x;
+        trs[1] = position.y;
+        trs[2] = position.z;
+        trs[3] = rotation.w;
+        trs[4] = rotation.x;
+        trs[5] = rotation.y;
+        trs[6] = rotation.z;
+        trs[7] = scale.x;
+        trs[8] = scale.y;
+        trs[9] = scale.z;
+    }
+
+    env->ReleaseLongArrayElements(jtransforms, transforms, JNI_ABORT);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_setLocalTransforms(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer,
+        jintArray jindices, jint count) {
+    jlong* transforms = env->GetLongArrayElements(jtransforms, 0);
+    jint* indices = env->GetIntArrayElements(jindices, 0);
+    const float* buffer = static_cast<const float*>(env->GetDirectBufferAddress(
+            jbuffer));
+
+    for (int i = 0; i < count; ++i) {
+        Transform* transform = reinterpret_cast<Transform*>(transforms[indices[i]]);
+        const float* trs = buffer + indices[i] * TRS_SIZE;
+        transform->set_trs(glm::vec3(trs[0], trs[1], trs[2]),
+                glm::quat(trs[3], trs[4], trs[5], trs[6]),
+                glm::vec3(trs[7], trs[8], trs[9]));
+    }
+
+    env->ReleaseIntArrayElements(jindices, indices, JNI_ABORT);
+    env->ReleaseLongArrayElements(jtransforms, transforms, JNI_ABORT);
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeTransform_getModelMatrices(JNIEnv * env,
+        jobject obj, jlongArray jtransforms, jobject jbuffer) {
+    jsize count = env->GetArrayLength(jtransforms);
+    jlong* transforms = env->GetLongArrayElements(jtransforms, 0);
+    float* matrices = static_cast<float*>(env->GetDirectBufferAddress(jbuffer));
+
+    for (int i = 0; i < count; ++i, matrices += MATRIX_SIZE) {
+        Transform* transform = reinterpret_cast<Transform*>(transforms[i]);
+        glm::mat4 matrix = transform->getModelMatrix();
+        memcpy(matrices, glm::value_ptr(matrix), sizeof(float) * MATRIX_SIZE);
+    }
+
+    env->ReleaseLongArrayElements(jtransforms, transforms, JNI_ABORT);
+}
 
 }
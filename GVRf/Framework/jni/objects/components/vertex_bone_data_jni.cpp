@@ -2,6 +2,8 @@
  * JNI
  ***************************************************************************/
 
+#include <algorithm>
+
 #include "glm/glm.hpp"
 #include "glm/gtc/type_ptr.hpp"
 
@@ -26,6 +28,13 @@ Java_org_gearvrf_NativeVertexBoneData_setVertexBoneWeight(JNIEnv * env, jclass c
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeVertexBoneData_normalizeWeights(JNIEnv * env, jclass clz, jlong ptr);
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeVertexBoneData_getVertexCount(JNIEnv * env, jclass clz, jlong ptr);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeVertexBoneData_setBoneWeights(JNIEnv * env, jclass clz, jlong ptr,
+        jintArray boneIds, jfloatArray boneWeights);
+
 } // extern "C"
 ;
 
@@ -55,4 +64,22 @@ Java_org_gearvrf_NativeVertexBoneData_normalizeWeights(JNIEnv * env, jclass clz,
     boneData->normalizeWeights();
 }
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeVertexBoneData_getVertexCount(JNIEnv * env, jclass clz, jlong ptr) {
+    VertexBoneData *boneData = reinterpret_cast<VertexBoneData*>(ptr);
+    return boneData->boneData.size();
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeVertexBoneData_setBoneWeights(JNIEnv * env, jclass clz, jlong ptr,
+        jintArray boneIds, jfloatArray boneWeights) {
+    VertexBoneData *boneData = reinterpret_cast<VertexBoneData*>(ptr);
+    int count = std::min(env->GetArrayLength(boneIds), env->GetArrayLength(boneWeights));
+    jint* ids = env->GetIntArrayElements(boneIds, 0);
+    jfloat* weights = env->GetFloatArrayElements(boneWeights, 0);
+    boneData->setBoneWeights(ids, weights, count);
+    env->ReleaseFloatArrayElements(boneWeights, weights, JNI_ABORT);
+    env->ReleaseIntArrayElements(boneIds, ids, JNI_ABORT);
+}
+
 } // namespace gvr
@@ -0,0 +1,55 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/***************************************************************************
+ * Can be picked by the picker.
+ ***************************************************************************/
+
+#include "eye_pointee.h"
+
+#include <algorithm>
+
+#include "objects/scene_object.h"
+#include "objects/components/eye_pointee_holder.h"
+
+namespace gvr {
+EyePointee::~EyePointee() {
+    std::vector<EyePointeeHolder*> holders;
+    holders.swap(holders_);
+    for (auto it = holders.begin(); it != holders.end(); ++it) {
+        (*it)->removePointee(this);
+    }
+}
+
+void EyePointee::addHolder(EyePointeeHolder* holder) {
+    holders_.push_back(holder);
+}
+
+void EyePointee::removeHolder(EyePointeeHolder* holder) {
+    holders_.erase(std::remove(holders_.begin(), holders_.end(), holder),
+            holders_.end());
+}
+
+void EyePointee::dirtyHolders() {
+    for (auto it = holders_.begin(); it != holders_.end(); ++it) {
+        SceneObject* owner = (*it)->owner_object();
+        if (owner) {
+            owner->dirtyHierarchicalBoundingVolume();
+        }
+    }
+}
+
+}
@@ -21,30 +21,54 @@
 #ifndef EYE_POINTEE_H_
 #define EYE_POINTEE_H_
 
+#include <vector>
+
 #include "glm/glm.hpp"
 
 #include "engine/picker/eye_point_data.h"
+#include "objects/bounding_volume.h"
 #include "objects/hybrid_object.h"
 
 namespace gvr {
+class EyePointeeHolder;
 
 class EyePointee: public HybridObject {
 public:
-    EyePointee() {
+    EyePointee() :
+            holders_() {
     }
 
-    virtual ~EyePointee() {
-    }
+    virtual ~EyePointee();
 
     virtual EyePointData isPointed(const glm::mat4& mv_matrix) = 0;
     virtual EyePointData isPointed(const glm::mat4& mv_matrix, float ox,
             float oy, float oz, float dx, float dy, float dz) = 0;
 
+    // Bounds of the pickable geometry in the owner's local space. Returns
+    // false if the pointee cannot be bounded, in which case the picker
+    // never rejects the subtree that contains it.
+    virtual bool getBoundingVolume(BoundingVolume& bounding_volume) {
+        return false;
+    }
+
+    // Called by the EyePointeeHolder that the pointee is added to or
+    // removed from
+    void addHolder(EyePointeeHolder* holder);
+    void removeHolder(EyePointeeHolder* holder);
+
+protected:
+    // Call when the bounding volume changes, so the owners of the
+    // holders recompute their cached pick bounds.
+    void dirtyHolders();
+
 private:
     EyePointee(const EyePointee& eye_pointee);
     EyePointee(EyePointee&& eye_pointee);
     EyePointee& operator=(const EyePointee& eye_pointee);
     EyePointee& operator=(EyePointee&& eye_pointee);
+
+private:
+    std::vector<EyePointeeHolder*> holders_;
 };
 }
 #endif
@@ -0,0 +1,95 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/***************************************************************************
+ * Key interning and the flat uniform block.
+ ***************************************************************************/
+
+#include "material.h"
+
+#include <algorithm>
+#include <mutex>
+#include <unordered_map>
+
+namespace gvr {
+
+namespace {
+std::mutex key_ids_mutex;
+std::unordered_map<std::string, int> key_ids;
+
+bool textureBefore(const std::pair<int, Texture*>& texture, int key_id) {
+    return texture.first < key_id;
+}
+}
+
+int Material::keyId(const std::string& key) {
+    std::lock_guard<std::mutex> lock(key_ids_mutex);
+    auto it = key_ids.find(key);
+    if (it != key_ids.end()) {
+        return it->second;
+    }
+    int id = key_ids.size();
+    key_ids[key] = id;
+    return id;
+}
+
+std::vector<Material::Slot>::const_iterator Material::findSlot(int key_id,
+        int size) const {
+    return std::lower_bound(slots_.begin(), slots_.end(),
+            std::make_pair(key_id, size),
+            [](const Slot& slot, const std::pair<int, int>& key) {
+                return slot.key_id < key.first
+                        || (slot.key_id == key.first && slot.size < key.second);
+            });
+}
+
+const float* Material::getUniform(int key_id, int size) const {
+    auto it = findSlot(key_id, size);
+    if (it == slots_.end() || it->key_id != key_id || it->size != size) {
+        return 0;
+    }
+    return &block_[it->offset];
+}
+
+void Material::setUniform(int key_id, int size, const float* value) {
+    auto it = findSlot(key_id, size);
+    if (it == slots_.end() || it->key_id != key_id || it->size != size) {
+        Slot slot = { key_id, size, static_cast<int>(block_.size()) };
+        block_.resize(block_.size() + size);
+        it = slots_.insert(slots_.begin() + (it - slots_.begin()), slot);
+    }
+    std::copy(value, value + size, block_.begin() + it->offset);
+}
+
+Texture* Material::getTexture(int key_id) const {
+    auto it = std::lower_bound(textures_.begin(), textures_.end(), key_id,
+            textureBefore);
+    if (it == textures_.end() || it->first != key_id) {
+        return 0;
+    }
+    return it->second;
+}
+
+void Material::setTexture(int key_id, Texture* texture) {
+    auto it = std::lower_bound(textures_.begin(), textures_.end(), key_id,
+            textureBefore);
+    if (it == textures_.end() || it->first != key_id) {
+        textures_.insert(it, std::make_pair(key_id, texture));
+    } else {
+        it->second = texture;
+    }
+}
+
+}
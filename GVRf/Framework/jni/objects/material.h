@@ -23,8 +23,10 @@
 #include <map>
 #include <memory>
 #include <string>
+#include <vector>
 
 #include "glm/glm.hpp"
+#include "glm/gtc/type_ptr.hpp"
 
 #include "objects/hybrid_object.h"
 #include "objects/textures/texture.h"
@@ -52,12 +54,12 @@ public:
     };
 
     explicit Material(ShaderType shader_type) :
-            shader_type_(shader_type), textures_(), floats_(), vec2s_(), vec3s_(), vec4s_(), shader_feature_set_(
+            shader_type_(shader_type), textures_(), slots_(), block_(), shader_feature_set_(
                     0) {
         switch (shader_type) {
         default:
-            vec3s_["color"] = glm::vec3(1.0f, 1.0f, 1.0f);
-            floats_["opacity"] = 1.0f;
+            setVec3("color", glm::vec3(1.0f, 1.0f, 1.0f));
+            setFloat("opacity", 1.0f);
             break;
         }
     }
@@ -73,88 +75,132 @@ public:
         shader_type_ = shader_type;
     }
 
+    /*
+     * Every key string gets a process-wide integer id the first time it is
+     * used. Shaders resolve their keys once, and then read values by id,
+     * without building or comparing strings.
+     */
+    static int keyId(const std::string& key);
+
+    /*
+     * A key resolved to its id once, for the draw loop. Keep keys in
+     * function-local statics: key_ids may not exist yet while namespace
+     * scope statics are being initialized.
+     */
+    struct Key {
+        explicit Key(const char* name) :
+                id(keyId(name)), name(name) {
+        }
+        const int id;
+        const char* const name;
+    };
+
+    /*
+     * Uniform values live in one flat block of floats. A value is
+     * identified by its key id and its size in floats (1 for a float, 2, 3
+     * or 4 for a vector, 16 for a matrix), so a key can hold values of
+     * several types, just like it could when each type had its own map.
+     */
+    const float* getUniform(int key_id, int size) const;
+    void setUniform(int key_id, int size, const float* value);
+
+    Texture* getTexture(int key_id) const;
+    void setTexture(int key_id, Texture* texture);
+
     Texture* getTexture(std::string key) const {
-        auto it = textures_.find(key);
-        if (it != textures_.end()) {
-            return it->second;
-        } else {
+        Texture* texture = getTexture(keyId(key));
+        if (texture == 0) {
             std::string error = "Material::getTexture() : " + key
                     + " not found";
             throw error;
         }
+        return texture;
     }
 
     void setTexture(std::string key, Texture* texture) {
-        textures_[key] = texture;
+        setTexture(keyId(key), texture);
     }
 
-    float getFloat(std::string key) {
-        auto it = floats_.find(key);
-        if (it != floats_.end()) {
-            return it->second;
-        } else {
-            std::string error = "Material::getFloat() : " + key + " not found";
+    /*
+     * Resolved-key getters: same results and errors as the string getters,
+     * without hashing the key or taking the key id lock.
+     */
+    Texture* getTexture(const Key& key) const {
+        Texture* texture = getTexture(key.id);
+        if (texture == 0) {
+            std::string error = std::string("Material::getTexture() : ")
+                    + key.name + " not found";
             throw error;
         }
+        return texture;
+    }
+
+    float getFloat(const Key& key) const {
+        return *getUniformOrThrow(key, 1, "Material::getFloat() : ");
+    }
+
+    glm::vec2 getVec2(const Key& key) const {
+        const float* v = getUniformOrThrow(key, 2, "Material::getVec2() : ");
+        return glm::vec2(v[0], v[1]);
     }
+
+    glm::vec3 getVec3(const Key& key) const {
+        const float* v = getUniformOrThrow(key, 3, "Material::getVec3() : ");
+        return glm::vec3(v[0], v[1], v[2]);
+    }
+
+    glm::vec4 getVec4(const Key& key) const {
+        const float* v = getUniformOrThrow(key, 4, "Material::getVec4() : ");
+        return glm::vec4(v[0], v[1], v[2], v[3]);
+    }
+
+    glm::mat4 getMat4(const Key& key) const {
+        const float* m = getUniformOrThrow(key, 16, "Material::getMat4() : ");
+        return glm::make_mat4(m);
+    }
+
+    float getFloat(std::string key) {
+        return *getUniformOrThrow(key, 1, "Material::getFloat() : ");
+    }
+
     void setFloat(std::string key, float value) {
-        floats_[key] = value;
+        setUniform(keyId(key), 1, &value);
     }
 
     glm::vec2 getVec2(std::string key) {
-        auto it = vec2s_.find(key);
-        if (it != vec2s_.end()) {
-            return it->second;
-        } else {
-            std::string error = "Material::getVec2() : " + key + " not found";
-            throw error;
-        }
+        const float* v = getUniformOrThrow(key, 2, "Material::getVec2() : ");
+        return glm::vec2(v[0], v[1]);
     }
 
     void setVec2(std::string key, glm::vec2 vector) {
-        vec2s_[key] = vector;
+        setUniform(keyId(key), 2, &vector[0]);
     }
 
     glm::vec3 getVec3(std::string key) {
-        auto it = vec3s_.find(key);
-        if (it != vec3s_.end()) {
-            return it->second;
-        } else {
-            std::string error = "Material::getVec3() : " + key + " not found";
-            throw error;
-        }
+        const float* v = getUniformOrThrow(key, 3, "Material::getVec3() : ");
+        return glm::vec3(v[0], v[1], v[2]);
     }
 
     void setVec3(std::string key, glm::vec3 vector) {
-        vec3s_[key] = vector;
+        setUniform(keyId(key), 3, &vector[0]);
     }
 
     glm::vec4 getVec4(std::string key) {
-        auto it = vec4s_.find(key);
-        if (it != vec4s_.end()) {
-            return it->second;
-        } else {
-            std::string error = "Material::getVec4() : " + key + " not found";
-            throw error;
-        }
+        const float* v = getUniformOrThrow(key, 4, "Material::getVec4() : ");
+        return glm::vec4(v[0], v[1], v[2], v[3]);
     }
 
     void setVec4(std::string key, glm::vec4 vector) {
-        vec4s_[key] = vector;
+        setUniform(keyId(key), 4, &vector[0]);
     }
 
     glm::mat4 getMat4(std::string key) {
-        auto it = mat4s_.find(key);
-        if (it != mat4s_.end()) {
-            return it->second;
-        } else {
-            std::string error = "Material::getMat4() : " + key + " not found";
-            throw error;
-        }
+        const float* m = getUniformOrThrow(key, 16, "Material::getMat4() : ");
+        return glm::make_mat4(m);
     }
 
     void setMat4(std::string key, glm::mat4 matrix) {
-        mat4s_[key] = matrix;
+        setUniform(keyId(key), 16, &matrix[0][0]);
     }
 
     int get_shader_feature_set() {
@@ -172,14 +218,40 @@ private:
     Material& operator=(Material&& material);
 
 private:
-    ShaderType shader_type_;
-    std::map<std::string, Texture*> textures_;
-    std::map<std::string, float> floats_;
-    std::map<std::string, glm::vec2> vec2s_;
-    std::map<std::string, glm::vec3> vec3s_;
-    std::map<std::string, glm::vec4> vec4s_;
-    std::map<std::string, glm::mat4> mat4s_;
+    const float* getUniformOrThrow(const std::string& key, int size,
+            const char* caller) {
+        const float* value = getUniform(keyId(key), size);
+        if (value == 0) {
+            std::string error = caller + key + " not found";
+            throw error;
+        }
+        return value;
+    }
+
+    const float* getUniformOrThrow(const Key& key, int size,
+            const char* caller) const {
+        const float* value = getUniform(key.id, size);
+        if (value == 0) {
+            std::string error = std::string(caller) + key.name + " not found";
+            throw error;
+        }
+        return value;
+    }
 
+    struct Slot {
+        int key_id;
+        int size;
+        int offset; // in block_
+    };
+
+    std::vector<Slot>::const_iterator findSlot(int key_id, int size) const;
+
+private:
+    ShaderType shader_type_;
+    // Both sorted by key id
+    std::vector<std::pair<int, Texture*> > textures_;
+    std::vector<Slot> slots_;
+    std::vector<float> block_;
     unsigned int shader_feature_set_;
 };
 }
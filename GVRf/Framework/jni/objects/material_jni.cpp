@@ -31,43 +31,47 @@ JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setShaderType(JNIEnv * env,
         jobject obj, jlong jmaterial, jint shader_type);
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeMaterial_keyId(JNIEnv * env,
+        jobject obj, jstring key);
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setTexture(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jlong texture);
-JNIEXPORT jfloat JNICALL
+        jobject obj, jlong jmaterial, jint key_id, jlong texture);
+JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getFloat(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key);
+        jobject obj, jlong jmaterial, jint key_id);
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setFloat(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jfloat value);
+        jobject obj, jlong jmaterial, jint key_id, jfloat value);
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec2(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key);
+        jobject obj, jlong jmaterial, jint key_id);
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec2(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y);
+        jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y);
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec3(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key);
+        jobject obj, jlong jmaterial, jint key_id);
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec3(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y,
+        jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y,
         jfloat z);
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec4(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y, jfloat z,
+        jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y, jfloat z,
         jfloat w);
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec4(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key);
+        jobject obj, jlong jmaterial, jint key_id);
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setMat4(JNIEnv * env,
-        jobject obj, jlong jmaterial, jstring key, jfloat x1, jfloat y1,
+        jobject obj, jlong jmaterial, jint key_id, jfloat x1, jfloat y1,
         jfloat z1, jfloat w1, jfloat x2, jfloat y2, jfloat z2, jfloat w2,
         jfloat x3, jfloat y3, jfloat z3, jfloat w3, jfloat x4, jfloat y4,
         jfloat z4, jfloat w4);
@@ -91,125 +95,103 @@ return material->set_shader_type(
         static_cast<Material::ShaderType>(shader_type));
 }
 
+JNIEXPORT jint JNICALL
+Java_org_gearvrf_NativeMaterial_keyId(JNIEnv * env,
+    jobject obj, jstring key) {
+const char* char_key = env->GetStringUTFChars(key, 0);
+std::string native_key = std::string(char_key);
+jint key_id = Material::keyId(native_key);
+env->ReleaseStringUTFChars(key, char_key);
+return key_id;
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setTexture(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jlong jtexture) {
+    jobject obj, jlong jmaterial, jint key_id, jlong jtexture) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
 Texture* texture = reinterpret_cast<Texture*>(jtexture);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-material->setTexture(native_key, texture);
-env->ReleaseStringUTFChars(key, char_key);
+material->setTexture(key_id, texture);
 }
 
-JNIEXPORT jfloat JNICALL
-Java_org_gearvrf_NativeMaterial_getFloat(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key) {
+static jfloatArray getUniform(JNIEnv * env, jlong jmaterial, jint key_id,
+    int size) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-jfloat material_float = material->getFloat(native_key);
-env->ReleaseStringUTFChars(key, char_key);
-return material_float;
+const float* value = material->getUniform(key_id, size);
+if (value == 0) {
+    return 0;
+}
+jfloatArray jvalue = env->NewFloatArray(size);
+env->SetFloatArrayRegion(jvalue, 0, size, value);
+return jvalue;
+}
+
+JNIEXPORT jfloatArray JNICALL
+Java_org_gearvrf_NativeMaterial_getFloat(JNIEnv * env,
+    jobject obj, jlong jmaterial, jint key_id) {
+return getUniform(env, jmaterial, key_id, 1);
 }
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setFloat(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jfloat value) {
+    jobject obj, jlong jmaterial, jint key_id, jfloat value) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-material->setFloat(native_key, value);
-env->ReleaseStringUTFChars(key, char_key);
+material->setUniform(key_id, 1, &value);
 }
 
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec2(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key) {
-Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-glm::vec2 material_vec2 = material->getVec2(native_key);
-jfloatArray jvec2 = env->NewFloatArray(2);
-env->SetFloatArrayRegion(jvec2, 0, 2,
-        reinterpret_cast<jfloat*>(&material_vec2));
-env->ReleaseStringUTFChars(key, char_key);
-return jvec2;
+    jobject obj, jlong jmaterial, jint key_id) {
+return getUniform(env, jmaterial, key_id, 2);
 }
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec2(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y) {
+    jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-material->setVec2(native_key, glm::vec2(x, y));
-env->ReleaseStringUTFChars(key, char_key);
+float value[] = { x, y };
+material->setUniform(key_id, 2, value);
 }
 
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec3(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key) {
-Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-glm::vec3 material_vec3 = material->getVec3(native_key);
-jfloatArray jvec3 = env->NewFloatArray(3);
-env->SetFloatArrayRegion(jvec3, 0, 3,
-        reinterpret_cast<jfloat*>(&material_vec3));
-env->ReleaseStringUTFChars(key, char_key);
-return jvec3;
+    jobject obj, jlong jmaterial, jint key_id) {
+return getUniform(env, jmaterial, key_id, 3);
 }
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec3(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y,
+    jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y,
     jfloat z) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-material->setVec3(native_key, glm::vec3(x, y, z));
-env->ReleaseStringUTFChars(key, char_key);
+float value[] = { x, y, z };
+material->setUniform(key_id, 3, value);
 }
 
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMaterial_getVec4(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key) {
-Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-glm::vec4 material_vec4 = material->getVec4(native_key);
-jfloatArray jvec4 = env->NewFloatArray(4);
-env->SetFloatArrayRegion(jvec4, 0, 4,
-        reinterpret_cast<jfloat*>(&material_vec4));
-env->ReleaseStringUTFChars(key, char_key);
-return jvec4;
+    jobject obj, jlong jmaterial, jint key_id) {
+return getUniform(env, jmaterial, key_id, 4);
 }
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setVec4(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jfloat x, jfloat y, jfloat z,
+    jobject obj, jlong jmaterial, jint key_id, jfloat x, jfloat y, jfloat z,
     jfloat w) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-material->setVec4(native_key, glm::vec4(x, y, z, w));
-env->ReleaseStringUTFChars(key, char_key);
+float value[] = { x, y, z, w };
+material->setUniform(key_id, 4, value);
 }
 
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMaterial_setMat4(JNIEnv * env,
-    jobject obj, jlong jmaterial, jstring key, jfloat x1, jfloat y1,
+    jobject obj, jlong jmaterial, jint key_id, jfloat x1, jfloat y1,
     jfloat z1, jfloat w1, jfloat x2, jfloat y2, jfloat z2, jfloat w2,
     jfloat x3, jfloat y3, jfloat z3, jfloat w3, jfloat x4, jfloat y4,
     jfloat z4, jfloat w4) {
 Material* material = reinterpret_cast<Material*>(jmaterial);
-const char* char_key = env->GetStringUTFChars(key, 0);
-std::string native_key = std::string(char_key);
-glm::mat4 mat(x1, y1, z1, w1, x2, y2, z2, w2, x3, y3, z3, w3, x4, y4, z4,
-        w4);
-material->setMat4(native_key, mat);
-env->ReleaseStringUTFChars(key, char_key);
+float value[] = { x1, y1, z1, w1, x2, y2, z2, w2, x3, y3, z3, w3, x4, y4,
+        z4, w4 };
+material->setUniform(key_id, 16, value);
 }
 
 JNIEXPORT jlong JNICALL
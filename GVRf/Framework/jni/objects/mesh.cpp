@@ -19,6 +19,7 @@
 
 #include "mesh.h"
 
+#include <algorithm>
 #include <limits>
 
 #include "assimp/Importer.hpp"
@@ -28,8 +29,34 @@
 #include "util/gvr_log.h"
 #include "util/gvr_gl.h"
 #include "glm/gtc/matrix_inverse.hpp"
+#include "objects/mesh_eye_pointee.h"
 
 namespace gvr {
+Mesh::~Mesh() {
+    std::vector<MeshEyePointee*> eye_pointees;
+    eye_pointees.swap(eye_pointees_);
+    for (auto it = eye_pointees.begin(); it != eye_pointees.end(); ++it) {
+        (*it)->onMeshDeleted();
+    }
+    cleanUp();
+}
+
+void Mesh::addEyePointee(MeshEyePointee* eye_pointee) {
+    eye_pointees_.push_back(eye_pointee);
+}
+
+void Mesh::removeEyePointee(MeshEyePointee* eye_pointee) {
+    eye_pointees_.erase(
+            std::remove(eye_pointees_.begin(), eye_pointees_.end(),
+                    eye_pointee), eye_pointees_.end());
+}
+
+void Mesh::dirtyEyePointees() {
+    for (auto it = eye_pointees_.begin(); it != eye_pointees_.end(); ++it) {
+        (*it)->onMeshChanged();
+    }
+}
+
 Mesh* Mesh::getBoundingBox() {
 
     Mesh* mesh = new Mesh();
@@ -176,6 +203,25 @@ void Mesh::getTransformedBoundingBoxInfo(glm::mat4 *Mat,
     }
 }
 
+void Mesh::set_int_indices(const unsigned int* indices, size_t count) {
+    unsigned int max_index = 0;
+    for (size_t i = 0; i < count; ++i) {
+        if (indices[i] > max_index) {
+            max_index = indices[i];
+        }
+    }
+
+    if (max_index <= std::numeric_limits<unsigned short>::max()) {
+        // Half the memory, and the fastest path on every GPU
+        std::vector<unsigned short> short_indices(indices, indices + count);
+        set_indices(std::move(short_indices));
+    } else {
+        std::vector<unsigned short>().swap(indices_);
+        int_indices_.assign(indices, indices + count);
+        vao_dirty_ = true;
+    }
+}
+
 // generate vertex array object
 void Mesh::generateVAO() {
 #if _GVRF_USE_GLES3_
@@ -202,9 +248,9 @@ void Mesh::generateVAO() {
     glGenBuffers(1, &triangle_vboID_);
     glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, triangle_vboID_);
     glBufferData(GL_ELEMENT_ARRAY_BUFFER,
-            sizeof(unsigned short) * indices_.size(), &indices_[0],
-            GL_STATIC_DRAW);
-    numTriangles_ = indices_.size() / 3;
+            (has_int_indices() ? sizeof(unsigned int) : sizeof(unsigned short))
+                    * index_count(), index_data(), GL_STATIC_DRAW);
+    numTriangles_ = index_count() / 3;
 
     if (vertices_.size()) {
         glGenBuffers(1, &vert_vboID_);
@@ -44,20 +44,20 @@
 #include "engine/memory/gl_delete.h"
 
 namespace gvr {
+class MeshEyePointee;
+
 class Mesh: public HybridObject {
 public:
     Mesh() :
-            vertices_(), normals_(), tex_coords_(), indices_(), float_vectors_(), vec2_vectors_(), vec3_vectors_(), vec4_vectors_(),
+            vertices_(), normals_(), tex_coords_(), indices_(), int_indices_(), float_vectors_(), vec2_vectors_(), vec3_vectors_(), vec4_vectors_(),
                     have_bounding_volume_(false), vao_dirty_(true),
                     vaoID_(GVR_INVALID), triangle_vboID_(GVR_INVALID), vert_vboID_(GVR_INVALID),
                     norm_vboID_(GVR_INVALID), tex_vboID_(GVR_INVALID),
-                    boneVboID_(GVR_INVALID), vertexBoneData_(this), bone_data_dirty_(true)
+                    boneVboID_(GVR_INVALID), vertexBoneData_(this), bone_data_dirty_(true), eye_pointees_()
     {
     }
 
-    ~Mesh() {
-        cleanUp();
-    }
+    ~Mesh();
 
     void cleanUp() {
         std::vector<glm::vec3> vertices;
@@ -68,8 +68,12 @@ public:
         tex_coords.swap(tex_coords_);
         std::vector<unsigned short> indices;
         indices.swap(indices_);
+        std::vector<unsigned int> int_indices;
+        int_indices.swap(int_indices_);
 
         deleteVaos();
+        have_bounding_volume_ = false;
+        dirtyEyePointees();
     }
 
     void deleteVaos() {
@@ -98,6 +102,7 @@ public:
         have_bounding_volume_ = false;
         getBoundingVolume(); // calculate bounding volume
         vao_dirty_ = true;
+        dirtyEyePointees();
     }
 
     void set_vertices(std::vector<glm::vec3>&& vertices) {
@@ -105,6 +110,7 @@ public:
         have_bounding_volume_ = false;
         getBoundingVolume(); // calculate bounding volume
         vao_dirty_ = true;
+        dirtyEyePointees();
     }
 
     const std::vector<glm::vec3>& normals() const {
@@ -141,11 +147,13 @@ public:
 
     void set_triangles(const std::vector<unsigned short>& triangles) {
         indices_ = triangles;
+        std::vector<unsigned int>().swap(int_indices_);
         vao_dirty_ = true;
     }
 
     void set_triangles(std::vector<unsigned short>&& triangles) {
         indices_ = std::move(triangles);
+        std::vector<unsigned int>().swap(int_indices_);
         vao_dirty_ = true;
     }
 
@@ -155,14 +163,50 @@ public:
 
     void set_indices(const std::vector<unsigned short>& indices) {
         indices_ = indices;
+        std::vector<unsigned int>().swap(int_indices_);
         vao_dirty_ = true;
     }
 
     void set_indices(std::vector<unsigned short>&& indices) {
         indices_ = std::move(indices);
+        std::vector<unsigned int>().swap(int_indices_);
         vao_dirty_ = true;
     }
 
+    /*
+     * A mesh holds either 16 bit indices (indices()) or 32 bit indices
+     * (int_indices()), never both. Draw calls should use index_count(),
+     * index_type() and index_data(), which work with either.
+     */
+    const std::vector<unsigned int>& int_indices() const {
+        return int_indices_;
+    }
+
+    // Keeps 16 bit indices when they are big enough
+    void set_int_indices(const unsigned int* indices, size_t count);
+
+    bool has_int_indices() const {
+        return !int_indices_.empty();
+    }
+
+    GLsizei index_count() const {
+        return int_indices_.empty() ? indices_.size() : int_indices_.size();
+    }
+
+    GLenum index_type() const {
+        return int_indices_.empty() ? GL_UNSIGNED_SHORT : GL_UNSIGNED_INT;
+    }
+
+    const void* index_data() const {
+        return int_indices_.empty() ?
+                static_cast<const void*>(indices_.data()) :
+                static_cast<const void*>(int_indices_.data());
+    }
+
+    unsigned int index(size_t i) const {
+        return int_indices_.empty() ? indices_[i] : int_indices_[i];
+    }
+
     const std::vector<float>& getFloatVector(std::string key) const {
         auto it = float_vectors_.find(key);
         if (it != float_vectors_.end()) {
@@ -296,6 +340,14 @@ public:
 
     void generateBoneArrayBuffers();
 
+    // The MeshEyePointees that test against this mesh, so they can be told
+    // when its bounds change
+    void addEyePointee(MeshEyePointee* eye_pointee);
+    void removeEyePointee(MeshEyePointee* eye_pointee);
+
+private:
+    void dirtyEyePointees();
+
 private:
     Mesh(const Mesh& mesh);
     Mesh(Mesh&& mesh);
@@ -310,6 +362,7 @@ private:
     std::map<std::string, std::vector<glm::vec3>> vec3_vectors_;
     std::map<std::string, std::vector<glm::vec4>> vec4_vectors_;
     std::vector<unsigned short> indices_;
+    std::vector<unsigned int> int_indices_;
 
     // add location slot map
     std::map<int, std::string> attribute_float_keys_;
@@ -339,6 +392,8 @@ private:
 
     GLuint boneVboID_;
     bool bone_data_dirty_;
+
+    std::vector<MeshEyePointee*> eye_pointees_;
 };
 }
 #endif
@@ -31,13 +31,45 @@
 namespace gvr {
 MeshEyePointee::MeshEyePointee(Mesh* mesh) :
         EyePointee(), mesh_(mesh) {
+    if (mesh_ != nullptr) {
+        mesh_->addEyePointee(this);
+    }
 }
 
 MeshEyePointee::~MeshEyePointee() {
+    if (mesh_ != nullptr) {
+        mesh_->removeEyePointee(this);
+    }
+}
+
+void MeshEyePointee::set_mesh(Mesh* mesh) {
+    if (mesh == mesh_) {
+        return;
+    }
+    if (mesh_ != nullptr) {
+        mesh_->removeEyePointee(this);
+    }
+    mesh_ = mesh;
+    if (mesh_ != nullptr) {
+        mesh_->addEyePointee(this);
+    }
+    dirtyHolders();
+}
+
+void MeshEyePointee::onMeshChanged() {
+    dirtyHolders();
+}
+
+void MeshEyePointee::onMeshDeleted() {
+    mesh_ = nullptr;
+    dirtyHolders();
 }
 
 EyePointData MeshEyePointee::isPointed(const glm::mat4& mv_matrix, float ox,
         float oy, float oz, float dx, float dy, float dz) {
+    if (mesh_ == nullptr) {
+        return EyePointData();
+    }
     return isPointed(mesh_, mv_matrix, ox, oy, oz, dx, dy, dz);
 }
 
@@ -56,13 +88,14 @@ EyePointData MeshEyePointee::isPointed(const Mesh* mesh,
     EyePointData data;
 
     //http://en.wikipedia.org/wiki/M%C3%B6ller%E2%80%93Trumbore_intersection_algorithm
-    for (int i = 0; i < mesh->triangles().size(); i += 3) {
+    const int index_count = mesh->index_count();
+    for (int i = 0; i < index_count; i += 3) {
         glm::vec3 O(ox, oy, oz);
         glm::vec3 D(dx, dy, dz);
 
-        glm::vec3 V1(relative_veritces[mesh->triangles()[i]]);
-        glm::vec3 V2(relative_veritces[mesh->triangles()[i + 1]]);
-        glm::vec3 V3(relative_veritces[mesh->triangles()[i + 2]]);
+        glm::vec3 V1(relative_veritces[mesh->index(i)]);
+        glm::vec3 V2(relative_veritces[mesh->index(i + 1)]);
+        glm::vec3 V3(relative_veritces[mesh->index(i + 2)]);
 
         glm::vec3 e1(V2 - V1);
         glm::vec3 e2(V3 - V1);
@@ -118,4 +151,12 @@ EyePointData MeshEyePointee::isPointed(const glm::mat4& mv_matrix) {
     return isPointed(mv_matrix, 0.0f, 0.0f, 0.0f, 0.0f, 0.0f, -1.0f);
 }
 
+bool MeshEyePointee::getBoundingVolume(BoundingVolume& bounding_volume) {
+    if (mesh_ == nullptr) {
+        return false;
+    }
+    bounding_volume = mesh_->getBoundingVolume();
+    return true;
+}
+
 }
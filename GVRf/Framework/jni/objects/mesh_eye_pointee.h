@@ -37,15 +37,18 @@ public:
         return mesh_;
     }
 
-    void set_mesh(Mesh* mesh) {
-        mesh_ = mesh;
-    }
+    void set_mesh(Mesh* mesh);
+
+    // Called by the mesh when its vertices change, or it is deleted
+    void onMeshChanged();
+    void onMeshDeleted();
 
     EyePointData isPointed(const glm::mat4& mv_matrix);
     EyePointData isPointed(const glm::mat4& mv_matrix, float ox, float oy,
             float oz, float dx, float dy, float dz);
     static EyePointData isPointed(const Mesh* mesh, const glm::mat4& mv_matrix, float ox,
             float oy, float oz, float dx, float dy, float dz);
+    bool getBoundingVolume(BoundingVolume& bounding_volume);
 
 private:
     MeshEyePointee(const MeshEyePointee& mesh_eye_pointee);
@@ -67,6 +67,25 @@ JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMesh_setIndices(JNIEnv * env,
         jobject obj, jlong jmesh, jcharArray indices);
 
+JNIEXPORT jintArray JNICALL
+Java_org_gearvrf_NativeMesh_getIntIndices(JNIEnv * env,
+        jobject obj, jlong jmesh);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setIntIndices(JNIEnv * env,
+        jobject obj, jlong jmesh, jintArray indices);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setVerticesBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject vertices, jint offset, jint count);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setNormalsBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject normals, jint offset, jint count);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setTexCoordsBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject tex_coords, jint offset, jint count);
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setIndicesBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject indices, jint offset, jint count,
+        jboolean int_indices);
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeMesh_setFloatVector(JNIEnv * env,
         jobject obj, jlong jmesh, jstring key, jfloatArray float_vector);
@@ -241,6 +260,115 @@ Java_org_gearvrf_NativeMesh_setIndices(JNIEnv * env,
     env->ReleaseCharArrayElements(indices, jindices_pointer, 0);
 }
 
+JNIEXPORT jintArray JNICALL
+Java_org_gearvrf_NativeMesh_getIntIndices(JNIEnv * env,
+        jobject obj, jlong jmesh) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    if (mesh->has_int_indices()) {
+        const std::vector<unsigned int>& indices = mesh->int_indices();
+        jintArray jindices = env->NewIntArray(indices.size());
+        env->SetIntArrayRegion(jindices, 0, indices.size(),
+                reinterpret_cast<const jint*>(indices.data()));
+        return jindices;
+    }
+
+    const std::vector<unsigned short>& indices = mesh->indices();
+    std::vector<jint> widened(indices.begin(), indices.end());
+    jintArray jindices = env->NewIntArray(widened.size());
+    env->SetIntArrayRegion(jindices, 0, widened.size(), widened.data());
+    return jindices;
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setIntIndices(JNIEnv * env,
+        jobject obj, jlong jmesh, jintArray indices) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    jint* jindices_pointer = env->GetIntArrayElements(indices, 0);
+    mesh->set_int_indices(
+            reinterpret_cast<const unsigned int*>(jindices_pointer),
+            env->GetArrayLength(indices));
+    env->ReleaseIntArrayElements(indices, jindices_pointer, JNI_ABORT);
+}
+
+/*
+ * The direct buffer setters copy straight from the buffer's memory into the
+ * mesh's vectors, so there is no Java array between the two. The buffers
+ * must be in native byte order. offset and count are in elements (floats
+ * or indices), not bytes.
+ */
+static void* directBufferAddress(JNIEnv * env, jobject buffer) {
+    void* address = env->GetDirectBufferAddress(buffer);
+    if (address == NULL) {
+        env->ThrowNew(env->FindClass("java/lang/IllegalArgumentException"),
+                "Buffer is not a direct buffer");
+    }
+    return address;
+}
+
+template<typename T>
+static bool vectorFromDirectBuffer(JNIEnv * env, jobject buffer,
+        jint offset, jint count, std::vector<T>& vector) {
+    const jfloat* floats = static_cast<const jfloat*>(directBufferAddress(env,
+            buffer));
+    if (floats == NULL) {
+        return false;
+    }
+    const T* elements = reinterpret_cast<const T*>(floats + offset);
+    vector.assign(elements, elements + count / (sizeof(T) / sizeof(jfloat)));
+    return true;
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setVerticesBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject vertices, jint offset, jint count) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    std::vector<glm::vec3> native_vertices;
+    if (vectorFromDirectBuffer(env, vertices, offset, count,
+            native_vertices)) {
+        mesh->set_vertices(std::move(native_vertices));
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setNormalsBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject normals, jint offset, jint count) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    std::vector<glm::vec3> native_normals;
+    if (vectorFromDirectBuffer(env, normals, offset, count, native_normals)) {
+        mesh->set_normals(std::move(native_normals));
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setTexCoordsBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject tex_coords, jint offset, jint count) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    std::vector<glm::vec2> native_tex_coords;
+    if (vectorFromDirectBuffer(env, tex_coords, offset, count,
+            native_tex_coords)) {
+        mesh->set_tex_coords(std::move(native_tex_coords));
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeMesh_setIndicesBuffer(JNIEnv * env,
+        jobject obj, jlong jmesh, jobject indices, jint offset, jint count,
+        jboolean int_indices) {
+    Mesh* mesh = reinterpret_cast<Mesh*>(jmesh);
+    void* address = directBufferAddress(env, indices);
+    if (address == NULL) {
+        return;
+    }
+    if (int_indices) {
+        mesh->set_int_indices(
+                static_cast<const unsigned int*>(address) + offset, count);
+    } else {
+        const unsigned short* begin =
+                static_cast<const unsigned short*>(address) + offset;
+        mesh->set_indices(std::vector<unsigned short>(begin, begin + count));
+    }
+}
+
 JNIEXPORT jfloatArray JNICALL
 Java_org_gearvrf_NativeMesh_getFloatVector(JNIEnv * env,
         jobject obj, jlong jmesh, jstring key) {
@@ -58,6 +58,10 @@ public:
     void set_occlusion_culling( bool occlusion_flag){ occlusion_flag_ = occlusion_flag; }
     bool get_occlusion_culling(){ return occlusion_flag_; }
 
+    // More than one thread culls the scene's subtrees in parallel
+    void set_cull_threads(int cull_threads){ cull_threads_ = cull_threads; }
+    int get_cull_threads(){ return cull_threads_; }
+
     void resetStats() {
         if (!statsInitialized) {
             Renderer::initializeStats();
@@ -71,6 +75,18 @@ public:
     int getNumberTriangles() {
         return Renderer::getNumberTriangles();
     }
+    int getNumberVisibleObjects() {
+        return Renderer::getNumberVisibleObjects();
+    }
+    int getNumberRenderListSorts() {
+        return Renderer::getNumberRenderListSorts();
+    }
+    int getNumberProgramBinds() {
+        return Renderer::getNumberProgramBinds();
+    }
+    int getNumberTextureBinds() {
+        return Renderer::getNumberTextureBinds();
+    }
 
 private:
     Scene(const Scene& scene);
@@ -85,6 +101,7 @@ private:
     int dirtyFlag_;
     bool frustum_flag_;
     bool occlusion_flag_;
+    int cull_threads_;
     bool statsInitialized = false;
 
 };
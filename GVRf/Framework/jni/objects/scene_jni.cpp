@@ -44,6 +44,10 @@ JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
         jobject obj, jlong jscene, jboolean flag);
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setFrustumCullingThreads(JNIEnv * env,
+        jobject obj, jlong jscene, jint threads);
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
         jobject obj, jlong jscene);
@@ -55,6 +59,22 @@ Java_org_gearvrf_NativeScene_getNumberDrawCalls(JNIEnv * env,
 JNIEXPORT int JNICALL
 Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
         jobject obj, jlong jscene);
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberVisibleObjects(JNIEnv * env,
+        jobject obj, jlong jscene);
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberRenderListSorts(JNIEnv * env,
+        jobject obj, jlong jscene);
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberProgramBinds(JNIEnv * env,
+        jobject obj, jlong jscene);
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberTextureBinds(JNIEnv * env,
+        jobject obj, jlong jscene);
 }
 ;
 
@@ -101,6 +121,13 @@ Java_org_gearvrf_NativeScene_setOcclusionQuery(JNIEnv * env,
     scene->set_occlusion_culling(static_cast<bool>(flag));
 }
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeScene_setFrustumCullingThreads(JNIEnv * env,
+        jobject obj, jlong jscene, jint threads) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    scene->set_cull_threads(threads);
+}
+
 JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeScene_resetStats(JNIEnv * env,
         jobject obj, jlong jscene) {
@@ -125,4 +152,36 @@ Java_org_gearvrf_NativeScene_getNumberTriangles(JNIEnv * env,
 }
 
 
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberVisibleObjects(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getNumberVisibleObjects();
+}
+
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberRenderListSorts(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getNumberRenderListSorts();
+}
+
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberProgramBinds(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getNumberProgramBinds();
+}
+
+
+JNIEXPORT int JNICALL
+Java_org_gearvrf_NativeScene_getNumberTextureBinds(JNIEnv * env,
+        jobject obj, jlong jscene) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    return scene->getNumberTextureBinds();
+}
+
+
 }
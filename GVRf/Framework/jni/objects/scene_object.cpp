@@ -19,10 +19,14 @@
 
 #include "scene_object.h"
 
+#include <unordered_map>
+#include <unordered_set>
+
 #include "objects/components/camera.h"
 #include "objects/components/camera_rig.h"
 #include "objects/components/eye_pointee_holder.h"
 #include "objects/components/render_data.h"
+#include "objects/eye_pointee.h"
 #include "util/gvr_log.h"
 #include "mesh.h"
 
@@ -31,7 +35,8 @@ SceneObject::SceneObject() :
         HybridObject(), name_(""), children_(), visible_(true), in_frustum_(
                 false), query_currently_issued_(false), vis_count_(0), lod_min_range_(
                 0), lod_max_range_(MAXFLOAT), using_lod_(false), bounding_volume_dirty_(
-                true) {
+                true), pick_bounding_volume_dirty_(true), pick_bounding_volume_empty_(
+                true), pick_bounding_volume_unbounded_(false) {
 
     // Occlusion query setup
 #if _GVRF_USE_GLES3_
@@ -137,6 +142,7 @@ void SceneObject::attachEyePointeeHolder(SceneObject* self,
     }
     eye_pointee_holder_ = eye_pointee_holder;
     eye_pointee_holder_->set_owner_object(self);
+    dirtyHierarchicalBoundingVolume();
 }
 
 void SceneObject::detachEyePointeeHolder() {
@@ -144,6 +150,7 @@ void SceneObject::detachEyePointeeHolder() {
         eye_pointee_holder_->removeOwnerObject();
         eye_pointee_holder_ = NULL;
     }
+    dirtyHierarchicalBoundingVolume();
 }
 
 void SceneObject::addChildObject(SceneObject* self, SceneObject* child) {
@@ -178,6 +185,87 @@ void SceneObject::removeChildObject(SceneObject* child) {
     dirtyHierarchicalBoundingVolume();
 }
 
+/*
+ * Bulk versions of addChildObject() and removeChildObject(): they check,
+ * invalidate and dirty once per call, not once per child.
+ */
+void SceneObject::checkNoCycles(SceneObject* const * children,
+        int count) const {
+    std::unordered_set<const SceneObject*> ancestors;
+    for (const SceneObject* object = this; object; object = object->parent_) {
+        ancestors.insert(object);
+    }
+    for (int i = 0; i < count; ++i) {
+        if (ancestors.count(children[i]) != 0) {
+            std::string error =
+                    "SceneObject::addChildObjects() : cycle of scene objects is not allowed.";
+            LOGE("%s", error.c_str());
+            throw error;
+        }
+    }
+}
+
+void SceneObject::addChildObjects(SceneObject* self,
+        SceneObject* const * children, int count) {
+    checkNoCycles(children, count);
+    children_.reserve(children_.size() + count);
+    for (int i = 0; i < count; ++i) {
+        SceneObject* child = children[i];
+        children_.push_back(child);
+        child->parent_ = self;
+        Transform* const t = child->transform();
+        if (nullptr != t) {
+            t->invalidate(false);
+        }
+    }
+    dirtyHierarchicalBoundingVolume();
+}
+
+void SceneObject::removeChildObjects(SceneObject* const * children,
+        int count) {
+    std::unordered_set<SceneObject*> removed;
+    for (int i = 0; i < count; ++i) {
+        SceneObject* child = children[i];
+        if (child->parent_ == this) {
+            removed.insert(child);
+            child->parent_ = NULL;
+        }
+        Transform* const t = child->transform();
+        if (nullptr != t) {
+            t->invalidate(false);
+        }
+    }
+    if (!removed.empty()) {
+        children_.erase(std::remove_if(children_.begin(), children_.end(),
+                [&removed](SceneObject* child) {
+                    return removed.count(child) != 0;
+                }), children_.end());
+    }
+    dirtyHierarchicalBoundingVolume();
+}
+
+/*
+ * Detaches each child from its current parent, if any, then adds them all
+ * to this object.
+ */
+void SceneObject::reparentChildObjects(SceneObject* self,
+        SceneObject* const * children, int count) {
+    checkNoCycles(children, count);
+
+    std::unordered_map<SceneObject*, std::vector<SceneObject*> > old_parents;
+    for (int i = 0; i < count; ++i) {
+        SceneObject* parent = children[i]->parent_;
+        if (parent) {
+            old_parents[parent].push_back(children[i]);
+        }
+    }
+    for (auto it = old_parents.begin(); it != old_parents.end(); ++it) {
+        it->first->removeChildObjects(it->second.data(), it->second.size());
+    }
+
+    addChildObjects(self, children, count);
+}
+
 int SceneObject::getChildrenCount() const {
     return children_.size();
 }
@@ -261,27 +349,31 @@ bool SceneObject::isColliding(SceneObject *scene_object) {
  */
 bool SceneObject::intersectsBoundingVolume(float rox, float roy, float roz,
         float rdx, float rdy, float rdz) {
-    BoundingVolume bounding_volume_ = getBoundingVolume();
+    return is_ray_in_box(getBoundingVolume(), glm::vec3(rox, roy, roz),
+            glm::vec3(rdx, rdy, rdz));
+}
 
+bool SceneObject::is_ray_in_box(const BoundingVolume& bounding_volume,
+        const glm::vec3& ray_origin, const glm::vec3& ray_direction) {
     float tmin, tmax, tymin, tymax, tzmin, tzmax;
 
     int sign[3];
     glm::vec3 invdir;
-    invdir.x = 1 / rdx;
-    invdir.y = 1 / rdy;
-    invdir.z = 1 / rdz;
+    invdir.x = 1 / ray_direction.x;
+    invdir.y = 1 / ray_direction.y;
+    invdir.z = 1 / ray_direction.z;
     sign[0] = (invdir.x < 0);
     sign[1] = (invdir.y < 0);
     sign[2] = (invdir.z < 0);
 
     glm::vec3 bounds[2];
-    bounds[0] = bounding_volume_.min_corner();
-    bounds[1] = bounding_volume_.max_corner();
+    bounds[0] = bounding_volume.min_corner();
+    bounds[1] = bounding_volume.max_corner();
 
-    tmin = (bounds[sign[0]].x - rox) * invdir.x;
-    tmax = (bounds[1 - sign[0]].x - rox) * invdir.x;
-    tymin = (bounds[sign[1]].y - roy) * invdir.y;
-    tymax = (bounds[1 - sign[1]].y - roy) * invdir.y;
+    tmin = (bounds[sign[0]].x - ray_origin.x) * invdir.x;
+    tmax = (bounds[1 - sign[0]].x - ray_origin.x) * invdir.x;
+    tymin = (bounds[sign[1]].y - ray_origin.y) * invdir.y;
+    tymax = (bounds[1 - sign[1]].y - ray_origin.y) * invdir.y;
 
     if ((tmin > tymax) || (tymin > tmax))
         return false;
@@ -291,8 +383,8 @@ bool SceneObject::intersectsBoundingVolume(float rox, float roy, float roz,
     if (tymax < tmax)
         tmax = tymax;
 
-    tzmin = (bounds[sign[2]].z - roz) * invdir.z;
-    tzmax = (bounds[1 - sign[2]].z - roz) * invdir.z;
+    tzmin = (bounds[sign[2]].z - ray_origin.z) * invdir.z;
+    tzmax = (bounds[1 - sign[2]].z - ray_origin.z) * invdir.z;
 
     if ((tmin > tzmax) || (tzmin > tmax))
         return false;
@@ -309,12 +401,76 @@ bool SceneObject::intersectsBoundingVolume(float rox, float roy, float roz,
     return true;
 }
 
+/**
+ * Test a world space ray against the bounds of all the eye pointees in
+ * this subtree. A miss means no eye pointee in the subtree can be picked
+ * by the ray; a hit says nothing about the individual pointees.
+ */
+bool SceneObject::intersectsPickBoundingVolume(const glm::vec3& ray_origin,
+        const glm::vec3& ray_direction) {
+    if (!hasPickBoundingVolume()) {
+        return false;
+    }
+    if (pick_bounding_volume_unbounded_) {
+        return true;
+    }
+    return is_ray_in_box(pick_bounding_volume_, ray_origin, ray_direction);
+}
+
+bool SceneObject::hasPickBoundingVolume() {
+    if (pick_bounding_volume_dirty_) {
+        updatePickBoundingVolume();
+    }
+    return !pick_bounding_volume_empty_;
+}
+
+void SceneObject::updatePickBoundingVolume() {
+    pick_bounding_volume_.reset();
+    pick_bounding_volume_empty_ = true;
+    pick_bounding_volume_unbounded_ = false;
+
+    // 1. Bounds of this object's own eye pointees
+    if (eye_pointee_holder_ != NULL) {
+        const std::vector<EyePointee*>& pointees =
+                eye_pointee_holder_->pointees();
+        for (auto it = pointees.begin(); it != pointees.end(); ++it) {
+            BoundingVolume local_volume;
+            pick_bounding_volume_empty_ = false;
+            if (transform_ == NULL
+                    || !(*it)->getBoundingVolume(local_volume)) {
+                pick_bounding_volume_unbounded_ = true;
+                continue;
+            }
+            BoundingVolume world_volume;
+            world_volume.transform(local_volume, transform_->getModelMatrix());
+            pick_bounding_volume_.expand(world_volume);
+        }
+    }
+
+    // 2. Aggregate with all its children's pick bounding volumes
+    for (auto it = children_.begin(); it != children_.end(); ++it) {
+        SceneObject* child = *it;
+        if (!child->hasPickBoundingVolume()) {
+            continue;
+        }
+        pick_bounding_volume_empty_ = false;
+        if (child->pick_bounding_volume_unbounded_) {
+            pick_bounding_volume_unbounded_ = true;
+        } else {
+            pick_bounding_volume_.expand(child->pick_bounding_volume_);
+        }
+    }
+
+    pick_bounding_volume_dirty_ = false;
+}
+
 void SceneObject::dirtyHierarchicalBoundingVolume() {
-    if (bounding_volume_dirty_) {
+    if (bounding_volume_dirty_ && pick_bounding_volume_dirty_) {
         return;
     }
 
     bounding_volume_dirty_ = true;
+    pick_bounding_volume_dirty_ = true;
 
     if (parent_ != NULL) {
         parent_->dirtyHierarchicalBoundingVolume();
@@ -113,6 +113,11 @@ public:
 
     void addChildObject(SceneObject* self, SceneObject* child);
     void removeChildObject(SceneObject* child);
+    void addChildObjects(SceneObject* self, SceneObject* const * children,
+            int count);
+    void removeChildObjects(SceneObject* const * children, int count);
+    void reparentChildObjects(SceneObject* self,
+            SceneObject* const * children, int count);
     int getChildrenCount() const;
     SceneObject* getChildByIndex(int index);
     GLuint *get_occlusion_array() {
@@ -150,10 +155,16 @@ public:
     void dirtyHierarchicalBoundingVolume();
     BoundingVolume& getBoundingVolume();
 
+    bool hasPickBoundingVolume();
+    bool intersectsPickBoundingVolume(const glm::vec3& ray_origin,
+            const glm::vec3& ray_direction);
+
     int frustumCull(Camera *camera, const float frustum[6][4]);
     bool sphereInFrustum(float frustum[6][4], BoundingVolume &sphere);
 
 private:
+    void checkNoCycles(SceneObject* const * children, int count) const;
+
     SceneObject(const SceneObject& scene_object);
     SceneObject(SceneObject&& scene_object);
     SceneObject& operator=(const SceneObject& scene_object);
@@ -161,6 +172,9 @@ private:
 
     bool is_cube_in_frustum(const float frustum[6][4],
             BoundingVolume &bounding_volume);
+    static bool is_ray_in_box(const BoundingVolume& bounding_volume,
+            const glm::vec3& ray_origin, const glm::vec3& ray_direction);
+    void updatePickBoundingVolume();
 
 private:
     std::string name_;
@@ -179,6 +193,13 @@ private:
     bool bounding_volume_dirty_;
     BoundingVolume mesh_bounding_volume;
 
+    // World space bounds of all the eye pointees in this subtree, used by
+    // the picker to reject whole subtrees the pick ray cannot hit
+    BoundingVolume pick_bounding_volume_;
+    bool pick_bounding_volume_dirty_;
+    bool pick_bounding_volume_empty_;
+    bool pick_bounding_volume_unbounded_;
+
     //Flags to check for visibility of a node and
     //whether there are any pending occlusion queries on it
     const int check_frames_ = 12;
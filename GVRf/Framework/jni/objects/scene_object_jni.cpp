@@ -84,6 +84,18 @@ JNIEXPORT void JNICALL
 Java_org_gearvrf_NativeSceneObject_removeChildObject(
         JNIEnv * env, jobject obj, jlong jscene_object, jlong jchild);
 
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_addChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_removeChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren);
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_reparentChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren);
+
 JNIEXPORT bool JNICALL
 Java_org_gearvrf_NativeSceneObject_isColliding(
         JNIEnv * env, jobject obj, jlong jscene_object, jlong jother_object);
@@ -224,6 +236,44 @@ Java_org_gearvrf_NativeSceneObject_removeChildObject(
     scene_object->removeChildObject(child);
 }
 
+static std::vector<SceneObject*> toSceneObjects(JNIEnv * env,
+        jlongArray jscene_objects) {
+    jsize count = env->GetArrayLength(jscene_objects);
+    std::vector<SceneObject*> scene_objects(count);
+    jlong* longs = env->GetLongArrayElements(jscene_objects, 0);
+    for (jsize i = 0; i < count; ++i) {
+        scene_objects[i] = reinterpret_cast<SceneObject*>(longs[i]);
+    }
+    env->ReleaseLongArrayElements(jscene_objects, longs, JNI_ABORT);
+    return scene_objects;
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_addChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren) {
+    SceneObject* scene_object = reinterpret_cast<SceneObject*>(jscene_object);
+    std::vector<SceneObject*> children = toSceneObjects(env, jchildren);
+    scene_object->addChildObjects(scene_object, children.data(),
+            children.size());
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_removeChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren) {
+    SceneObject* scene_object = reinterpret_cast<SceneObject*>(jscene_object);
+    std::vector<SceneObject*> children = toSceneObjects(env, jchildren);
+    scene_object->removeChildObjects(children.data(), children.size());
+}
+
+JNIEXPORT void JNICALL
+Java_org_gearvrf_NativeSceneObject_reparentChildObjects(JNIEnv * env,
+        jobject obj, jlong jscene_object, jlongArray jchildren) {
+    SceneObject* scene_object = reinterpret_cast<SceneObject*>(jscene_object);
+    std::vector<SceneObject*> children = toSceneObjects(env, jchildren);
+    scene_object->reparentChildObjects(scene_object, children.data(),
+            children.size());
+}
+
 JNIEXPORT bool JNICALL
 Java_org_gearvrf_NativeSceneObject_isColliding(
         JNIEnv * env, jobject obj, jlong jscene_object, jlong jother_object) {
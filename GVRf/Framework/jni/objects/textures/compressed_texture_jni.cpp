@@ -28,6 +28,12 @@ Java_org_gearvrf_asynchronous_NativeCompressedTexture_normalConstructor(JNIEnv *
         jint width, jint height, jint imageSize, jbyteArray bytes, jint dataOffset,
         jintArray jtexture_parameters);
 
+JNIEXPORT jlong JNICALL
+Java_org_gearvrf_asynchronous_NativeCompressedTexture_bufferConstructor(JNIEnv * env,
+        jobject obj, jint target, jint internalFormat,
+        jint width, jint height, jint imageSize, jobject buffer, jint dataOffset,
+        jintArray jtexture_parameters);
+
 JNIEXPORT jlong JNICALL
 Java_org_gearvrf_asynchronous_NativeCompressedTexture_mipmappedConstructor(JNIEnv * env,
         jobject obj, jint target);
@@ -55,6 +61,27 @@ Java_org_gearvrf_asynchronous_NativeCompressedTexture_normalConstructor(JNIEnv *
     return reinterpret_cast<jlong>(texture);
 }
 
+JNIEXPORT jlong JNICALL
+Java_org_gearvrf_asynchronous_NativeCompressedTexture_bufferConstructor(JNIEnv * env,
+    jobject obj, jint target, jint internalFormat,
+    jint width, jint height, jint imageSize, jobject buffer, jint dataOffset,
+    jintArray jtexture_parameters) {
+
+    jint* texture_parameters = env->GetIntArrayElements(jtexture_parameters,0);
+
+    // Direct (or memory-mapped) buffer: upload straight from its memory
+    const char* data = static_cast<const char*>(env->GetDirectBufferAddress(
+            buffer));
+
+    CompressedTexture* texture =
+            new CompressedTexture(target, internalFormat, width, height, imageSize,
+                                  data, dataOffset, texture_parameters);
+
+    env->ReleaseIntArrayElements(jtexture_parameters, texture_parameters, 0);
+
+    return reinterpret_cast<jlong>(texture);
+}
+
 JNIEXPORT jlong JNICALL
 Java_org_gearvrf_asynchronous_NativeCompressedTexture_mipmappedConstructor(JNIEnv * env,
     jobject obj, jint target) {
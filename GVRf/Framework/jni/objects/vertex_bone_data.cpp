@@ -54,6 +54,27 @@ void VertexBoneData::setVertexBoneWeight(int vertexId, int boneSlot, int boneId,
     boneData[vertexId].weights[boneSlot] = boneWeight;
 }
 
+void VertexBoneData::setBoneWeights(const int* boneIds,
+        const float* boneWeights, int count) {
+    if (bones.empty())
+        return;
+
+    int size = boneData.size();
+    if (count / BONES_PER_VERTEX < size) {
+        LOGD("Bone data for %d vertices, mesh has %d",
+                count / BONES_PER_VERTEX, size);
+        size = count / BONES_PER_VERTEX;
+    }
+    for (int i = 0; i < size; ++i) {
+        BoneData& data = boneData[i];
+        for (int j = 0; j < BONES_PER_VERTEX; ++j) {
+            data.ids[j] = boneIds[i * BONES_PER_VERTEX + j];
+            data.weights[j] = boneWeights[i * BONES_PER_VERTEX + j];
+        }
+    }
+    normalizeWeights();
+}
+
 void VertexBoneData::normalizeWeights() {
     if (bones.empty())
         return;
@@ -57,6 +57,8 @@ public:
     int getFreeBoneSlot(int vertexId);
     void setVertexBoneWeight(int vertexId, int boneSlot, int boneId, float boneWeight);
     void normalizeWeights();
+    // Packed: BONES_PER_VERTEX ids and weights for each vertex
+    void setBoneWeights(const int* boneIds, const float* boneWeights, int count);
 
     struct BoneData {
         uint32_t ids[BONES_PER_VERTEX];
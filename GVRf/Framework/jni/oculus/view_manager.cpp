@@ -31,6 +31,18 @@ void Java_org_gearvrf_GVRViewManager_cull(JNIEnv * jni, jclass clazz,
     Renderer::cull(scene, camera, shader_manager);
 }
 
+void Java_org_gearvrf_GVRViewManager_cullStereo(JNIEnv * jni, jclass clazz,
+        jlong jscene, jlong jcenter_camera, jlong jleft_camera,
+        jlong jright_camera, jlong jshader_manager) {
+    Scene* scene = reinterpret_cast<Scene*>(jscene);
+    Camera* center_camera = reinterpret_cast<Camera*>(jcenter_camera);
+    Camera* left_camera = reinterpret_cast<Camera*>(jleft_camera);
+    Camera* right_camera = reinterpret_cast<Camera*>(jright_camera);
+    ShaderManager* shader_manager = reinterpret_cast<ShaderManager*>(jshader_manager);
+    Renderer::cullStereo(scene, center_camera, left_camera, right_camera,
+            shader_manager);
+}
+
 void Java_org_gearvrf_GVRViewManager_renderCamera(JNIEnv * jni, jclass clazz,
         jlong appPtr, jlong jscene, jlong jcamera, jlong jshader_manager,
         jlong jpost_effect_shader_manager, jlong jpost_effect_render_texture_a,
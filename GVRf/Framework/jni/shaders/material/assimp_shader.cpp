@@ -20,6 +20,7 @@
 #include "assimp_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/components/render_data.h"
@@ -201,13 +202,18 @@ AssimpShader::~AssimpShader() {
 void AssimpShader::render(const glm::mat4& mv_matrix,
         const glm::mat4& mv_it_matrix, const glm::mat4& mvp_matrix,
         RenderData* render_data, Material* material) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key color_key("color");
+    static const Material::Key opacity_key("opacity");
+    static const Material::Key diffuse_color_key("diffuse_color");
+    static const Material::Key ambient_color_key("ambient_color");
     Mesh* mesh = render_data->mesh();
     Texture* texture;
     int feature_set = material->get_shader_feature_set();
 
     /* Get the texture only diffuse texture is set */
     if (ISSET(feature_set, AS_DIFFUSE_TEXTURE)) {
-        texture = material->getTexture("main_texture");
+        texture = material->getTexture(main_texture_key);
         if (texture->getTarget() != GL_TEXTURE_2D) {
             std::string error =
                     "TextureShader::render : texture with wrong target.";
@@ -226,22 +232,21 @@ void AssimpShader::render(const glm::mat4& mv_matrix,
     u_opacity_ = glGetUniformLocation(program_->id(), "u_opacity");
 
     /* Get common attributes and uniforms from material */
-    glm::vec3 color = material->getVec3("color");
-    float opacity = material->getFloat("opacity");
+    glm::vec3 color = material->getVec3(color_key);
+    float opacity = material->getFloat(opacity_key);
 
 #if _GVRF_USE_GLES3_
     mesh->generateVAO();
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
     if (ISSET(feature_set, AS_DIFFUSE_TEXTURE)) {
-        glActiveTexture (GL_TEXTURE0);
-        glBindTexture(texture->getTarget(), texture->getId());
+        GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
         glUniform1i(u_texture_, 0);
     } else {
-        glm::vec4 diffuse_color = material->getVec4("diffuse_color");
-        glm::vec4 ambient_color = material->getVec4("ambient_color");
+        glm::vec4 diffuse_color = material->getVec4(diffuse_color_key);
+        glm::vec4 ambient_color = material->getVec4(ambient_color_key);
         glUniform4f(u_diffuse_color_, diffuse_color.r, diffuse_color.g,
                 diffuse_color.b, diffuse_color.a);
         glUniform4f(u_ambient_color_, ambient_color.r, ambient_color.g,
@@ -272,11 +277,11 @@ void AssimpShader::render(const glm::mat4& mv_matrix,
     glUniform1f(u_opacity_, opacity);
 
     glBindVertexArray(mesh->getVAOId(Material::ASSIMP_SHADER));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
@@ -289,12 +294,11 @@ void AssimpShader::render(const glm::mat4& mv_matrix,
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
     if (ISSET(feature_set, AS_DIFFUSE_TEXTURE)) {
-        glActiveTexture (GL_TEXTURE0);
-        glBindTexture(texture->getTarget(), texture->getId());
+        GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
         glUniform1i(u_texture_, 0);
     } else {
-        glm::vec4 diffuse_color = material->getVec4("diffuse_color");
-        glm::vec4 ambient_color = material->getVec4("ambient_color");
+        glm::vec4 diffuse_color = material->getVec4(diffuse_color_key);
+        glm::vec4 ambient_color = material->getVec4(ambient_color_key);
         glUniform4f(u_diffuse_color_, diffuse_color.x, diffuse_color.y, diffuse_color.z, diffuse_color.w);
         glUniform4f(u_ambient_color_, ambient_color.x, ambient_color.y, ambient_color.z, ambient_color.w);
     }
@@ -302,8 +306,8 @@ void AssimpShader::render(const glm::mat4& mv_matrix,
     glUniform3f(u_color_, color.r, color.g, color.b);
     glUniform1f(u_opacity_, opacity);
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
 
     checkGlError("AssimpShader::render");
@@ -20,6 +20,7 @@
 #include "bounding_box_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/components/render_data.h"
@@ -58,23 +59,23 @@ void BoundingBoxShader::render(const glm::mat4& mvp_matrix,
 #if _GVRF_USE_GLES3_
     mesh->generateVAO();
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
     glBindVertexArray(mesh->getVAOId(material->shader_type()));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
     glEnableVertexAttribArray(a_position_);
 
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
 
     checkGlError("BoundingBoxShader::render");
@@ -20,6 +20,7 @@
 #include "cubemap_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/components/render_data.h"
@@ -101,10 +102,13 @@ CubemapShader::~CubemapShader() {
 
 void CubemapShader::render(const glm::mat4& model_matrix,
         const glm::mat4& mvp_matrix, RenderData* render_data, Material* material) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key color_key("color");
+    static const Material::Key opacity_key("opacity");
     Mesh* mesh = render_data->mesh();
-    Texture* texture = material->getTexture("main_texture");
-    glm::vec3 color = material->getVec3("color");
-    float opacity = material->getFloat("opacity");
+    Texture* texture = material->getTexture(main_texture_key);
+    glm::vec3 color = material->getVec3(color_key);
+    float opacity = material->getFloat(opacity_key);
 
     if (texture->getTarget() != GL_TEXTURE_CUBE_MAP) {
         std::string error = "CubemapShader::render : texture with wrong target";
@@ -114,22 +118,21 @@ void CubemapShader::render(const glm::mat4& model_matrix,
 #if _GVRF_USE_GLES3_
     mesh->generateVAO();
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glUniformMatrix4fv(u_model_, 1, GL_FALSE, glm::value_ptr(model_matrix));
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
     glUniform3f(u_color_, color.r, color.g, color.b);
     glUniform1f(u_opacity_, opacity);
 
     glBindVertexArray(mesh->getVAOId(Material::CUBEMAP_SHADER));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
@@ -138,16 +141,15 @@ void CubemapShader::render(const glm::mat4& model_matrix,
     glUniformMatrix4fv(u_model_, 1, GL_FALSE, glm::value_ptr(model_matrix));
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
 
     glUniform3f(u_color_, color.r, color.g, color.b);
 
     glUniform1f(u_opacity_, opacity);
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
 
     checkGlError("CubemapShader::render");
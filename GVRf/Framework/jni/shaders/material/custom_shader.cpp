@@ -19,7 +19,10 @@
 
 #include "custom_shader.h"
 
+#include <GLES2/gl2ext.h>
+
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/textures/texture.h"
@@ -40,9 +43,38 @@ CustomShader::~CustomShader() {
     delete program_;
 }
 
+/*
+ * The texture target a sampler reads, so a sampler can be given an empty
+ * texture of the right kind when the material has none.
+ */
+static GLenum samplerTarget(GLuint program, int location) {
+    GLint count = 0;
+    glGetProgramiv(program, GL_ACTIVE_UNIFORMS, &count);
+    for (GLint i = 0; i < count; ++i) {
+        GLchar name[256];
+        GLint size;
+        GLenum type;
+        glGetActiveUniform(program, i, sizeof(name), 0, &size, &type, name);
+        if (glGetUniformLocation(program, name) != location) {
+            continue;
+        }
+        switch (type) {
+        case GL_SAMPLER_CUBE:
+            return GL_TEXTURE_CUBE_MAP;
+        case GL_SAMPLER_EXTERNAL_OES:
+            return GL_TEXTURE_EXTERNAL_OES;
+        default:
+            return GL_TEXTURE_2D;
+        }
+    }
+    return GL_TEXTURE_2D;
+}
+
 void CustomShader::addTextureKey(std::string variable_name, std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    texture_keys_[location] = key;
+    TextureKey texture_key = { { Material::keyId(key), key }, samplerTarget(
+            program_->id(), location) };
+    texture_keys_[location] = texture_key;
 }
 
 void CustomShader::addAttributeFloatKey(std::string variable_name,
@@ -72,31 +104,36 @@ void CustomShader::addAttributeVec4Key(std::string variable_name,
 void CustomShader::addUniformFloatKey(std::string variable_name,
         std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    uniform_float_keys_[location] = key;
+    MaterialKey material_key = { Material::keyId(key), key };
+    uniform_float_keys_[location] = material_key;
 }
 
 void CustomShader::addUniformVec2Key(std::string variable_name,
         std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    uniform_vec2_keys_[location] = key;
+    MaterialKey material_key = { Material::keyId(key), key };
+    uniform_vec2_keys_[location] = material_key;
 }
 
 void CustomShader::addUniformVec3Key(std::string variable_name,
         std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    uniform_vec3_keys_[location] = key;
+    MaterialKey material_key = { Material::keyId(key), key };
+    uniform_vec3_keys_[location] = material_key;
 }
 
 void CustomShader::addUniformVec4Key(std::string variable_name,
         std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    uniform_vec4_keys_[location] = key;
+    MaterialKey material_key = { Material::keyId(key), key };
+    uniform_vec4_keys_[location] = material_key;
 }
 
 void CustomShader::addUniformMat4Key(std::string variable_name,
         std::string key) {
     int location = glGetUniformLocation(program_->id(), variable_name.c_str());
-    uniform_mat4_keys_[location] = key;
+    MaterialKey material_key = { Material::keyId(key), key };
+    uniform_mat4_keys_[location] = material_key;
 }
 
 void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data, Material* material,
@@ -104,7 +141,7 @@ void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data,
     Mesh* mesh = render_data->mesh();
 
 #if _GVRF_USE_GLES3_
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     for (auto it = attribute_float_keys_.begin();
             it != attribute_float_keys_.end(); ++it) {
@@ -128,12 +165,6 @@ void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data,
 
     mesh->generateVAO();  // setup VAO
 
-    ///////////// uniform /////////
-    for (auto it = uniform_float_keys_.begin(); it != uniform_float_keys_.end();
-            ++it) {
-        glUniform1f(it->first, material->getFloat(it->second));
-    }
-
     if (u_mvp_ != -1) {
         glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
     }
@@ -141,44 +172,14 @@ void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data,
         glUniform1i(u_right_, right ? 1 : 0);
     }
 
-    int texture_index = 0;
-    for (auto it = texture_keys_.begin(); it != texture_keys_.end(); ++it) {
-        glActiveTexture(getGLTexture(texture_index));
-        Texture* texture = material->getTexture(it->second);
-        glBindTexture(texture->getTarget(), texture->getId());
-        glUniform1i(it->first, texture_index++);
-    }
-
-    for (auto it = uniform_vec2_keys_.begin(); it != uniform_vec2_keys_.end();
-            ++it) {
-        glm::vec2 v = material->getVec2(it->second);
-        glUniform2f(it->first, v.x, v.y);
-    }
-
-    for (auto it = uniform_vec3_keys_.begin(); it != uniform_vec3_keys_.end();
-            ++it) {
-        glm::vec3 v = material->getVec3(it->second);
-        glUniform3f(it->first, v.x, v.y, v.z);
-    }
-
-    for (auto it = uniform_vec4_keys_.begin(); it != uniform_vec4_keys_.end();
-            ++it) {
-        glm::vec4 v = material->getVec4(it->second);
-        glUniform4f(it->first, v.x, v.y, v.z, v.w);
-    }
-
-    for (auto it = uniform_mat4_keys_.begin(); it != uniform_mat4_keys_.end();
-            ++it) {
-        glm::mat4 m = material->getMat4(it->second);
-        glUniformMatrix4fv(it->first, 1, GL_FALSE, glm::value_ptr(m));
-    }
+    bindMaterial(material);
 
     glBindVertexArray(mesh->getVAOId(material->shader_type()));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     if (a_position_ != -1) {
         glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
@@ -206,16 +207,6 @@ void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data,
         glUniform1i(u_right_, right ? 1 : 0);
     }
 
-    int texture_index = 0;
-
-    for (auto it = texture_keys_.begin(); it != texture_keys_.end(); ++it) {
-        glActiveTexture(getGLTexture(texture_index));
-        Texture* texture = render_data->material()->getTexture(
-                it->second);
-        glBindTexture(texture->getTarget(), texture->getId());
-        glUniform1i(it->first, texture_index++);
-    }
-
     for (auto it = attribute_float_keys_.begin();
             it != attribute_float_keys_.end(); ++it) {
         glVertexAttribPointer(it->first, 1, GL_FLOAT, GL_FALSE, 0,
@@ -244,40 +235,79 @@ void CustomShader::render(const glm::mat4& mvp_matrix, RenderData* render_data,
         glEnableVertexAttribArray(it->first);
     }
 
+    bindMaterial(render_data->material());
+
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
+#endif
+
+    checkGlError("CustomShader::render");
+}
+
+/*
+ * Keys were resolved to ids when they were added, so binding is a search of
+ * the material's small sorted slot list per uniform.
+ *
+ * Each sampler has a fixed texture unit, its index in texture_keys_. A
+ * sampler the material has no texture for gets texture 0, which samples as
+ * black, rather than whatever the unit last held. A missing uniform value
+ * throws, like the Material getters do, and the renderer draws the object
+ * with the error shader.
+ */
+void CustomShader::bindMaterial(Material* material) {
+    int texture_index = 0;
+    for (auto it = texture_keys_.begin(); it != texture_keys_.end();
+            ++it, ++texture_index) {
+        Texture* texture = material->getTexture(it->second.key.id);
+        if (texture != 0) {
+            GLStateCache::bindTexture(texture_index, texture->getTarget(),
+                    texture->getId());
+        } else {
+            GLStateCache::bindTexture(texture_index, it->second.target, 0);
+        }
+        glUniform1i(it->first, texture_index);
+    }
+
     for (auto it = uniform_float_keys_.begin(); it != uniform_float_keys_.end();
             ++it) {
-        glUniform1f(it->first, render_data->material()->getFloat(it->second));
+        glUniform1fv(it->first, 1,
+                getUniform(material, it->second, 1, "Material::getFloat() : "));
     }
 
     for (auto it = uniform_vec2_keys_.begin(); it != uniform_vec2_keys_.end();
             ++it) {
-        glm::vec2 v = render_data->material()->getVec2(it->second);
-        glUniform2f(it->first, v.x, v.y);
+        glUniform2fv(it->first, 1,
+                getUniform(material, it->second, 2, "Material::getVec2() : "));
     }
 
     for (auto it = uniform_vec3_keys_.begin(); it != uniform_vec3_keys_.end();
             ++it) {
-        glm::vec3 v = render_data->material()->getVec3(it->second);
-        glUniform3f(it->first, v.x, v.y, v.z);
+        glUniform3fv(it->first, 1,
+                getUniform(material, it->second, 3, "Material::getVec3() : "));
     }
 
     for (auto it = uniform_vec4_keys_.begin(); it != uniform_vec4_keys_.end();
             ++it) {
-        glm::vec4 v = render_data->material()->getVec4(it->second);
-        glUniform4f(it->first, v.x, v.y, v.z, v.w);
+        glUniform4fv(it->first, 1,
+                getUniform(material, it->second, 4, "Material::getVec4() : "));
     }
 
     for (auto it = uniform_mat4_keys_.begin(); it != uniform_mat4_keys_.end();
             ++it) {
-        glm::mat4 m = render_data->material()->getMat4(it->second);
-        glUniformMatrix4fv(it->first, 1, GL_FALSE, glm::value_ptr(m));
+        glUniformMatrix4fv(it->first, 1, GL_FALSE,
+                getUniform(material, it->second, 16,
+                        "Material::getMat4() : "));
     }
+}
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
-#endif
-
-    checkGlError("CustomShader::render");
+const float* CustomShader::getUniform(Material* material,
+        const MaterialKey& key, int size, const char* caller) {
+    const float* value = material->getUniform(key.id, size);
+    if (value == 0) {
+        std::string error = caller + key.name + " not found";
+        throw error;
+    }
+    return value;
 }
 
 int CustomShader::getGLTexture(int n) {
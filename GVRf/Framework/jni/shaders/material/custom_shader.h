@@ -63,20 +63,36 @@ private:
     CustomShader& operator=(const CustomShader& custom_shader);
     CustomShader& operator=(CustomShader&& custom_shader);
 
+    // A material key, resolved to its id when it was added
+    struct MaterialKey {
+        int id;
+        std::string name;
+    };
+
+    struct TextureKey {
+        MaterialKey key;
+        GLenum target; // of the sampler
+    };
+
+    void bindMaterial(Material* material);
+    const float* getUniform(Material* material, const MaterialKey& key,
+            int size, const char* caller);
+
 private:
     GLProgram* program_;
     GLuint u_mvp_;
     GLuint u_right_;
-    std::map<int, std::string> texture_keys_;
+    // Location to material key, for textures and uniforms
+    std::map<int, TextureKey> texture_keys_;
     std::map<int, std::string> attribute_float_keys_;
     std::map<int, std::string> attribute_vec2_keys_;
     std::map<int, std::string> attribute_vec3_keys_;
     std::map<int, std::string> attribute_vec4_keys_;
-    std::map<int, std::string> uniform_float_keys_;
-    std::map<int, std::string> uniform_vec2_keys_;
-    std::map<int, std::string> uniform_vec3_keys_;
-    std::map<int, std::string> uniform_vec4_keys_;
-    std::map<int, std::string> uniform_mat4_keys_;
+    std::map<int, MaterialKey> uniform_float_keys_;
+    std::map<int, MaterialKey> uniform_vec2_keys_;
+    std::map<int, MaterialKey> uniform_vec3_keys_;
+    std::map<int, MaterialKey> uniform_vec4_keys_;
+    std::map<int, MaterialKey> uniform_mat4_keys_;
 };
 
 }
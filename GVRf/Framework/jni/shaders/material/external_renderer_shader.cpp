@@ -25,6 +25,8 @@ namespace gvr {
 void ExternalRendererShader::render(
         const glm::mat4& mv_matrix, const glm::mat4& mv_it_matrix,
         const glm::mat4& mvp_matrix, RenderData* render_data) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key opacity_key("opacity");
     if (externalRenderer == NULL) {
         LOGE("External renderer not installed");
         return;
@@ -36,7 +38,7 @@ void ExternalRendererShader::render(
         return;
     }
 
-    Texture *texture = material->getTexture("main_texture");
+    Texture *texture = material->getTexture(main_texture_key);
     if (texture->getTarget() != ExternalRendererTexture::TARGET) {
         LOGE("External renderer only takes external renderer textures");
         return;
@@ -77,7 +79,7 @@ void ExternalRendererShader::render(
                          scratchBuffer, 6,
                          glm::value_ptr(mvp_matrix), 16,
                          glm::value_ptr(*mesh->tex_coords().data()), mesh->tex_coords().size() * 2,
-                         material->getFloat("opacity"));
+                         material->getFloat(opacity_key));
     } else {
         // Capture texture in RenderTexture
         capturer->beginCapture();
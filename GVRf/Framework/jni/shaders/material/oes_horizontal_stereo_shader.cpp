@@ -20,6 +20,7 @@
 #include "oes_horizontal_stereo_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/components/render_data.h"
@@ -68,10 +69,14 @@ OESHorizontalStereoShader::~OESHorizontalStereoShader() {
 
 void OESHorizontalStereoShader::render(const glm::mat4& mvp_matrix,
         RenderData* render_data, Material* material, bool right) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key color_key("color");
+    static const Material::Key opacity_key("opacity");
+    static const Material::Key mono_rendering_key("mono_rendering");
     Mesh* mesh = render_data->mesh();
-    Texture* texture = material->getTexture("main_texture");
-    glm::vec3 color = material->getVec3("color");
-    float opacity = material->getFloat("opacity");
+    Texture* texture = material->getTexture(main_texture_key);
+    glm::vec3 color = material->getVec3(color_key);
+    float opacity = material->getFloat(opacity_key);
     bool mono_rendering;
 
     if (texture->getTarget() != GL_TEXTURE_EXTERNAL_OES) {
@@ -81,7 +86,7 @@ void OESHorizontalStereoShader::render(const glm::mat4& mvp_matrix,
     }
 
     try {
-        mono_rendering = material->getFloat("mono_rendering") == 1;
+        mono_rendering = material->getFloat(mono_rendering_key) == 1;
     } catch (std::string& error) {
         mono_rendering  = false;
     }
@@ -89,22 +94,21 @@ void OESHorizontalStereoShader::render(const glm::mat4& mvp_matrix,
 #if _GVRF_USE_GLES3_
     mesh->generateVAO();
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
     glUniform3f(u_color_, color.r, color.g, color.b);
     glUniform1f(u_opacity_, opacity);
     glUniform1i(u_right_, mono_rendering || right ? 1 : 0);
 
     glBindVertexArray(mesh->getVAOId(Material::UNLIT_HORIZONTAL_STEREO_SHADER));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
@@ -116,8 +120,7 @@ void OESHorizontalStereoShader::render(const glm::mat4& mvp_matrix,
 
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
 
     glUniform3f(u_color_, color.r, color.g, color.b);
@@ -126,8 +129,8 @@ void OESHorizontalStereoShader::render(const glm::mat4& mvp_matrix,
 
     glUniform1i(u_right_, mono_rendering || right ? 1 : 0);
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
 
     checkGlError("OESHorizontalStereoShader::render");
@@ -20,6 +20,7 @@
 #include "oes_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/mesh.h"
 #include "objects/components/render_data.h"
@@ -63,10 +64,13 @@ OESShader::~OESShader() {
 }
 
 void OESShader::render(const glm::mat4& mvp_matrix, RenderData* render_data, Material* material) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key color_key("color");
+    static const Material::Key opacity_key("opacity");
     Mesh* mesh = render_data->mesh();
-    Texture* texture = material->getTexture("main_texture");
-    glm::vec3 color = material->getVec3("color");
-    float opacity = material->getFloat("opacity");
+    Texture* texture = material->getTexture(main_texture_key);
+    glm::vec3 color = material->getVec3(color_key);
+    float opacity = material->getFloat(opacity_key);
 
     if (texture->getTarget() != GL_TEXTURE_EXTERNAL_OES) {
         std::string error = "OESShader::render : texture with wrong target";
@@ -76,22 +80,21 @@ void OESShader::render(const glm::mat4& mvp_matrix, RenderData* render_data, Mat
 #if _GVRF_USE_GLES3_
     mesh->generateVAO();
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
     glUniform3f(u_color_, color.r, color.g, color.b);
     glUniform1f(u_opacity_, opacity);
 
     glBindVertexArray(mesh->getVAOId(Material::OES_SHADER));
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 #else
 
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
@@ -103,16 +106,15 @@ void OESShader::render(const glm::mat4& mvp_matrix, RenderData* render_data, Mat
 
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
 
     glUniform3f(u_color_, color.r, color.g, color.b);
 
     glUniform1f(u_opacity_, opacity);
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
     checkGlError("OESShader::render");
 }
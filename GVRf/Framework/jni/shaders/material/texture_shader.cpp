@@ -20,6 +20,7 @@
 #include "texture_shader.h"
 
 #include "gl/gl_program.h"
+#include "gl/gl_state_cache.h"
 #include "objects/material.h"
 #include "objects/light.h"
 #include "objects/mesh.h"
@@ -174,14 +175,21 @@ TextureShader::~TextureShader() {
 void TextureShader::render(const glm::mat4& mv_matrix,
         const glm::mat4& mv_it_matrix, const glm::mat4& mvp_matrix,
         RenderData* render_data, Material* material) {
+    static const Material::Key main_texture_key("main_texture");
+    static const Material::Key color_key("color");
+    static const Material::Key opacity_key("opacity");
+    static const Material::Key ambient_color_key("ambient_color");
+    static const Material::Key diffuse_color_key("diffuse_color");
+    static const Material::Key specular_color_key("specular_color");
+    static const Material::Key specular_exponent_key("specular_exponent");
     Mesh* mesh = render_data->mesh();
-    Texture* texture = material->getTexture("main_texture");
-    glm::vec3 color = material->getVec3("color");
-    float opacity = material->getFloat("opacity");
-    glm::vec4 material_ambient_color = material->getVec4("ambient_color");
-    glm::vec4 material_diffuse_color = material->getVec4("diffuse_color");
-    glm::vec4 material_specular_color = material->getVec4("specular_color");
-    float material_specular_exponent = material->getFloat("specular_exponent");
+    Texture* texture = material->getTexture(main_texture_key);
+    glm::vec3 color = material->getVec3(color_key);
+    float opacity = material->getFloat(opacity_key);
+    glm::vec4 material_ambient_color = material->getVec4(ambient_color_key);
+    glm::vec4 material_diffuse_color = material->getVec4(diffuse_color_key);
+    glm::vec4 material_specular_color = material->getVec4(specular_color_key);
+    float material_specular_exponent = material->getFloat(specular_exponent_key);
 
     if (texture->getTarget() != GL_TEXTURE_2D) {
         std::string error = "TextureShader::render : texture with wrong target.";
@@ -202,13 +210,12 @@ void TextureShader::render(const glm::mat4& mv_matrix,
     mesh->generateVAO();
 
     if (use_light) {
-        glUseProgram(program_light_->id());
+        GLStateCache::useProgram(program_light_->id());
     } else {
-        glUseProgram(program_no_light_->id());
+        GLStateCache::useProgram(program_no_light_->id());
     }
 
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
 
     if (use_light) {
         glm::vec3 light_position = light->getVec3("position");
@@ -259,12 +266,12 @@ void TextureShader::render(const glm::mat4& mv_matrix,
         glBindVertexArray(mesh->getVAOId(Material::TEXTURE_SHADER_NOLIGHT));
     }
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
             0);
     glBindVertexArray(0);
 
 #else
-    glUseProgram(program_->id());
+    GLStateCache::useProgram(program_->id());
 
     glVertexAttribPointer(a_position_, 3, GL_FLOAT, GL_FALSE, 0,
             mesh->vertices().data());
@@ -274,16 +281,15 @@ void TextureShader::render(const glm::mat4& mv_matrix,
     glUniformMatrix4fv(u_mv_it_, 1, GL_FALSE, glm::value_ptr(mv_it_matrix));
     glUniformMatrix4fv(u_mvp_, 1, GL_FALSE, glm::value_ptr(mvp_matrix));
 
-    glActiveTexture (GL_TEXTURE0);
-    glBindTexture(texture->getTarget(), texture->getId());
+    GLStateCache::bindTexture(0, texture->getTarget(), texture->getId());
     glUniform1i(u_texture_, 0);
 
     glUniform3f(u_color_, color.r, color.g, color.b);
 
     glUniform1f(u_opacity_, opacity);
 
-    glDrawElements(render_data->draw_mode(), mesh->indices().size(), GL_UNSIGNED_SHORT,
-            mesh->indices().data());
+    glDrawElements(render_data->draw_mode(), mesh->index_count(), mesh->index_type(),
+            mesh->index_data());
 #endif
 
     checkGlError("TextureShader::render");
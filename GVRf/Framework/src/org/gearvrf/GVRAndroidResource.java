@@ -17,14 +17,18 @@ package org.gearvrf;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import org.gearvrf.utility.MarkingFileInputStream;
 
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.content.res.AssetManager;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
@@ -63,6 +67,8 @@ public class GVRAndroidResource {
     // For hint to Assimp
     private String resourceFilePath;
     private final URL url;
+    // For getMappedBuffer(): assets and res/raw files
+    private final Resources resources;
 
     /**
      * Open any file you have permission to read.
@@ -82,6 +88,7 @@ public class GVRAndroidResource {
         assetPath = null;
         resourceFilePath = null;
         url = null;
+        resources = null;
     }
 
     /**
@@ -129,6 +136,7 @@ public class GVRAndroidResource {
         TypedValue value = new TypedValue();
         resources.getValue(resourceId, value, true);
         resourceFilePath = value.string.toString();
+        this.resources = resources;
     }
 
     /**
@@ -164,7 +172,8 @@ public class GVRAndroidResource {
      */
     public GVRAndroidResource(Context context, String assetRelativeFilename)
             throws IOException {
-        AssetManager assets = context.getResources().getAssets();
+        resources = context.getResources();
+        AssetManager assets = resources.getAssets();
         stream = assets.open(assetRelativeFilename);
         debugState = DebugStates.OPEN;
 
@@ -191,6 +200,7 @@ public class GVRAndroidResource {
         assetPath = null;
         resourceFilePath = null;
         this.url = url;
+        resources = null;
     }
 
     /**
@@ -267,6 +277,75 @@ public class GVRAndroidResource {
         }
     }
 
+    /**
+     * Map the resource's file into memory, read-only.
+     * 
+     * This lets a loader read a large file (like a compressed texture) in
+     * place, instead of copying it onto the Java heap. Only resources that
+     * live in an uncompressed file can be mapped: plain files, and
+     * {@code assets} or {@code res/raw} files that were stored (not
+     * compressed) in the APK.
+     * 
+     * <p>
+     * This does not use or change the {@linkplain #getStream() stream}.
+     * 
+     * @return A buffer holding the whole resource, or {@code null} if the
+     *         resource can't be mapped. The buffer's position is 0.
+     * @throws IOException
+     *             The file could not be opened or mapped
+     */
+    public ByteBuffer getMappedBuffer() throws IOException {
+        if (filePath != null) {
+            FileInputStream file = new FileInputStream(filePath);
+            try {
+                FileChannel channel = file.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        channel.size());
+            } finally {
+                // The mapping stays valid after the channel is closed
+                file.close();
+            }
+        }
+
+        AssetFileDescriptor descriptor;
+        try {
+            if (assetPath != null) {
+                descriptor = resources.getAssets().openFd(assetPath);
+            } else if (resourceId != 0) {
+                descriptor = resources.openRawResourceFd(resourceId);
+            } else {
+                descriptor = null;
+            }
+        } catch (FileNotFoundException e) {
+            // openFd() throws for files that are compressed in the APK
+            descriptor = null;
+        } catch (Resources.NotFoundException e) {
+            // ... and so does openRawResourceFd()
+            descriptor = null;
+        }
+        if (descriptor == null) {
+            return null;
+        }
+
+        try {
+            FileInputStream file = descriptor.createInputStream();
+            try {
+                FileChannel channel = file.getChannel();
+                long start = descriptor.getStartOffset();
+                long length = descriptor.getLength();
+                if (length == AssetFileDescriptor.UNKNOWN_LENGTH) {
+                    length = channel.size() - start;
+                }
+                return channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        length);
+            } finally {
+                file.close();
+            }
+        } finally {
+            descriptor.close();
+        }
+    }
+
     /**
      * Returns the filename of the resource with extension.
      * 
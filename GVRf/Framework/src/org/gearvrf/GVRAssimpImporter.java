@@ -80,6 +80,18 @@ class GVRAssimpImporter extends GVRHybridObject {
         return NativeAssimpImporter.getMeshMaterial(getNative(), nodeName,
                 meshIndex);
     }
+
+    /**
+     * Retrieves the index of a mesh's material, in the scene's material list.
+     * Meshes that share a material return the same index.
+     * 
+     * @param index
+     *            Index of the mesh, in the scene's mesh list
+     * @return The material index
+     */
+    int getMaterialIndex(int index) {
+        return NativeAssimpImporter.getMaterialIndex(getNative(), index);
+    }
 }
 
 class NativeAssimpImporter {
@@ -94,4 +106,6 @@ class NativeAssimpImporter {
 
     static native AiMaterial getMeshMaterial(long assimpImporter,
             String nodeName, int meshIndex);
+
+    static native int getMaterialIndex(long assimpImporter, int meshIndex);
 }
@@ -139,7 +139,10 @@ public class GVRBaseSensor {
      * Does not affect the sensor if already disabled.
      */
     public void disable() {
-        enabled = false;
+        if (enabled) {
+            enabled = false;
+            SensorManager.invalidate();
+        }
     }
 
     /**
@@ -148,7 +151,10 @@ public class GVRBaseSensor {
      * Does not affect the sensor if already enabled.
      */
     public void enable() {
-        enabled = true;
+        if (!enabled) {
+            enabled = true;
+            SensorManager.invalidate();
+        }
     }
 
     /**
@@ -18,6 +18,7 @@ package org.gearvrf;
 import static android.opengl.GLES20.GL_NO_ERROR;
 import static android.opengl.GLES20.GL_TEXTURE_2D;
 import static android.opengl.GLES20.glBindTexture;
+import static android.opengl.GLES20.glGenerateMipmap;
 import static android.opengl.GLES20.glGetError;
 
 import java.util.concurrent.Callable;
@@ -226,6 +227,9 @@ public class GVRBitmapTexture extends GVRTexture {
      * @since 1.6.3
      */
     public Future<Boolean> update(int width, int height, byte[] grayscaleData) {
+        // One byte per pixel, plus a generated mipmap chain
+        setByteCount(estimateByteCount((long) width * height, Integer.MAX_VALUE));
+
         final int widthOnCall = width, heightOnCall = height;
         final byte[] grayscaleDataOnCall = grayscaleData;
         RunnableFuture<Boolean> updateTask = new GVRFutureOnGlThread<Boolean>(
@@ -295,6 +299,10 @@ public class GVRBitmapTexture extends GVRTexture {
      * @since 1.6.3
      */
     public Future<Boolean> update(Bitmap bitmap) {
+        setByteCount(estimateByteCount(
+                (long) bitmap.getRowBytes() * bitmap.getHeight(),
+                Integer.MAX_VALUE));
+
         final Bitmap onCallBitmap = bitmap;
         RunnableFuture<Boolean> updateTask = new GVRFutureOnGlThread<Boolean>(
                 new Callable<Boolean>() {
@@ -311,6 +319,27 @@ public class GVRBitmapTexture extends GVRTexture {
         return updateTask;
     }
 
+    /**
+     * Replace the image with a {@link Bitmap} of any size, and regenerate the
+     * mipmaps. Unlike {@link #update(Bitmap)}, the new bitmap does not have to
+     * match the old one, so a progressive load can replace its low resolution
+     * preview. Must be called on the GL thread.
+     * 
+     * @param bitmap
+     *            A standard Android {@link Bitmap}
+     * @return {@code true} if the upload succeeded
+     */
+    public boolean refine(Bitmap bitmap) {
+        setByteCount(estimateByteCount(
+                (long) bitmap.getRowBytes() * bitmap.getHeight(),
+                Integer.MAX_VALUE));
+
+        glBindTexture(GL_TEXTURE_2D, getId());
+        GLUtils.texImage2D(GL_TEXTURE_2D, 0, bitmap, 0);
+        glGenerateMipmap(GL_TEXTURE_2D);
+        return (glGetError() == GL_NO_ERROR);
+    }
+
 }
 
 class NativeBaseTexture {
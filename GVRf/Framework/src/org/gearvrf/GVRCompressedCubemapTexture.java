@@ -9,6 +9,7 @@ public class GVRCompressedCubemapTexture extends GVRTexture
       super(gvrContext, NativeCompressedCubemapTexture.compressedTextureArrayConstructor(
               internalFormat, width, height, imageSize, data, dataOffset,
               textureParameters.getCurrentValuesArray()));
+      setByteCount(6L * imageSize);
   }
 
   public GVRCompressedCubemapTexture(GVRContext gvrContext, int internalFormat, int width,
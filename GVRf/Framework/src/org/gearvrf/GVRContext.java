@@ -15,6 +15,7 @@
 
 package org.gearvrf;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import org.gearvrf.asynchronous.GVRAsynchronousResourceLoader;
 import org.gearvrf.asynchronous.GVRCompressedTexture;
 import org.gearvrf.asynchronous.GVRCompressedTextureLoader;
 import org.gearvrf.io.GVRInputManager;
+import org.gearvrf.jassimp2.GVRJassimpCache;
 import org.gearvrf.periodic.GVRPeriodicEngine;
 import org.gearvrf.scene_objects.GVRModelSceneObject;
 import org.gearvrf.utility.Log;
@@ -616,6 +618,73 @@ public abstract class GVRContext {
         return GVRImporter.loadJassimpModel(this, assetFile, GVRResourceVolume.VolumeType.ANDROID_ASSETS, settings);
     }
 
+    /**
+     * Loads a model {@link GVRModelSceneObject} in the background.
+     *
+     * The import runs on background threads, and converts the model's meshes
+     * and animations in parallel. It never uses the GL thread: add the model
+     * to your scene when the {@link Future} is done.
+     *
+     * @param assetFile
+     *            A filename, relative to the {@code assets} directory. The file
+     *            can be in a sub-directory of the {@code assets} directory:
+     *            {@code "foo/bar.png"} will open the file
+     *            {@code assets/foo/bar.png}
+     *
+     * @return A {@link Future} that returns the model. Its {@code get()} throws
+     *         an {@link java.util.concurrent.ExecutionException} wrapping an
+     *         {@link IOException} if the file does not exist or cannot be
+     *         read.
+     */
+    public Future<GVRModelSceneObject> loadFutureModel(String assetFile) {
+        return loadFutureModel(assetFile,
+                GVRImportSettings.getRecommendedSettings());
+    }
+
+    /**
+     * Loads a model {@link GVRModelSceneObject} in the background.
+     *
+     * @param assetFile
+     *            A filename, relative to the {@code assets} directory
+     *
+     * @param settings
+     *            Additional import {@link GVRImportSettings settings}
+     *
+     * @return A {@link Future} that returns the model
+     *
+     * @see #loadFutureModel(String)
+     */
+    public Future<GVRModelSceneObject> loadFutureModel(String assetFile,
+            EnumSet<GVRImportSettings> settings) {
+        return loadFutureModel(assetFile, settings, null);
+    }
+
+    /**
+     * Loads a model {@link GVRModelSceneObject} in the background, reporting
+     * progress as it goes.
+     *
+     * @param assetFile
+     *            A filename, relative to the {@code assets} directory
+     *
+     * @param settings
+     *            Additional import {@link GVRImportSettings settings}
+     *
+     * @param listener
+     *            Told as each mesh and animation is converted, on background
+     *            threads. May be null.
+     *
+     * @return A {@link Future} that returns the model
+     *
+     * @see #loadFutureModel(String)
+     */
+    public Future<GVRModelSceneObject> loadFutureModel(String assetFile,
+            EnumSet<GVRImportSettings> settings,
+            GVRImportProgressListener listener) {
+        return GVRImporter.loadFutureJassimpModel(this, assetFile,
+                GVRResourceVolume.VolumeType.ANDROID_ASSETS, settings,
+                listener);
+    }
+
     /**
      * Simple, high-level method to load a scene object {@link GVRModelSceneObject} from
      * a 3D model from a URL.
@@ -940,7 +1009,47 @@ public abstract class GVRContext {
         return texture;
     }
 
-    private final ResourceCache<GVRTexture> textureCache = new ResourceCache<GVRTexture>();
+    /**
+     * Default {@linkplain ResourceCache#setBudget(long) budget} of the texture
+     * cache: 32 megabytes.
+     */
+    public static final long DEFAULT_TEXTURE_CACHE_BUDGET = 32L * 1024 * 1024;
+
+    private final ResourceCache<GVRTexture> textureCache = new ResourceCache<GVRTexture>(
+            DEFAULT_TEXTURE_CACHE_BUDGET, ResourceCache.TEXTURE_SIZE_ESTIMATOR);
+
+    /**
+     * The cache that the texture loading methods share.
+     * 
+     * Use it to change the memory budget, or to read the hit, miss and
+     * eviction counts.
+     * 
+     * @return The texture cache.
+     */
+    public ResourceCache<GVRTexture> getTextureCache() {
+        return textureCache;
+    }
+
+    private GVRJassimpCache modelCache = null;
+
+    /**
+     * The on-disk cache that {@link #loadJassimpModel(String, EnumSet)} and
+     * its siblings use to skip the Assimp import of models they have
+     * already imported.
+     * 
+     * The cache lives in the {@code models} directory under the app's
+     * {@linkplain Context#getCacheDir() cache directory}. Use it to disable
+     * caching, or to delete the cached models.
+     * 
+     * @return The model cache.
+     */
+    public synchronized GVRJassimpCache getModelCache() {
+        if (modelCache == null) {
+            modelCache = new GVRJassimpCache(new File(getContext()
+                    .getCacheDir(), "models"));
+        }
+        return modelCache;
+    }
 
     /**
      * Loads a cube map texture synchronously.
@@ -1974,6 +2083,36 @@ public abstract class GVRContext {
      */
     public abstract void runOnGlThread(Runnable runnable);
 
+    /**
+     * Enqueues a deferrable callback to be run in the GL thread.
+     * 
+     * Unlike {@link #runOnGlThread(Runnable)} callbacks, which all run on the
+     * next frame, deferrable callbacks share a per-frame time budget: the
+     * ones that don't fit wait for a later frame. Use this for work (like
+     * uploading a large texture) that can be spread over several frames,
+     * without any single frame taking too long.
+     * 
+     * @param runnable
+     *            A bit of code that must run on the GL thread
+     * @param priority
+     *            Callbacks with a higher priority run first. Use
+     *            {@link #DEFAULT_PRIORITY} if you don't care.
+     * @see #getGlTaskScheduler()
+     */
+    public abstract void runOnGlThread(Runnable runnable, int priority);
+
+    /**
+     * The scheduler that runs {@linkplain #runOnGlThread(Runnable) GL
+     * callbacks}.
+     * 
+     * Use it to change the time budget for
+     * {@linkplain #runOnGlThread(Runnable, int) deferrable callbacks}, or to
+     * read how much time each frame spends on callbacks.
+     * 
+     * @return The GL task scheduler
+     */
+    public abstract GVRGlTaskScheduler getGlTaskScheduler();
+
     /**
      * Enqueues a callback to be run in the GL thread after rendering a frame.
      *
@@ -60,6 +60,12 @@ public class GVRCubemapTexture extends GVRTexture {
             GVRTextureParameters textureParameters) {
         super(gvrContext, NativeCubemapTexture.bitmapArrayConstructor(
                 bitmapArray, textureParameters.getCurrentValuesArray()));
+        long byteCount = 0;
+        for (Bitmap bitmap : bitmapArray) {
+            // Faces are uploaded as RGBA
+            byteCount += 4L * bitmap.getWidth() * bitmap.getHeight();
+        }
+        setByteCount(byteCount);
     }
 
     /**
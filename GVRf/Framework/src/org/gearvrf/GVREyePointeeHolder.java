@@ -52,8 +52,10 @@ public class GVREyePointeeHolder extends GVRComponent {
     private final List<GVREyePointee> pointees = new ArrayList<GVREyePointee>();
 
     static GVREyePointeeHolder lookup(GVRContext gvrContext, long nativePointer) {
-        WeakReference<GVREyePointeeHolder> weakReference = sEyePointeeHolders
-                .get(nativePointer);
+        WeakReference<GVREyePointeeHolder> weakReference;
+        synchronized (sEyePointeeHolders) {
+            weakReference = sEyePointeeHolders.get(nativePointer);
+        }
         return weakReference == null ? null : weakReference.get();
     }
 
@@ -100,8 +102,10 @@ public class GVREyePointeeHolder extends GVRComponent {
     }
 
     private void registerNativePointer(long nativePointer) {
-        sEyePointeeHolders.put(nativePointer,
-                new WeakReference<GVREyePointeeHolder>(this));
+        synchronized (sEyePointeeHolders) {
+            sEyePointeeHolders.put(nativePointer,
+                    new WeakReference<GVREyePointeeHolder>(this));
+        }
     }
 
     private final static List<NativeCleanupHandler> sCleanup;
@@ -112,7 +116,9 @@ public class GVREyePointeeHolder extends GVRComponent {
 
             @Override
             public void nativeCleanup(long nativePointer) {
-                sEyePointeeHolders.remove(nativePointer);
+                synchronized (sEyePointeeHolders) {
+                    sEyePointeeHolders.remove(nativePointer);
+                }
             }
         });
 
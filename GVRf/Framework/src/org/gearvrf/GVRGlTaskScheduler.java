@@ -0,0 +1,227 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs the GL thread's queued tasks, at the start of each frame.
+ *
+ * There are two kinds of tasks:
+ * <ul>
+ * <li>{@linkplain GVRContext#runOnGlThread(Runnable) Plain tasks} all run on
+ * the next frame, in the order they were posted.
+ *
+ * <li>{@linkplain GVRContext#runOnGlThread(Runnable, int) Deferrable tasks}
+ * run in priority order, until the frame's {@linkplain #setFrameBudget(long)
+ * time budget} is spent. Whatever is left waits for the next frame. At least
+ * one deferrable task runs each frame, so a busy frame only slows deferrable
+ * work down: it never stops it.
+ * </ul>
+ *
+ * Uploads of asynchronously loaded textures and meshes are deferrable, so a
+ * burst of loads spreads across several frames instead of causing a long
+ * one.
+ *
+ * <p>
+ * Time is measured with {@link GVRTime#getCurrentTime()}, and includes the
+ * plain tasks. The scheduler also keeps a few counters (the time spent on
+ * tasks, and the number of tasks carried over to a later frame) that help
+ * you tune the budget.
+ */
+public final class GVRGlTaskScheduler {
+
+    /** Default {@linkplain #setFrameBudget(long) frame budget}: 4 ms. */
+    public static final long DEFAULT_FRAME_BUDGET = 4000000L;
+
+    private final Queue<Runnable> mTasks = new ConcurrentLinkedQueue<Runnable>();
+    private final PriorityQueue<Task> mDeferrableTasks = new PriorityQueue<Task>();
+    private long mSequence = 0;
+    private volatile long mFrameBudget = DEFAULT_FRAME_BUDGET;
+
+    // Statistics: written by the GL thread, guarded by this
+    private long mLastFrameTime = 0;
+    private long mMaxFrameTime = 0;
+    private long mTotalTime = 0;
+    private long mFrames = 0;
+    private long mDeferredFrames = 0;
+    private long mDeferredTasks = 0;
+
+    private static final class Task implements Comparable<Task> {
+        final Runnable runnable;
+        final int priority;
+        final long sequence;
+
+        Task(Runnable runnable, int priority, long sequence) {
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Task another) {
+            // Higher priorities first; FIFO within a priority
+            if (priority != another.priority) {
+                return priority > another.priority ? -1 : 1;
+            }
+            return sequence < another.sequence ? -1
+                    : (sequence == another.sequence ? 0 : 1);
+        }
+    }
+
+    GVRGlTaskScheduler() {
+    }
+
+    /**
+     * Sets the time that deferrable tasks may use each frame.
+     *
+     * @param nanoseconds
+     *            The budget, in nanoseconds. The default is
+     *            {@link #DEFAULT_FRAME_BUDGET}.
+     */
+    public void setFrameBudget(long nanoseconds) {
+        if (nanoseconds < 0) {
+            throw new IllegalArgumentException("Negative budget");
+        }
+        mFrameBudget = nanoseconds;
+    }
+
+    /**
+     * @return The time that deferrable tasks may use each frame, in
+     *         nanoseconds.
+     */
+    public long getFrameBudget() {
+        return mFrameBudget;
+    }
+
+    /**
+     * @return Number of deferrable tasks that are waiting to run.
+     */
+    public int getPendingTaskCount() {
+        synchronized (mDeferrableTasks) {
+            return mDeferrableTasks.size();
+        }
+    }
+
+    /**
+     * @return Time the last frame spent running tasks, in nanoseconds.
+     */
+    public synchronized long getLastFrameTaskTime() {
+        return mLastFrameTime;
+    }
+
+    /**
+     * @return Longest time a single frame spent running tasks, in
+     *         nanoseconds.
+     */
+    public synchronized long getMaxFrameTaskTime() {
+        return mMaxFrameTime;
+    }
+
+    /**
+     * @return Average time each frame spent running tasks, in nanoseconds.
+     */
+    public synchronized long getAverageFrameTaskTime() {
+        return mFrames == 0 ? 0 : mTotalTime / mFrames;
+    }
+
+    /**
+     * @return Number of frames that ended with deferrable tasks still
+     *         waiting.
+     */
+    public synchronized long getDeferredFrameCount() {
+        return mDeferredFrames;
+    }
+
+    /**
+     * @return Number of times a deferrable task was carried over to the next
+     *         frame. A task that waits three frames counts three times.
+     */
+    public synchronized long getDeferredTaskCount() {
+        return mDeferredTasks;
+    }
+
+    /**
+     * Clears the statistics.
+     */
+    public synchronized void resetStatistics() {
+        mLastFrameTime = mMaxFrameTime = mTotalTime = 0;
+        mFrames = mDeferredFrames = mDeferredTasks = 0;
+    }
+
+    void post(Runnable runnable) {
+        mTasks.add(runnable);
+    }
+
+    void post(Runnable runnable, int priority) {
+        synchronized (mDeferrableTasks) {
+            mDeferrableTasks.add(new Task(runnable, priority, mSequence++));
+        }
+    }
+
+    /*
+     * GL thread only.
+     */
+    void runFrameTasks() {
+        final long start = GVRTime.getCurrentTime();
+
+        Runnable runnable;
+        while ((runnable = mTasks.poll()) != null) {
+            runnable.run();
+        }
+
+        final long deadline = start + mFrameBudget;
+        long now = start;
+        int pending;
+        boolean first = true;
+        while (true) {
+            Task task;
+            synchronized (mDeferrableTasks) {
+                if (!first && now - deadline >= 0) {
+                    pending = mDeferrableTasks.size();
+                    break;
+                }
+                task = mDeferrableTasks.poll();
+                if (task == null) {
+                    pending = 0;
+                    break;
+                }
+            }
+            task.runnable.run();
+            first = false;
+            now = GVRTime.getCurrentTime();
+        }
+        if (first) {
+            now = GVRTime.getCurrentTime();
+        }
+
+        final long elapsed = now - start;
+        synchronized (this) {
+            mLastFrameTime = elapsed;
+            if (elapsed > mMaxFrameTime) {
+                mMaxFrameTime = elapsed;
+            }
+            mTotalTime += elapsed;
+            mFrames += 1;
+            if (pending > 0) {
+                mDeferredFrames += 1;
+                mDeferredTasks += pending;
+            }
+        }
+    }
+}
@@ -21,11 +21,12 @@ import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.gearvrf.utility.Log;
 
@@ -50,6 +51,12 @@ public abstract class GVRHybridObject implements Closeable {
      * called multiple times.
      */
     private long mNativePointer;
+    /**
+     * Our {@link GVRReference}, so that {@link #close()} does not have to
+     * search {@link #sReferenceSet}. This does not keep the object reachable:
+     * the reference only points back at it through a phantom reference.
+     */
+    private final GVRReference mReference;
 
     /*
      * Constructors
@@ -93,10 +100,9 @@ public abstract class GVRHybridObject implements Closeable {
             List<NativeCleanupHandler> cleanupHandlers) {
         mGVRContext = gvrContext;
         mNativePointer = nativePointer;
+        mReference = new GVRReference(this, nativePointer, cleanupHandlers);
 
-        synchronized (sReferenceSet) {
-            sReferenceSet.add(new GVRReference(this, nativePointer, cleanupHandlers));
-        }
+        sReferenceSet.add(mReference);
     }
 
     /*
@@ -222,8 +228,13 @@ public abstract class GVRHybridObject implements Closeable {
      * We need hard references to {@linkplain GVRReference our references} -
      * otherwise, the references get garbage collected (usually before their
      * objects) and never get enqueued.
+     * 
+     * <p>
+     * This is a concurrent set so that registration, {@link #close()} and the
+     * finalize thread don't all contend for a single monitor.
      */
-    private static final Set<GVRReference> sReferenceSet = new HashSet<GVRReference>();
+    private static final Set<GVRReference> sReferenceSet = Collections
+            .newSetFromMap(new ConcurrentHashMap<GVRReference, Boolean>());
 
     static {
         new GVRFinalizeThread();
@@ -321,7 +332,7 @@ public abstract class GVRHybridObject implements Closeable {
         }
 
         private void close(boolean removeFromSet) {
-            synchronized (sReferenceSet) {
+            synchronized (this) {
                 if (mNativePointer != 0) {
                     if (mCleanupHandlers != null) {
                         for (NativeCleanupHandler handler : mCleanupHandlers) {
@@ -329,11 +340,13 @@ public abstract class GVRHybridObject implements Closeable {
                         }
                     }
                     NativeHybridObject.delete(mNativePointer);
+                    // An explicitly closed reference may still be enqueued
+                    mNativePointer = 0;
                 }
+            }
 
-                if (removeFromSet) {
-                    sReferenceSet.remove(this);
-                }
+            if (removeFromSet) {
+                sReferenceSet.remove(this);
             }
         }
     }
@@ -376,41 +389,20 @@ public abstract class GVRHybridObject implements Closeable {
      */
     @Override
     public final void close() throws IOException {
-        synchronized (sReferenceSet) {
+        synchronized (mReference) {
             if (mNativePointer != 0L) {
-                GVRReference reference = findReference(mNativePointer);
-                if (reference != null) {
-                    reference.close();
-                    mNativePointer = 0L;
-                }
-            }
-        }
-    }
-
-    /**
-     * Explicitly close()ing an object is going to be relatively rare - most
-     * native memory will be freed when the owner-objects are garbage collected.
-     * Doing a lookup in these rare cases means that we can avoid giving every @link
-     * {@link GVRHybridObject} a hard reference to its {@link GVRReference}.
-     */
-    private static GVRReference findReference(long nativePointer) {
-        for (GVRReference reference : sReferenceSet) {
-            if (reference.mNativePointer == nativePointer) {
-                return reference;
+                mReference.close();
+                mNativePointer = 0L;
             }
         }
-        // else
-        return null;
     }
 
     static void closeAll() {
-        synchronized (sReferenceSet) {
-            final boolean doNotRemoveFromSet = false;
-            for (final GVRReference r : sReferenceSet) {
-                r.close(doNotRemoveFromSet);
-            }
-            sReferenceSet.clear();
+        final boolean doNotRemoveFromSet = false;
+        for (final GVRReference r : sReferenceSet) {
+            r.close(doNotRemoveFromSet);
         }
+        sReferenceSet.clear();
     }
 }
 
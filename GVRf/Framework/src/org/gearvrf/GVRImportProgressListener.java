@@ -0,0 +1,39 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+/**
+ * Reports the progress of a model import.
+ *
+ * Pass one to
+ * {@link GVRContext#loadFutureModel(String, java.util.EnumSet, GVRImportProgressListener)
+ * loadFutureModel()}.
+ */
+public interface GVRImportProgressListener {
+    /**
+     * Called each time the importer finishes converting a mesh or an
+     * animation.
+     *
+     * Conversions run in parallel, so this is called from background threads,
+     * possibly from several at once.
+     *
+     * @param done
+     *            Number of meshes and animations converted so far
+     * @param total
+     *            Number of meshes and animations in the model
+     */
+    void onProgress(int done, int total);
+}
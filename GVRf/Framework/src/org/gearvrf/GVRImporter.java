@@ -17,12 +17,20 @@ package org.gearvrf;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.gearvrf.GVRAndroidResource.TextureCallback;
 import org.gearvrf.GVRMaterial.GVRShaderType;
@@ -32,16 +40,20 @@ import org.gearvrf.jassimp.AiNode;
 import org.gearvrf.jassimp.AiScene;
 import org.gearvrf.jassimp.AiTextureType;
 import org.gearvrf.jassimp.GVROldWrapperProvider;
+import org.gearvrf.jassimp2.AiPostProcessSteps;
 import org.gearvrf.jassimp2.GVRJassimpAdapter;
+import org.gearvrf.jassimp2.GVRJassimpCache;
 import org.gearvrf.jassimp2.GVRJassimpSceneObject;
 import org.gearvrf.jassimp2.Jassimp;
 import org.gearvrf.scene_objects.GVRModelSceneObject;
 import org.gearvrf.utility.FileNameUtils;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
 
 import android.content.Context;
 import android.content.res.AssetManager;
 import android.os.Environment;
+import android.util.SparseArray;
 
 /**
  * {@link GVRImporter} provides methods for importing 3D models and making them
@@ -127,37 +139,85 @@ final class GVRImporter {
     static GVRModelSceneObject loadJassimpModel(final GVRContext context, String filePath,
             GVRResourceVolume.VolumeType volumeType,
             EnumSet<GVRImportSettings> settings) throws IOException {
+        return loadJassimpModel(context, filePath, volumeType, settings, null);
+    }
+
+    /**
+     * Imports a model on the {@link Threads} pool. The import itself converts
+     * meshes and animations in parallel; see
+     * {@link GVRJassimpSceneObject#GVRJassimpSceneObject(GVRContext, org.gearvrf.jassimp2.AiScene, GVRResourceVolume, GVRImportProgressListener)}.
+     */
+    static Future<GVRModelSceneObject> loadFutureJassimpModel(
+            final GVRContext context, final String filePath,
+            final GVRResourceVolume.VolumeType volumeType,
+            final EnumSet<GVRImportSettings> settings,
+            final GVRImportProgressListener listener) {
+        return Threads.spawn(new Callable<GVRModelSceneObject>() {
+            @Override
+            public GVRModelSceneObject call() throws IOException {
+                return loadJassimpModel(context, filePath, volumeType,
+                        settings, listener);
+            }
+        });
+    }
+
+    static GVRModelSceneObject loadJassimpModel(final GVRContext context, String filePath,
+            GVRResourceVolume.VolumeType volumeType,
+            EnumSet<GVRImportSettings> settings,
+            GVRImportProgressListener listener) throws IOException {
 
         Jassimp.setWrapperProvider(GVRJassimpAdapter.sWrapperProvider);
+        Set<AiPostProcessSteps> jassimpSettings = GVRJassimpAdapter.get()
+                .toJassimpSettings(settings);
+        GVRJassimpCache cache = context.getModelCache();
         org.gearvrf.jassimp2.AiScene assimpScene = null;
 
+        // filePath is a URL for NETWORK volumes
+        File tmpFile = volumeType == GVRResourceVolume.VolumeType.NETWORK
+                ? downloadFile(context.getActivity(), filePath) : null;
+        String localPath = null;
         switch (volumeType) {
-        case ANDROID_ASSETS:
-            assimpScene = Jassimp.importAssetFile(filePath,
-                    GVRJassimpAdapter.get().toJassimpSettings(settings),
-                    context.getContext().getAssets());
-            break;
-
         case ANDROID_SDCARD:
             String sdPath = Environment.getExternalStorageDirectory().getAbsolutePath();
-            assimpScene = Jassimp.importFile(sdPath + File.separator + filePath,
-                    GVRJassimpAdapter.get().toJassimpSettings(settings));
+            localPath = sdPath + File.separator + filePath;
             break;
 
         case LINUX_FILESYSTEM:
-            assimpScene = Jassimp.importFile(filePath,
-                    GVRJassimpAdapter.get().toJassimpSettings(settings));
+            localPath = filePath;
             break;
 
         case NETWORK:
-            // filePath is a URL in this case
-            File tmpFile = downloadFile(context.getActivity(), filePath);
+            localPath = tmpFile != null ? tmpFile.getAbsolutePath() : null;
+            break;
+
+        default:
+            break;
+        }
+
+        try {
+            String cacheKey = null;
+            if (cache.isEnabled() && (localPath != null
+                    || volumeType == GVRResourceVolume.VolumeType.ANDROID_ASSETS)) {
+                cacheKey = getCacheKey(context, filePath, localPath,
+                        jassimpSettings);
+                assimpScene = cache.load(cacheKey);
+            }
+
+            if (assimpScene == null) {
+                if (volumeType == GVRResourceVolume.VolumeType.ANDROID_ASSETS) {
+                    assimpScene = Jassimp.importAssetFile(filePath,
+                            jassimpSettings, context.getContext().getAssets());
+                } else if (localPath != null) {
+                    assimpScene = Jassimp.importFile(localPath, jassimpSettings);
+                }
+                if (assimpScene != null && cacheKey != null) {
+                    cache.store(cacheKey, assimpScene);
+                }
+            }
+        } finally {
             if (tmpFile != null) {
-                assimpScene = Jassimp.importFile(tmpFile.getAbsolutePath(),
-                        GVRJassimpAdapter.get().toJassimpSettings(settings));
                 tmpFile.delete();
             }
-            break;
         }
 
         if (assimpScene == null) {
@@ -166,7 +226,21 @@ final class GVRImporter {
         }
 
         return new GVRJassimpSceneObject(context, assimpScene,
-                new GVRResourceVolume(context, volumeType, FileNameUtils.getParentDirectory(filePath)));
+                new GVRResourceVolume(context, volumeType, FileNameUtils.getParentDirectory(filePath)),
+                listener);
+    }
+
+    private static String getCacheKey(GVRContext context, String filePath,
+            String localPath, Set<AiPostProcessSteps> settings)
+            throws IOException {
+        InputStream stream = localPath != null ? new FileInputStream(localPath)
+                : context.getContext().getAssets().open(filePath);
+        try {
+            return GVRJassimpCache.getKey(new BufferedInputStream(stream),
+                    settings);
+        } finally {
+            stream.close();
+        }
     }
 
     private static File downloadFile(Context context, String urlString) {
@@ -233,7 +307,7 @@ final class GVRImporter {
         // Recurse through the entire hierarchy to attache all the meshes as
         // Scene Object
         recurseAssimpNodes(context, assimpImporter, assetRelativeFilename, wholeSceneObject,
-                rootNode, sWrapperProvider);
+                rootNode, sWrapperProvider, new ImportRegistry());
 
         return wholeSceneObject;
     }
@@ -253,6 +327,8 @@ final class GVRImporter {
      *            its children and meshes.
      * @param sWrapperProvider AiWrapperProvider for unwrapping Jassimp
      *            properties.
+     * @param registry The meshes, materials and textures this import has
+     *            already created.
      */
     @SuppressWarnings("resource")
     private static void recurseAssimpNodes(
@@ -261,7 +337,8 @@ final class GVRImporter {
             String assetRelativeFilename,
             GVRSceneObject parentSceneObject,
             AiNode node,
-            GVROldWrapperProvider wrapperProvider) {
+            GVROldWrapperProvider wrapperProvider,
+            ImportRegistry registry) {
         try {
             GVRSceneObject newParentSceneObject = new GVRSceneObject(context);
 
@@ -271,13 +348,15 @@ final class GVRImporter {
             } else if (node.getNumMeshes() == 1) {
                 // add the scene object to the scene graph
                 GVRSceneObject sceneObject = createSceneObject(
-                        context, assimpImporter, assetRelativeFilename, node, 0, wrapperProvider);
+                        context, assimpImporter, assetRelativeFilename, node, 0, wrapperProvider,
+                        registry);
                 parentSceneObject.addChildObject(sceneObject);
                 parentSceneObject = sceneObject;
             } else {
                 for (int i = 0; i < node.getNumMeshes(); i++) {
                     GVRSceneObject sceneObject = createSceneObject(
-                            context, assimpImporter, assetRelativeFilename, node, i, wrapperProvider);
+                            context, assimpImporter, assetRelativeFilename, node, i, wrapperProvider,
+                            registry);
                     newParentSceneObject.addChildObject(sceneObject);
                 }
                 parentSceneObject.addChildObject(newParentSceneObject);
@@ -293,7 +372,7 @@ final class GVRImporter {
             for (int i = 0; i < node.getNumChildren(); i++) {
                 recurseAssimpNodes(context, assimpImporter, assetRelativeFilename,
                         parentSceneObject, node.getChildren().get(i),
-                        wrapperProvider);
+                        wrapperProvider, registry);
             }
         } catch (Exception e) {
             // Error while recursing the Scene Graph
@@ -306,6 +385,10 @@ final class GVRImporter {
      * index {@link index} of the node mesh array with a color or texture
      * material.
      * 
+     * Nodes that reference the same Assimp mesh share one {@link GVRMesh}, and
+     * meshes that reference the same Assimp material share one
+     * {@link GVRMaterial}.
+     * 
      * @param assetRelativeFilename A filename, relative to the {@code assets}
      *            directory. The file can be in a sub-directory of the
      *            {@code assets} directory: {@code "foo/bar.png"} will open the
@@ -315,6 +398,8 @@ final class GVRImporter {
      * @param index The index of the mesh in the array of meshes for that node.
      * @param sWrapperProvider AiWrapperProvider for unwrapping Jassimp
      *            properties.
+     * @param registry The meshes, materials and textures this import has
+     *            already created.
      * @return The new {@link GVRSceneObject} with the mesh at the index
      *         {@link index} for the node {@link node}
      * @throws IOException File does not exist or cannot be read
@@ -325,14 +410,40 @@ final class GVRImporter {
             String assetRelativeFilename,
             AiNode node,
             int index,
-            GVROldWrapperProvider wrapperProvider)
+            GVROldWrapperProvider wrapperProvider,
+            ImportRegistry registry)
                     throws IOException {
 
-        FutureWrapper<GVRMesh> futureMesh = new FutureWrapper<GVRMesh>(
-                context.getNodeMesh(assimpImporter, node.getName(), index));
+        int meshIndex = node.getMeshes()[index];
+        GVRMesh mesh = registry.meshes.get(meshIndex);
+        if (mesh == null) {
+            mesh = assimpImporter.getMesh(meshIndex);
+            registry.meshes.put(meshIndex, mesh);
+        }
+        FutureWrapper<GVRMesh> futureMesh = new FutureWrapper<GVRMesh>(mesh);
+
+        int materialIndex = assimpImporter.getMaterialIndex(meshIndex);
+        GVRMaterial meshMaterial = registry.materials.get(materialIndex);
+        if (meshMaterial == null) {
+            AiMaterial material = getMeshMaterial(assimpImporter,
+                    node.getName(), index);
+            meshMaterial = createMaterial(context, material, wrapperProvider,
+                    registry);
+            registry.materials.put(materialIndex, meshMaterial);
+        }
 
-        AiMaterial material = getMeshMaterial(assimpImporter, node.getName(), index);
+        GVRSceneObject sceneObject = new GVRSceneObject(context);
+        sceneObject.setName(node.getName());
+        GVRRenderData sceneObjectRenderData = new GVRRenderData(context);
+        sceneObjectRenderData.setMesh(futureMesh);
+        sceneObjectRenderData.setMaterial(meshMaterial);
+        sceneObject.attachRenderData(sceneObjectRenderData);
+        return sceneObject;
+    }
 
+    private static GVRMaterial createMaterial(GVRContext context,
+            AiMaterial material, GVROldWrapperProvider wrapperProvider,
+            ImportRegistry registry) {
         final GVRMaterial meshMaterial = new GVRMaterial(context,
                 GVRShaderType.Assimp.ID);
 
@@ -367,43 +478,88 @@ final class GVRImporter {
         float opacity = material.getOpacity();
         meshMaterial.setOpacity(opacity);
 
+        /* Apply feature set to the material */
+        meshMaterial.setShaderFeatureSet(assimpFeatureSet);
+
         /* Diffuse Texture */
         final String texDiffuseFileName = material.getTextureFile(
                 AiTextureType.DIFFUSE, 0);
         if (texDiffuseFileName != null && !texDiffuseFileName.isEmpty()) {
-            context.loadTexture(new TextureCallback() {
-                @Override
-                public void loaded(GVRTexture texture, GVRAndroidResource ignored) {
-                    meshMaterial.setMainTexture(texture);
-                    final int features = GVRShaderType.Assimp.setBit(
-                            meshMaterial.getShaderFeatureSet(),
-                            GVRShaderType.Assimp.AS_DIFFUSE_TEXTURE);
-                    meshMaterial.setShaderFeatureSet(features);
-                }
+            DiffuseTexture texture = registry.textures.get(texDiffuseFileName);
+            if (texture == null) {
+                texture = new DiffuseTexture(texDiffuseFileName);
+                registry.textures.put(texDiffuseFileName, texture);
+                context.loadTexture(texture,
+                        new GVRAndroidResource(context, texDiffuseFileName));
+            }
+            texture.addMaterial(meshMaterial);
+        }
 
-                @Override
-                public void failed(Throwable t, GVRAndroidResource androidResource) {
-                    Log.e(TAG, "Error loading diffuse texture %s; exception: %s",
-                            texDiffuseFileName, t.getMessage());
-                }
+        return meshMaterial;
+    }
 
-                @Override
-                public boolean stillWanted(GVRAndroidResource androidResource) {
-                    return true;
-                }
-            }, new GVRAndroidResource(context, texDiffuseFileName));
+    /**
+     * The meshes, materials and diffuse textures that one import has created,
+     * so that each is only created (or loaded) once.
+     */
+    private static final class ImportRegistry {
+        /** By index in the Assimp scene's mesh list */
+        final SparseArray<GVRMesh> meshes = new SparseArray<GVRMesh>();
+        /** By index in the Assimp scene's material list */
+        final SparseArray<GVRMaterial> materials = new SparseArray<GVRMaterial>();
+        /** By file name */
+        final Map<String, DiffuseTexture> textures = new HashMap<String, DiffuseTexture>();
+    }
+
+    /**
+     * A single load of a diffuse texture, shared by every material that uses
+     * the file.
+     */
+    private static final class DiffuseTexture implements TextureCallback {
+        private final String fileName;
+        private final List<GVRMaterial> materials = new ArrayList<GVRMaterial>();
+        private GVRTexture texture = null;
+
+        DiffuseTexture(String fileName) {
+            this.fileName = fileName;
         }
 
-        /* Apply feature set to the material */
-        meshMaterial.setShaderFeatureSet(assimpFeatureSet);
+        synchronized void addMaterial(GVRMaterial material) {
+            if (texture != null) {
+                apply(material);
+            } else {
+                materials.add(material);
+            }
+        }
 
-        GVRSceneObject sceneObject = new GVRSceneObject(context);
-        sceneObject.setName(node.getName());
-        GVRRenderData sceneObjectRenderData = new GVRRenderData(context);
-        sceneObjectRenderData.setMesh(futureMesh);
-        sceneObjectRenderData.setMaterial(meshMaterial);
-        sceneObject.attachRenderData(sceneObjectRenderData);
-        return sceneObject;
+        private void apply(GVRMaterial material) {
+            material.setMainTexture(texture);
+            final int features = GVRShaderType.Assimp.setBit(
+                    material.getShaderFeatureSet(),
+                    GVRShaderType.Assimp.AS_DIFFUSE_TEXTURE);
+            material.setShaderFeatureSet(features);
+        }
+
+        @Override
+        public synchronized void loaded(GVRTexture texture,
+                GVRAndroidResource ignored) {
+            this.texture = texture;
+            for (GVRMaterial material : materials) {
+                apply(material);
+            }
+            materials.clear();
+        }
+
+        @Override
+        public void failed(Throwable t, GVRAndroidResource androidResource) {
+            Log.e(TAG, "Error loading diffuse texture %s; exception: %s",
+                    fileName, t.getMessage());
+        }
+
+        @Override
+        public boolean stillWanted(GVRAndroidResource androidResource) {
+            return true;
+        }
     }
 
     /**
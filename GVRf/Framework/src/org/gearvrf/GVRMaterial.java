@@ -17,9 +17,11 @@ package org.gearvrf;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
 import org.gearvrf.utility.Colors;
+import org.gearvrf.utility.Exceptions;
 import org.gearvrf.utility.Threads;
 import static org.gearvrf.utility.Assert.*;
 
@@ -71,6 +73,12 @@ public class GVRMaterial extends GVRHybridObject implements
     private GVRMaterialShaderId shaderId;
     final private Map<String, GVRTexture> textures = new HashMap<String, GVRTexture>();
 
+    /*
+     * Native code identifies each key by an integer id; caching the ids here
+     * means each key string crosses JNI only once.
+     */
+    private static final Map<String, Integer> sKeyIds = new ConcurrentHashMap<String, Integer>();
+
     /** Pre-built shader ids. */
     public abstract static class GVRShaderType {
 
@@ -471,6 +479,25 @@ public class GVRMaterial extends GVRHybridObject implements
         setFloat("opacity", opacity);
     }
 
+    /*
+     * The native getters return null for a missing value.
+     */
+    private static float[] found(String key, float[] value) {
+        if (value == null) {
+            throw Exceptions.IllegalArgument("Material has no %s of that type", key);
+        }
+        return value;
+    }
+
+    private static int keyId(String key) {
+        Integer id = sKeyIds.get(key);
+        if (id == null) {
+            id = NativeMaterial.keyId(key);
+            sKeyIds.put(key, id);
+        }
+        return id;
+    }
+
     public GVRTexture getTexture(String key) {
         return textures.get(key);
     }
@@ -479,7 +506,7 @@ public class GVRMaterial extends GVRHybridObject implements
         checkStringNotNullOrEmpty("key", key);
         checkNotNull("texture", texture);
         textures.put(key, texture);
-        NativeMaterial.setTexture(getNative(), key, texture.getNative());
+        NativeMaterial.setTexture(getNative(), keyId(key), texture.getNative());
     }
 
     public void setTexture(final String key, final Future<GVRTexture> texture) {
@@ -496,41 +523,57 @@ public class GVRMaterial extends GVRHybridObject implements
         });
     }
 
+    /**
+     * @throws IllegalArgumentException
+     *             If the material has no {@code float} named {@code key}
+     */
     public float getFloat(String key) {
-        return NativeMaterial.getFloat(getNative(), key);
+        return found(key, NativeMaterial.getFloat(getNative(), keyId(key)))[0];
     }
 
     public void setFloat(String key, float value) {
         checkStringNotNullOrEmpty("key", key);
         checkFloatNotNaNOrInfinity("value", value);
-        NativeMaterial.setFloat(getNative(), key, value);
+        NativeMaterial.setFloat(getNative(), keyId(key), value);
     }
 
+    /**
+     * @throws IllegalArgumentException
+     *             If the material has no {@code vec2} named {@code key}
+     */
     public float[] getVec2(String key) {
-        return NativeMaterial.getVec2(getNative(), key);
+        return found(key, NativeMaterial.getVec2(getNative(), keyId(key)));
     }
 
     public void setVec2(String key, float x, float y) {
         checkStringNotNullOrEmpty("key", key);
-        NativeMaterial.setVec2(getNative(), key, x, y);
+        NativeMaterial.setVec2(getNative(), keyId(key), x, y);
     }
 
+    /**
+     * @throws IllegalArgumentException
+     *             If the material has no {@code vec3} named {@code key}
+     */
     public float[] getVec3(String key) {
-        return NativeMaterial.getVec3(getNative(), key);
+        return found(key, NativeMaterial.getVec3(getNative(), keyId(key)));
     }
 
     public void setVec3(String key, float x, float y, float z) {
         checkStringNotNullOrEmpty("key", key);
-        NativeMaterial.setVec3(getNative(), key, x, y, z);
+        NativeMaterial.setVec3(getNative(), keyId(key), x, y, z);
     }
 
+    /**
+     * @throws IllegalArgumentException
+     *             If the material has no {@code vec4} named {@code key}
+     */
     public float[] getVec4(String key) {
-        return NativeMaterial.getVec4(getNative(), key);
+        return found(key, NativeMaterial.getVec4(getNative(), keyId(key)));
     }
 
     public void setVec4(String key, float x, float y, float z, float w) {
         checkStringNotNullOrEmpty("key", key);
-        NativeMaterial.setVec4(getNative(), key, x, y, z, w);
+        NativeMaterial.setVec4(getNative(), keyId(key), x, y, z, w);
     }
 
     /**
@@ -543,7 +586,7 @@ public class GVRMaterial extends GVRHybridObject implements
             float x2, float y2, float z2, float w2, float x3, float y3,
             float z3, float w3, float x4, float y4, float z4, float w4) {
         checkStringNotNullOrEmpty("key", key);
-        NativeMaterial.setMat4(getNative(), key, x1, y1, z1, w1, x2, y2, z2,
+        NativeMaterial.setMat4(getNative(), keyId(key), x1, y1, z1, w1, x2, y2, z2,
                 w2, x3, y3, z3, w3, x4, y4, z4, w4);
     }
     
@@ -579,27 +622,29 @@ class NativeMaterial {
 
     static native void setShaderType(long material, long shaderType);
 
-    static native void setTexture(long material, String key, long texture);
+    static native int keyId(String key);
+
+    static native void setTexture(long material, int keyId, long texture);
 
-    static native float getFloat(long material, String key);
+    static native float[] getFloat(long material, int keyId);
 
-    static native void setFloat(long material, String key, float value);
+    static native void setFloat(long material, int keyId, float value);
 
-    static native float[] getVec2(long material, String key);
+    static native float[] getVec2(long material, int keyId);
 
-    static native void setVec2(long material, String key, float x, float y);
+    static native void setVec2(long material, int keyId, float x, float y);
 
-    static native float[] getVec3(long material, String key);
+    static native float[] getVec3(long material, int keyId);
 
-    static native void setVec3(long material, String key, float x, float y,
+    static native void setVec3(long material, int keyId, float x, float y,
             float z);
 
-    static native float[] getVec4(long material, String key);
+    static native float[] getVec4(long material, int keyId);
 
-    static native void setVec4(long material, String key, float x, float y,
+    static native void setVec4(long material, int keyId, float x, float y,
             float z, float w);
 
-    static native void setMat4(long material, String key, float x1, float y1,
+    static native void setMat4(long material, int keyId, float x1, float y1,
             float z1, float w1, float x2, float y2, float z2, float w2,
             float x3, float y3, float z3, float w3, float x4, float y4,
             float z4, float w4);
@@ -17,6 +17,11 @@ package org.gearvrf;
 
 import static org.gearvrf.utility.Assert.*;
 
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -69,6 +74,27 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
         NativeMesh.setVertices(getNative(), vertices);
     }
 
+    /**
+     * Sets the 3D vertices of the mesh, from the buffer's position to its
+     * limit. The layout is the same as {@link #setVertices(float[])}.
+     * 
+     * A direct buffer in {@linkplain ByteOrder#nativeOrder() native byte
+     * order} is read natively, without copying it to a Java array first.
+     * 
+     * @param vertices
+     *            Buffer containing the packed vertex data.
+     */
+    public void setVertices(FloatBuffer vertices) {
+        checkValidFloatBuffer("vertices", vertices, 3);
+        if (vertices.isDirect()
+                && vertices.order() == ByteOrder.nativeOrder()) {
+            NativeMesh.setVerticesBuffer(getNative(), vertices,
+                    vertices.position(), vertices.remaining());
+        } else {
+            setVertices(toArray(vertices));
+        }
+    }
+
     /**
      * Get the normal vectors of the mesh. Each normal vector is represented as
      * a packed {@code float} triplet:
@@ -95,6 +121,27 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
         NativeMesh.setNormals(getNative(), normals);
     }
 
+    /**
+     * Sets the normal vectors of the mesh, from the buffer's position to its
+     * limit. The layout is the same as {@link #setNormals(float[])}.
+     * 
+     * A direct buffer in {@linkplain ByteOrder#nativeOrder() native byte
+     * order} is read natively, without copying it to a Java array first.
+     * 
+     * @param normals
+     *            Buffer containing the packed normal data.
+     */
+    public void setNormals(FloatBuffer normals) {
+        checkValidFloatBuffer("normals", normals, 3);
+        if (normals.isDirect()
+                && normals.order() == ByteOrder.nativeOrder()) {
+            NativeMesh.setNormalsBuffer(getNative(), normals,
+                    normals.position(), normals.remaining());
+        } else {
+            setNormals(toArray(normals));
+        }
+    }
+
     /**
      * Get the u,v texture coordinates for the mesh. Each texture coordinate is
      * represented as a packed {@code float} pair:
@@ -121,6 +168,27 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
         NativeMesh.setTexCoords(getNative(), texCoords);
     }
 
+    /**
+     * Sets the texture coordinates of the mesh, from the buffer's position to
+     * its limit. The layout is the same as {@link #setTexCoords(float[])}.
+     * 
+     * A direct buffer in {@linkplain ByteOrder#nativeOrder() native byte
+     * order} is read natively, without copying it to a Java array first.
+     * 
+     * @param texCoords
+     *            Buffer containing the packed texture coordinate data.
+     */
+    public void setTexCoords(FloatBuffer texCoords) {
+        checkValidFloatBuffer("texCoords", texCoords, 2);
+        if (texCoords.isDirect()
+                && texCoords.order() == ByteOrder.nativeOrder()) {
+            NativeMesh.setTexCoordsBuffer(getNative(), texCoords,
+                    texCoords.position(), texCoords.remaining());
+        } else {
+            setTexCoords(toArray(texCoords));
+        }
+    }
+
     /**
      * Get the triangle vertex indices of the mesh. The indices for each
      * triangle are represented as a packed {@code char} triplet, where
@@ -160,12 +228,23 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
      * Get the vertex indices of the mesh. The indices for each
      * vertex to be referenced.
      * 
-     * @return Array with the packed index data.
+     * @return Array with the packed index data. Empty if the mesh uses 32-bit
+     *         indices: use {@link #getIntIndices()} for those.
      */
     public char[] getIndices() {
         return NativeMesh.getIndices(getNative());
     }
 
+    /**
+     * Get the vertex indices of the mesh, as 32-bit values. This works
+     * whether the mesh uses 16-bit or 32-bit indices.
+     * 
+     * @return Array with the packed index data.
+     */
+    public int[] getIntIndices() {
+        return NativeMesh.getIntIndices(getNative());
+    }
+
     /**
      * Sets the vertex indices of the mesh. The indices for each
      * vertex.
@@ -177,6 +256,65 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
         NativeMesh.setIndices(getNative(), indices);
     }
 
+    /**
+     * Sets 32-bit vertex indices, for meshes with more than 65,535 vertices.
+     * 
+     * If every index fits in 16 bits, the mesh stores 16-bit indices anyway:
+     * they take half the memory.
+     * 
+     * @param indices
+     *            Array containing the packed index data.
+     */
+    public void setIndices(int[] indices) {
+        checkNotNull("indices", indices);
+        NativeMesh.setIntIndices(getNative(), indices);
+    }
+
+    /**
+     * Sets 16-bit vertex indices, from the buffer's position to its limit.
+     * 
+     * A direct buffer in {@linkplain ByteOrder#nativeOrder() native byte
+     * order} is read natively, without copying it to a Java array first.
+     * 
+     * @param indices
+     *            Buffer containing the packed index data.
+     */
+    public void setIndices(CharBuffer indices) {
+        checkNotNull("indices", indices);
+        if (indices.isDirect()
+                && indices.order() == ByteOrder.nativeOrder()) {
+            NativeMesh.setIndicesBuffer(getNative(), indices,
+                    indices.position(), indices.remaining(), false);
+        } else {
+            char[] array = new char[indices.remaining()];
+            indices.duplicate().get(array);
+            setIndices(array);
+        }
+    }
+
+    /**
+     * Sets 32-bit vertex indices, from the buffer's position to its limit.
+     * See {@link #setIndices(int[])}.
+     * 
+     * A direct buffer in {@linkplain ByteOrder#nativeOrder() native byte
+     * order} is read natively, without copying it to a Java array first.
+     * 
+     * @param indices
+     *            Buffer containing the packed index data.
+     */
+    public void setIndices(IntBuffer indices) {
+        checkNotNull("indices", indices);
+        if (indices.isDirect()
+                && indices.order() == ByteOrder.nativeOrder()) {
+            NativeMesh.setIndicesBuffer(getNative(), indices,
+                    indices.position(), indices.remaining(), true);
+        } else {
+            int[] array = new int[indices.remaining()];
+            indices.duplicate().get(array);
+            setIndices(array);
+        }
+    }
+
     /**
      * Get the array of {@code float} scalars bound to the shader attribute
      * {@code key}.
@@ -315,6 +453,12 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
     /**
      * Sets bones of this mesh.
      *
+     * The {@linkplain GVRBone#getBoneWeights() weights of the bones} are
+     * packed, and handed to the {@linkplain #getVertexBoneData() vertex bone
+     * data} in one call. Bones may also come without weight objects: in that
+     * case, call {@link GVRVertexBoneData#setBoneWeights(int[], float[])}
+     * next.
+     *
      * @param bones a list of bones
      */
     public void setBones(List<GVRBone> bones) {
@@ -323,24 +467,42 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
 
         NativeMesh.setBones(getNative(), GVRHybridObject.getNativePtrArray(mBones));
 
+        GVRVertexBoneData vertexBoneData = getVertexBoneData();
+        if (vertexBoneData == null) {
+            return;
+        }
+        final int vertexCount = vertexBoneData.getVertexCount();
+        int[] boneIds = null;
+        float[] boneWeights = null;
+        int[] boneCounts = null;
+
         // Process bones
         int boneId = -1;
         for (GVRBone bone : mBones) {
             boneId++;
 
-            List<GVRBoneWeight> boneWeights = bone.getBoneWeights();
-            for (GVRBoneWeight weight : boneWeights) {
+            List<GVRBoneWeight> weights = bone.getBoneWeights();
+            if (weights.isEmpty()) {
+                continue;
+            }
+            if (boneIds == null) {
+                boneIds = new int[vertexCount * GVRVertexBoneData.BONES_PER_VERTEX];
+                boneWeights = new float[boneIds.length];
+                boneCounts = new int[vertexCount];
+            }
+            for (GVRBoneWeight weight : weights) {
                 int vid = weight.getVertexId();
-                int boneSlot = getVertexBoneData().getFreeBoneSlot(vid);
-                if (boneSlot >= 0) {
-                    getVertexBoneData().setVertexBoneWeight(vid, boneSlot, boneId, weight.getWeight());
-                } else {
-                    Log.w(TAG, "Vertex %d (total %d) has too many bones", vid, getVertices().length / 3);
+                if (vid < 0 || vid >= vertexCount) {
+                    Log.w(TAG, "Bad vertex id %d (total %d)", vid, vertexCount);
+                } else if (GVRVertexBoneData.addBoneWeight(boneIds,
+                        boneWeights, boneCounts, vid, boneId,
+                        weight.getWeight()) < 0) {
+                    Log.w(TAG, "Vertex %d (total %d) has too many bones", vid, vertexCount);
                 }
             }
         }
-        if (getVertexBoneData() != null) {
-            getVertexBoneData().normalizeWeights();
+        if (boneIds != null) {
+            vertexBoneData.setBoneWeights(boneIds, boneWeights);
         }
     }
 
@@ -357,7 +519,7 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
     public void prettyPrint(StringBuffer sb, int indent) {
         sb.append(getVertices() == null ? 0 : Integer.toString(getVertices().length / 3));
         sb.append(" vertices, ");
-        sb.append(getIndices() == null ? 0 : Integer.toString(getIndices().length / 3));
+        sb.append(getIntIndices() == null ? 0 : Integer.toString(getIntIndices().length / 3));
         sb.append(" triangles, ");
         sb.append(getTexCoords() == null ? 0 : Integer.toString(getTexCoords().length / 2));
         sb.append(" tex-coords, ");
@@ -400,6 +562,19 @@ public class GVRMesh extends GVRHybridObject implements PrettyPrint {
         checkDivisibleDataLength(parameterName, data, expectedComponents);
     }
 
+    private void checkValidFloatBuffer(String parameterName, FloatBuffer data,
+            int expectedComponents) {
+        checkNotNull(parameterName, data);
+        checkDivisibleDataLength(parameterName, data.remaining(),
+                expectedComponents);
+    }
+
+    private static float[] toArray(FloatBuffer buffer) {
+        float[] array = new float[buffer.remaining()];
+        buffer.duplicate().get(array);
+        return array;
+    }
+
     private void checkVectorLengthWithVertices(String parameterName,
             int dataLength, int expectedComponents) {
         int verticesNumber = getVertices().length / 3;
@@ -440,6 +615,22 @@ class NativeMesh {
 
     static native void setIndices(long mesh, char[] indices);
 
+    static native int[] getIntIndices(long mesh);
+
+    static native void setIntIndices(long mesh, int[] indices);
+
+    static native void setVerticesBuffer(long mesh, FloatBuffer vertices,
+            int offset, int count);
+
+    static native void setNormalsBuffer(long mesh, FloatBuffer normals,
+            int offset, int count);
+
+    static native void setTexCoordsBuffer(long mesh, FloatBuffer texCoords,
+            int offset, int count);
+
+    static native void setIndicesBuffer(long mesh, Buffer indices, int offset,
+            int count, boolean intIndices);
+
     static native float[] getFloatVector(long mesh, String key);
 
     static native void setFloatVector(long mesh, String key, float[] floatVector);
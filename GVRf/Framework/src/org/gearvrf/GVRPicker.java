@@ -229,6 +229,41 @@ public class GVRPicker {
                 sceneObject.getNative(), ox, oy, oz, dx, dy, dz);
     }
 
+    /**
+     * Tests a pre-order list of {@link GVRSceneObject}s against a ray, in one
+     * native call.
+     *
+     * An object whose hierarchical bounding volume the ray misses is skipped
+     * along with its whole subtree; otherwise it is tested like
+     * {@link #pickSceneObjectAgainstBoundingBox(GVRSceneObject, float, float, float, float, float, float)}.
+     *
+     * @param sceneObjects
+     *            Native pointers of the objects, in pre-order.
+     *
+     * @param subtreeEnds
+     *            For each object, the index just past its last descendant.
+     *
+     * @param count
+     *            Number of objects in the list.
+     *
+     * @param hitIndices
+     *            Receives the index of each object that was hit, in list
+     *            order. Must hold {@code count} entries.
+     *
+     * @param hitPoints
+     *            Receives the hit point of each object that was hit, three
+     *            floats per hit. Must hold {@code 3 * count} entries.
+     *
+     * @return The number of objects that were hit.
+     */
+    static int pickSceneObjectsAgainstBoundingBoxes(long[] sceneObjects,
+            int[] subtreeEnds, int count, float ox, float oy, float oz,
+            float dx, float dy, float dz, int[] hitIndices, float[] hitPoints) {
+        return NativePicker.pickSceneObjectsAgainstBoundingBoxes(sceneObjects,
+                subtreeEnds, count, ox, oy, oz, dx, dy, dz, hitIndices,
+                hitPoints);
+    }
+
     /**
      * Casts a ray into the scene graph, and returns the objects it intersects.
      * 
@@ -392,4 +427,9 @@ final class NativePicker {
 
     static native float[] pickSceneObjectAgainstBoundingBox(long sceneObject,
             float ox, float oy, float oz, float dx, float dy, float dz);
+
+    static native int pickSceneObjectsAgainstBoundingBoxes(
+            long[] sceneObjects, int[] subtreeEnds, int count, float ox,
+            float oy, float oz, float dx, float dy, float dz,
+            int[] hitIndices, float[] hitPoints);
 }
@@ -150,6 +150,7 @@ public class GVRRenderData extends GVRComponent implements PrettyPrint {
             mFutureMesh = null;
         }
         NativeRenderData.setMesh(getNative(), mesh.getNative());
+        SensorManager.invalidate();
     }
 
     /**
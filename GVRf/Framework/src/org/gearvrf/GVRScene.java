@@ -31,6 +31,8 @@ public class GVRScene extends GVRHybridObject {
     private final List<GVRSceneObject> mSceneObjects = new ArrayList<GVRSceneObject>();
     private GVRCameraRig mMainCameraRig;
     private StringBuilder mStatMessage = new StringBuilder();
+    private volatile boolean mStereoCulling = false;
+    private SceneNameIndex mNameIndex = null;
 
     /**
      * Constructs a scene with a camera rig holding left & right cameras in it.
@@ -75,6 +77,10 @@ public class GVRScene extends GVRHybridObject {
     public void addSceneObject(GVRSceneObject sceneObject) {
         mSceneObjects.add(sceneObject);
         NativeScene.addSceneObject(getNative(), sceneObject.getNative());
+        if (mNameIndex != null) {
+            sceneObject.setNameIndex(mNameIndex);
+        }
+        SensorManager.invalidate();
     }
 
     /**
@@ -86,6 +92,10 @@ public class GVRScene extends GVRHybridObject {
     public void removeSceneObject(GVRSceneObject sceneObject) {
         mSceneObjects.remove(sceneObject);
         NativeScene.removeSceneObject(getNative(), sceneObject.getNative());
+        if (mNameIndex != null && sceneObject.getNameIndex() == mNameIndex) {
+            sceneObject.setNameIndex(null);
+        }
+        SensorManager.invalidate();
     }
 
     /**
@@ -156,6 +166,15 @@ public class GVRScene extends GVRHybridObject {
             return null;
         }
 
+        final SceneNameIndex index = mNameIndex;
+        if (index != null) {
+            final GVRSceneObject[] indexed = index.get(name);
+            if (indexed.length <= 1) {
+                return indexed.length != 0 ? indexed : null;
+            }
+            // Several matches: search, to return them in order
+        }
+
         final List<GVRSceneObject> matches = new ArrayList<GVRSceneObject>();
         GVRScene.getSceneObjectsByName(matches, mSceneObjects, name);
 
@@ -186,9 +205,51 @@ public class GVRScene extends GVRHybridObject {
             return null;
         }
 
+        final SceneNameIndex index = mNameIndex;
+        if (index != null) {
+            final GVRSceneObject[] indexed = index.get(name);
+            if (indexed.length <= 1) {
+                return indexed.length != 0 ? indexed[0] : null;
+            }
+        }
+
         return GVRScene.getSceneObjectByName(mSceneObjects, name);
     }
 
+    /**
+     * Enables or disables the scene's name index.
+     * 
+     * With the index enabled, {@link #getSceneObjectByName(String)},
+     * {@link #getSceneObjectsByName(String)} and the same methods of the
+     * scene's {@linkplain GVRSceneObject objects} look names up in a hash
+     * table instead of searching the scene graph. A name that several objects
+     * share still needs a search, to return the objects in scene graph order.
+     * 
+     * The index is kept up to date as objects are renamed, added and removed,
+     * which makes those operations a little slower. It is off by default.
+     * 
+     * @param enabled
+     *            {@code true} to build and maintain the index, {@code false}
+     *            to drop it.
+     */
+    public void setNameIndexEnabled(boolean enabled) {
+        if (enabled == (mNameIndex != null)) {
+            return;
+        }
+        mNameIndex = enabled ? new SceneNameIndex() : null;
+        for (GVRSceneObject sceneObject : mSceneObjects) {
+            sceneObject.setNameIndex(mNameIndex);
+        }
+    }
+
+    /**
+     * @return Whether the scene's {@linkplain #setNameIndexEnabled(boolean)
+     *         name index} is enabled.
+     */
+    public boolean isNameIndexEnabled() {
+        return mNameIndex != null;
+    }
+
     static GVRSceneObject getSceneObjectByName(final List<GVRSceneObject> children, final String name) {
         synchronized (children) {
             for (final GVRSceneObject child : children) {
@@ -211,6 +272,51 @@ public class GVRScene extends GVRHybridObject {
         NativeScene.setFrustumCulling(getNative(), flag);
     }
 
+    /**
+     * Sets whether the {@link GVRScene} is culled against both eyes.
+     * 
+     * By default, the scene is culled once per frame against the center
+     * camera's frustum, and the result is used for both eyes. An object at
+     * the edge of the view can then be missing from one eye. With stereo
+     * culling, the scene is still culled once per frame, but against a
+     * frustum that contains both eyes' frusta, so nothing either eye can see
+     * is culled.
+     * 
+     * @param flag
+     *            {@code true} to cull against both eyes.
+     */
+    public void setStereoCulling(boolean flag) {
+        mStereoCulling = flag;
+    }
+
+    /**
+     * @return Whether the {@link GVRScene} is culled against both eyes.
+     * @see #setStereoCulling(boolean)
+     */
+    public boolean getStereoCulling() {
+        return mStereoCulling;
+    }
+
+    /**
+     * Sets the number of threads that do frustum culling for the
+     * {@link GVRScene}.
+     * 
+     * With more than one thread, the scene's subtrees are culled in
+     * parallel, and the results are merged in tree order, so the render list
+     * is the same as with one thread. This only pays off for big scenes:
+     * thousands of scene objects, under more than a handful of subtrees.
+     * 
+     * @param threads
+     *            Number of threads, including the GL thread. The default is
+     *            1: no worker threads.
+     */
+    public void setFrustumCullingThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        NativeScene.setFrustumCullingThreads(getNative(), threads);
+    }
+
     /**
      * Sets the occlusion query for the {@link GVRScene}.
      */
@@ -274,9 +380,22 @@ public class GVRScene extends GVRHybridObject {
         if (mStatsEnabled) {
             int numberDrawCalls = NativeScene.getNumberDrawCalls(getNative());
             int numberTriangles = NativeScene.getNumberTriangles(getNative());
+            int numberVisibleObjects = NativeScene
+                    .getNumberVisibleObjects(getNative());
+            int numberRenderListSorts = NativeScene
+                    .getNumberRenderListSorts(getNative());
+            int numberProgramBinds = NativeScene
+                    .getNumberProgramBinds(getNative());
+            int numberTextureBinds = NativeScene
+                    .getNumberTextureBinds(getNative());
 
             mStatsConsole.writeLine("Draw Calls: %d", numberDrawCalls);
             mStatsConsole.writeLine("Triangles: %d", numberTriangles);
+            mStatsConsole.writeLine("Visible Objects: %d", numberVisibleObjects);
+            mStatsConsole.writeLine("Render List Sorts: %d",
+                    numberRenderListSorts);
+            mStatsConsole.writeLine("Program Binds: %d", numberProgramBinds);
+            mStatsConsole.writeLine("Texture Binds: %d", numberTextureBinds);
 
             if (mStatMessage.length() > 0)
                 mStatsConsole.writeLine("%s", mStatMessage.toString());
@@ -316,6 +435,8 @@ class NativeScene {
 
     public static native void setOcclusionQuery(long scene, boolean flag);
 
+    public static native void setFrustumCullingThreads(long scene, int threads);
+
     static native void setMainCameraRig(long scene, long cameraRig);
 
     public static native void resetStats(long scene);
@@ -323,4 +444,12 @@ class NativeScene {
     public static native int getNumberDrawCalls(long scene);
 
     public static native int getNumberTriangles(long scene);
+
+    public static native int getNumberVisibleObjects(long scene);
+
+    public static native int getNumberRenderListSorts(long scene);
+
+    public static native int getNumberProgramBinds(long scene);
+
+    public static native int getNumberTextureBinds(long scene);
 }
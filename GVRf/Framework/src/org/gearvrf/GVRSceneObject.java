@@ -16,10 +16,15 @@
 package org.gearvrf;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.Future;
 
@@ -53,6 +58,32 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
     private Object mTag;
     private final List<GVRSceneObject> mChildren = new ArrayList<GVRSceneObject>();
 
+    /*
+     * Immutable snapshots of mChildren, created on demand and dropped on every
+     * change; guarded by mChildren. Iterating a snapshot needs no lock and no
+     * copy.
+     */
+    private GVRSceneObject[] mChildrenSnapshot = NO_CHILDREN;
+    private List<GVRSceneObject> mChildrenView = null;
+
+    // The name index of the scene this object is in, if it has one
+    private SceneNameIndex mNameIndex = null;
+
+    private static final GVRSceneObject[] NO_CHILDREN = new GVRSceneObject[0];
+
+    /**
+     * Visits scene objects, for {@link GVRSceneObject#visitDepthFirst(SceneVisitor)}.
+     */
+    public interface SceneVisitor {
+        /**
+         * @param sceneObject
+         *            The object being visited
+         * @return {@code true} to visit its children, {@code false} to skip
+         *         them
+         */
+        boolean visit(GVRSceneObject sceneObject);
+    }
+
     /**
      * Constructs an empty scene object with a default {@link GVRTransform
      * transform}.
@@ -268,6 +299,10 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
      */
     public void setName(String name) {
         NativeSceneObject.setName(getNative(), name);
+        final SceneNameIndex index = mNameIndex;
+        if (index != null) {
+            index.add(this, getName());
+        }
     }
 
     /**
@@ -344,6 +379,7 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
         mRenderData = renderData;
         renderData.setOwnerObject(this);
         NativeSceneObject.attachRenderData(getNative(), renderData.getNative());
+        SensorManager.invalidate();
     }
 
     /**
@@ -357,6 +393,7 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
         }
         mRenderData = null;
         NativeSceneObject.detachRenderData(getNative());
+        SensorManager.invalidate();
     }
 
     /**
@@ -583,9 +620,172 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
     public void addChildObject(GVRSceneObject child) {
         synchronized (mChildren) {
             mChildren.add(child);
+            childrenChanged();
         }
         child.mParent = this;
         NativeSceneObject.addChildObject(getNative(), child.getNative());
+        child.setNameIndex(mNameIndex);
+        SensorManager.invalidate();
+    }
+
+    /**
+     * Add several objects as children of this object.
+     * 
+     * Same as calling {@link #addChildObject(GVRSceneObject)} for each one,
+     * but with a single native call.
+     * 
+     * @param children
+     *            {@link GVRSceneObject Objects} to add as children of this
+     *            object.
+     */
+    public void addChildObjects(Collection<? extends GVRSceneObject> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        synchronized (mChildren) {
+            mChildren.addAll(children);
+            childrenChanged();
+        }
+        NativeSceneObject.addChildObjects(getNative(), adopt(children));
+        for (GVRSceneObject child : children) {
+            child.setNameIndex(mNameIndex);
+        }
+        SensorManager.invalidate();
+    }
+
+    /**
+     * Remove several children of this object.
+     * 
+     * Same as calling {@link #removeChildObject(GVRSceneObject)} for each one,
+     * but with a single native call.
+     * 
+     * @param children
+     *            {@link GVRSceneObject Objects} to remove as children of this
+     *            object.
+     */
+    public void removeChildObjects(Collection<? extends GVRSceneObject> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        synchronized (mChildren) {
+            mChildren.removeAll(new HashSet<GVRSceneObject>(children));
+            childrenChanged();
+        }
+        final long[] natives = new long[children.size()];
+        final List<GVRSceneObject> removed = new ArrayList<GVRSceneObject>(
+                children.size());
+        int index = 0;
+        for (GVRSceneObject child : children) {
+            if (child.mParent == this) {
+                child.mParent = null;
+                removed.add(child);
+            }
+            natives[index++] = child.getNative();
+        }
+        NativeSceneObject.removeChildObjects(getNative(), natives);
+        // Objects that weren't children of this one are still in the graph
+        for (GVRSceneObject child : removed) {
+            child.setNameIndex(null);
+        }
+        SensorManager.invalidate();
+    }
+
+    /**
+     * Move several objects to this object: each one is removed from its
+     * current parent (if it has one) and added as a child of this object.
+     * 
+     * All the hierarchy changes are made with a single native call.
+     * 
+     * @param children
+     *            {@link GVRSceneObject Objects} to move to this object.
+     */
+    public void reparentChildObjects(Collection<? extends GVRSceneObject> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        final Map<GVRSceneObject, Set<GVRSceneObject>> oldParents = new HashMap<GVRSceneObject, Set<GVRSceneObject>>();
+        for (GVRSceneObject child : children) {
+            if (child.mParent != null) {
+                Set<GVRSceneObject> siblings = oldParents.get(child.mParent);
+                if (siblings == null) {
+                    siblings = new HashSet<GVRSceneObject>();
+                    oldParents.put(child.mParent, siblings);
+                }
+                siblings.add(child);
+            }
+        }
+        for (Map.Entry<GVRSceneObject, Set<GVRSceneObject>> entry : oldParents
+                .entrySet()) {
+            final GVRSceneObject oldParent = entry.getKey();
+            synchronized (oldParent.mChildren) {
+                oldParent.mChildren.removeAll(entry.getValue());
+                oldParent.childrenChanged();
+            }
+        }
+
+        synchronized (mChildren) {
+            mChildren.addAll(children);
+            childrenChanged();
+        }
+        NativeSceneObject.reparentChildObjects(getNative(), adopt(children));
+        for (GVRSceneObject child : children) {
+            child.setNameIndex(mNameIndex);
+        }
+        SensorManager.invalidate();
+    }
+
+    /*
+     * Sets the children's parent to this object, and returns their native
+     * pointers.
+     */
+    private long[] adopt(Collection<? extends GVRSceneObject> children) {
+        final long[] natives = new long[children.size()];
+        int index = 0;
+        for (GVRSceneObject child : children) {
+            child.mParent = this;
+            natives[index++] = child.getNative();
+        }
+        return natives;
+    }
+
+    /*
+     * Moves this object and its descendants to another scene's name index, or
+     * (with null) out of any index. Objects under an object that is already
+     * in the index are in it too, so they are skipped.
+     */
+    void setNameIndex(final SceneNameIndex index) {
+        if (mNameIndex == index) {
+            return;
+        }
+        visitDepthFirst(new SceneVisitor() {
+            @Override
+            public boolean visit(GVRSceneObject sceneObject) {
+                final SceneNameIndex old = sceneObject.mNameIndex;
+                if (old == index) {
+                    return false;
+                }
+                if (old != null) {
+                    old.remove(sceneObject);
+                }
+                sceneObject.mNameIndex = index;
+                if (index != null) {
+                    index.add(sceneObject, sceneObject.getName());
+                }
+                return true;
+            }
+        });
+    }
+
+    SceneNameIndex getNameIndex() {
+        return mNameIndex;
+    }
+
+    /*
+     * Call with mChildren locked, after every change.
+     */
+    private void childrenChanged() {
+        mChildrenSnapshot = null;
+        mChildrenView = null;
     }
 
     /**
@@ -598,9 +798,16 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
     public void removeChildObject(GVRSceneObject child) {
         synchronized (mChildren) {
             mChildren.remove(child);
+            childrenChanged();
         }
+        // The native side ignores an object that isn't a child of this one
+        final boolean wasChild = child.mParent == this;
         child.mParent = null;
         NativeSceneObject.removeChildObject(getNative(), child.getNative());
+        if (wasChild) {
+            child.setNameIndex(null);
+        }
+        SensorManager.invalidate();
     }
 
     /**
@@ -614,6 +821,14 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
             return null;
         }
 
+        final SceneNameIndex index = mNameIndex;
+        if (index != null) {
+            final GVRSceneObject[] indexed = indexedMatches(index, name);
+            if (indexed != null) {
+                return indexed.length != 0 ? indexed : null;
+            }
+        }
+
         final List<GVRSceneObject> matches = new ArrayList<GVRSceneObject>();
         if (name.equals(getName())) {
             matches.add(this);
@@ -635,6 +850,14 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
             return null;
         }
 
+        final SceneNameIndex index = mNameIndex;
+        if (index != null) {
+            final GVRSceneObject[] indexed = indexedMatches(index, name);
+            if (indexed != null) {
+                return indexed.length != 0 ? indexed[0] : null;
+            }
+        }
+
         GVRSceneObject scene = GVRScene.getSceneObjectByName(mChildren, name);
         if (null == scene && name.equals(getName())) {
             scene = this;
@@ -642,6 +865,33 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
         return scene;
     }
 
+    /*
+     * Looks name up in the scene's index, and keeps the objects in this
+     * subtree. Returns null when there are several, so the caller searches
+     * the subtree to get them in order.
+     */
+    private GVRSceneObject[] indexedMatches(SceneNameIndex index, String name) {
+        GVRSceneObject match = null;
+        for (GVRSceneObject candidate : index.get(name)) {
+            if (candidate.isInSubtreeOf(this)) {
+                if (match != null) {
+                    return null;
+                }
+                match = candidate;
+            }
+        }
+        return match != null ? new GVRSceneObject[] { match } : NO_CHILDREN;
+    }
+
+    private boolean isInSubtreeOf(GVRSceneObject ancestor) {
+        for (GVRSceneObject object = this; object != null; object = object.mParent) {
+            if (object == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Check if {@code otherObject} is colliding with this object.
      * 
@@ -774,15 +1024,34 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
      *         This {@code Iterable} gives you an {@link Iterator} that does not
      *         support {@link Iterator#remove()}.
      *         <p>
-     *         At some point, this might actually return a
-     *         {@code List<GVRSceneObject>}, but that would require either
-     *         creating an immutable copy or writing a lot of code to support
-     *         methods like {@link List#addAll(java.util.Collection)} and
-     *         {@link List#clear()} - for now, we just create a very
-     *         light-weight class that only supports iteration.
+     *         It iterates over a snapshot of the children, taken when you
+     *         call {@code children()}: adding or removing children during the
+     *         loop is safe, and does not affect it. Taking the snapshot only
+     *         copies the children after they have changed.
      */
     public Iterable<GVRSceneObject> children() {
-        return new Children(this);
+        return new Children(childrenSnapshot());
+    }
+
+    /**
+     * Visits this object and all its descendants, depth first: each object is
+     * visited before its children, and children in order.
+     * 
+     * The traversal does not allocate, and does not hold any locks while the
+     * visitor runs. Each object's children are a snapshot, taken when it is
+     * visited: changes the visitor makes to the hierarchy show up only in
+     * objects it has not visited yet.
+     * 
+     * @param visitor
+     *            Called for each object. Return {@code false} to skip an
+     *            object's children.
+     */
+    public void visitDepthFirst(SceneVisitor visitor) {
+        if (visitor.visit(this)) {
+            for (GVRSceneObject child : childrenSnapshot()) {
+                child.visitDepthFirst(visitor);
+            }
+        }
     }    
 
     /**
@@ -815,6 +1084,7 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
             inputManager.addSensor(sensor);
         }
         mSensor = sensor;
+        SensorManager.invalidate();
     }
 
     /**
@@ -836,8 +1106,25 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
      */
     public List<GVRSceneObject> getChildren() {
         synchronized (mChildren) {
-            return Collections.unmodifiableList(
-                    new ArrayList<GVRSceneObject>(mChildren));
+            if (mChildrenView == null) {
+                mChildrenView = Collections.unmodifiableList(
+                        Arrays.asList(childrenSnapshot()));
+            }
+            return mChildrenView;
+        }
+    }
+
+    /**
+     * The children, as an array that is never changed: do not make any
+     * changes to it either!
+     */
+    GVRSceneObject[] childrenSnapshot() {
+        synchronized (mChildren) {
+            if (mChildrenSnapshot == null) {
+                mChildrenSnapshot = mChildren.isEmpty() ? NO_CHILDREN
+                        : mChildren.toArray(new GVRSceneObject[mChildren.size()]);
+            }
+            return mChildrenSnapshot;
         }
     }
 
@@ -849,11 +1136,11 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
     private static class Children implements Iterable<GVRSceneObject>,
             Iterator<GVRSceneObject> {
 
-        private final GVRSceneObject object;
+        private final GVRSceneObject[] children;
         private int index;
 
-        private Children(GVRSceneObject object) {
-            this.object = object;
+        private Children(GVRSceneObject[] children) {
+            this.children = children;
             this.index = 0;
         }
 
@@ -864,12 +1151,15 @@ public class GVRSceneObject extends GVRHybridObject implements PrettyPrint {
 
         @Override
         public boolean hasNext() {
-            return index < object.getChildrenCount();
+            return index < children.length;
         }
 
         @Override
         public GVRSceneObject next() {
-            return object.getChildByIndex(index++);
+            if (index >= children.length) {
+                throw new NoSuchElementException();
+            }
+            return children[index++];
         }
 
         @Override
@@ -988,6 +1278,12 @@ class NativeSceneObject {
 
     static native void removeChildObject(long sceneObject, long child);
 
+    static native void addChildObjects(long sceneObject, long[] children);
+
+    static native void removeChildObjects(long sceneObject, long[] children);
+
+    static native void reparentChildObjects(long sceneObject, long[] children);
+
     static native boolean isColliding(long sceneObject, long otherObject);
 
     static native boolean intersectsBoundingVolume(long sceneObject, float rox,
@@ -17,6 +17,8 @@ package org.gearvrf;
 
 /** Wrapper for a GL texture. */
 public class GVRTexture extends GVRHybridObject {
+    private long mByteCount = 0;
+
     protected GVRTexture(GVRContext gvrContext, long ptr) {
         super(gvrContext, ptr);
     }
@@ -39,6 +41,39 @@ public class GVRTexture extends GVRHybridObject {
                 textureParameters.getCurrentValuesArray());
     }
 
+    /**
+     * Get an estimate of the GPU memory the texture uses, from its size,
+     * format and mipmap levels.
+     * 
+     * @return Size in bytes, or 0 if not known.
+     */
+    public long getByteCount() {
+        return mByteCount;
+    }
+
+    protected void setByteCount(long byteCount) {
+        mByteCount = byteCount;
+    }
+
+    /**
+     * Estimate the size of a mipmap chain.
+     * 
+     * @param levelZeroBytes
+     *            Size of the full resolution image
+     * @param levels
+     *            Number of mipmap levels, including level 0; use
+     *            {@link Integer#MAX_VALUE} for a full chain, down to 1x1
+     * @return Size in bytes of all the levels
+     */
+    protected static long estimateByteCount(long levelZeroBytes, int levels) {
+        long total = 0;
+        for (long level = levelZeroBytes; levels > 0 && level > 0; --levels) {
+            total += level;
+            level /= 4;
+        }
+        return total;
+    }
+
 }
 
 class NativeTexture {
@@ -15,6 +15,8 @@
 
 package org.gearvrf;
 
+import java.nio.FloatBuffer;
+
 import org.joml.Matrix4f;
 
 /**
@@ -565,4 +567,11 @@ class NativeTransform {
             float quatX, float quatY, float quatZ, float pivotX, float pivotY,
             float pivotZ);
 
+    static native void getLocalTransforms(long[] transforms, FloatBuffer trs);
+
+    static native void setLocalTransforms(long[] transforms, FloatBuffer trs,
+            int[] indices, int count);
+
+    static native void getModelMatrices(long[] transforms,
+            FloatBuffer matrices);
 }
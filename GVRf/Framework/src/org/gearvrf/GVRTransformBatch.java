@@ -0,0 +1,297 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.joml.Matrix4f;
+
+/**
+ * Reads and writes many {@link GVRTransform}s with one JNI call.
+ *
+ * Each {@link GVRTransform} getter and setter is a JNI call of its own, which
+ * adds up when animating hundreds of objects every frame. A batch keeps a
+ * Java-side mirror of the local position, rotation and scale of a fixed list
+ * of transforms in a direct {@link FloatBuffer}: edit the mirror with the
+ * indexed setters, then {@link #flush()} it to native code once. Likewise,
+ * {@link #readModelMatrices()} fetches all the model matrices at once.
+ *
+ * <p>
+ * A batch is also a {@link GVRDrawFrameListener}: if you
+ * {@linkplain GVRContext#registerDrawFrameListener(GVRDrawFrameListener)
+ * register} it, the mirror is flushed once per frame. A flush only writes the
+ * transforms that were changed through the indexed setters (or
+ * {@linkplain #markDirty(int) marked dirty}) since the last flush or
+ * {@link #pull()}; the others are left alone, so changes made to them by other
+ * code, like a {@link org.gearvrf.animation.GVRAnimation}, are kept.
+ *
+ * <p>
+ * The mirror is not updated by other code that changes the transforms: call
+ * {@link #pull()} to re-read them.
+ */
+public class GVRTransformBatch implements GVRDrawFrameListener {
+    /** Floats per transform in {@link #getLocalTransforms()} */
+    public static final int TRS_SIZE = 10;
+    /** Floats per transform in {@link #readModelMatrices()} */
+    public static final int MATRIX_SIZE = 16;
+
+    private static final int POSITION = 0;
+    private static final int ROTATION = 3;
+    private static final int SCALE = 7;
+
+    private final List<GVRTransform> mTransforms;
+    private final long[] mNatives;
+    private final FloatBuffer mLocalTransforms;
+    private FloatBuffer mModelMatrices = null;
+
+    private final boolean[] mDirty;
+    private final int[] mDirtyIndices;
+    private int mDirtyCount = 0;
+
+    /**
+     * Create a batch and {@linkplain #pull() read} the current local
+     * transforms into its mirror.
+     *
+     * @param transforms
+     *            The transforms to batch. The batch keeps them in this order;
+     *            the indices of the other methods refer to it.
+     */
+    public GVRTransformBatch(Collection<GVRTransform> transforms) {
+        mTransforms = new ArrayList<GVRTransform>(transforms);
+        mNatives = GVRHybridObject.getNativePtrArray(mTransforms);
+        mLocalTransforms = allocateFloats(mTransforms.size() * TRS_SIZE);
+        mDirty = new boolean[mTransforms.size()];
+        mDirtyIndices = new int[mTransforms.size()];
+        pull();
+    }
+
+    private static FloatBuffer allocateFloats(int count) {
+        return ByteBuffer.allocateDirect(count * 4)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * @return The number of transforms in the batch.
+     */
+    public int size() {
+        return mTransforms.size();
+    }
+
+    /**
+     * @param index
+     *            Index in the batch
+     * @return The transform at {@code index}
+     */
+    public GVRTransform getTransform(int index) {
+        return mTransforms.get(index);
+    }
+
+    /**
+     * The mirror itself: {@link #TRS_SIZE} floats per transform, holding the
+     * position (x, y, z), rotation quaternion (w, x, y, z) and scale (x, y, z).
+     * Native code always reads and writes the buffer from index 0, ignoring
+     * its position. Call {@link #markDirty(int)} for each transform you change
+     * by writing to the buffer directly.
+     *
+     * @return The shared direct buffer.
+     */
+    public FloatBuffer getLocalTransforms() {
+        return mLocalTransforms;
+    }
+
+    /**
+     * Read the local position, rotation and scale of every transform into the
+     * mirror. Discards any changes that have not been flushed.
+     */
+    public void pull() {
+        NativeTransform.getLocalTransforms(mNatives, mLocalTransforms);
+        clearDirty();
+    }
+
+    /**
+     * Write the transforms changed in the mirror since the last flush or
+     * {@link #pull()}.
+     */
+    public void flush() {
+        if (mDirtyCount == 0) {
+            return;
+        }
+        NativeTransform.setLocalTransforms(mNatives, mLocalTransforms,
+                mDirtyIndices, mDirtyCount);
+        clearDirty();
+    }
+
+    /**
+     * Mark a transform as changed, so the next {@link #flush()} writes it.
+     * The indexed setters do this for you.
+     *
+     * @param index
+     *            Index in the batch
+     */
+    public void markDirty(int index) {
+        if (!mDirty[index]) {
+            mDirty[index] = true;
+            mDirtyIndices[mDirtyCount++] = index;
+        }
+    }
+
+    private void clearDirty() {
+        for (int i = 0; i < mDirtyCount; ++i) {
+            mDirty[mDirtyIndices[i]] = false;
+        }
+        mDirtyCount = 0;
+    }
+
+    /**
+     * Flushes the mirror: register the batch as a draw frame listener to
+     * flush it once per frame.
+     */
+    @Override
+    public void onDrawFrame(float frameTime) {
+        flush();
+    }
+
+    /**
+     * Read the model matrix of every transform.
+     *
+     * Call {@link #flush()} first if the mirror has pending changes.
+     *
+     * @return A direct buffer of {@link #MATRIX_SIZE} column-major floats per
+     *         transform. The buffer is reused by subsequent calls.
+     */
+    public FloatBuffer readModelMatrices() {
+        if (mModelMatrices == null) {
+            mModelMatrices = allocateFloats(mTransforms.size() * MATRIX_SIZE);
+        }
+        NativeTransform.getModelMatrices(mNatives, mModelMatrices);
+        return mModelMatrices;
+    }
+
+    /**
+     * Copy one of the matrices from the last {@link #readModelMatrices()}
+     * call.
+     *
+     * @throws IllegalStateException
+     *             If {@link #readModelMatrices()} has never been called.
+     * @param index
+     *            Index in the batch
+     * @param dest
+     *            Matrix to set
+     * @return {@code dest}
+     */
+    public Matrix4f getModelMatrix(int index, Matrix4f dest) {
+        if (mModelMatrices == null) {
+            throw new IllegalStateException(
+                    "Call readModelMatrices() before getModelMatrix()");
+        }
+        mModelMatrices.position(index * MATRIX_SIZE);
+        dest.set(mModelMatrices);
+        mModelMatrices.position(0);
+        return dest;
+    }
+
+    /**
+     * Compose one of the mirrored local transforms into a matrix, without a
+     * JNI call.
+     *
+     * @param index
+     *            Index in the batch
+     * @param dest
+     *            Matrix to set
+     * @return {@code dest}
+     */
+    public Matrix4f getLocalModelMatrix(int index, Matrix4f dest) {
+        int base = index * TRS_SIZE;
+        FloatBuffer trs = mLocalTransforms;
+        return dest.translationRotateScale( //
+                trs.get(base + POSITION), trs.get(base + POSITION + 1),
+                trs.get(base + POSITION + 2), //
+                trs.get(base + ROTATION + 1), trs.get(base + ROTATION + 2),
+                trs.get(base + ROTATION + 3), trs.get(base + ROTATION), //
+                trs.get(base + SCALE), trs.get(base + SCALE + 1),
+                trs.get(base + SCALE + 2));
+    }
+
+    public float getPositionX(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + POSITION);
+    }
+
+    public float getPositionY(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + POSITION + 1);
+    }
+
+    public float getPositionZ(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + POSITION + 2);
+    }
+
+    public void setPosition(int index, float x, float y, float z) {
+        int base = index * TRS_SIZE + POSITION;
+        mLocalTransforms.put(base, x);
+        mLocalTransforms.put(base + 1, y);
+        mLocalTransforms.put(base + 2, z);
+        markDirty(index);
+    }
+
+    public float getRotationW(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + ROTATION);
+    }
+
+    public float getRotationX(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + ROTATION + 1);
+    }
+
+    public float getRotationY(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + ROTATION + 2);
+    }
+
+    public float getRotationZ(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + ROTATION + 3);
+    }
+
+    public void setRotation(int index, float w, float x, float y, float z) {
+        int base = index * TRS_SIZE + ROTATION;
+        mLocalTransforms.put(base, w);
+        mLocalTransforms.put(base + 1, x);
+        mLocalTransforms.put(base + 2, y);
+        mLocalTransforms.put(base + 3, z);
+        markDirty(index);
+    }
+
+    public float getScaleX(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + SCALE);
+    }
+
+    public float getScaleY(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + SCALE + 1);
+    }
+
+    public float getScaleZ(int index) {
+        return mLocalTransforms.get(index * TRS_SIZE + SCALE + 2);
+    }
+
+    public void setScale(int index, float x, float y, float z) {
+        int base = index * TRS_SIZE + SCALE;
+        mLocalTransforms.put(base, x);
+        mLocalTransforms.put(base + 1, y);
+        mLocalTransforms.put(base + 2, z);
+        markDirty(index);
+    }
+}
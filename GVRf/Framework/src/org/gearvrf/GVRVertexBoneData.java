@@ -1,6 +1,12 @@
 package org.gearvrf;
 
 public final class GVRVertexBoneData implements PrettyPrint {
+    /**
+     * Number of bones that can influence a vertex: the stride of the packed
+     * arrays that {@link #setBoneWeights(int[], float[])} takes.
+     */
+    public static final int BONES_PER_VERTEX = 4;
+
     @SuppressWarnings("unused")
     private GVRMesh mMesh;
     private long mNative;
@@ -25,6 +31,56 @@ public final class GVRVertexBoneData implements PrettyPrint {
         NativeVertexBoneData.normalizeWeights(getNative());
     }
 
+    /**
+     * @return Number of vertices with bone data: 0 until the mesh has bones.
+     */
+    public int getVertexCount() {
+        return NativeVertexBoneData.getVertexCount(getNative());
+    }
+
+    /**
+     * Sets the bone ids and weights of every vertex, and normalizes the
+     * weights, in a single native call.
+     * 
+     * Both arrays hold {@link #BONES_PER_VERTEX} entries per vertex. Unused
+     * slots hold a weight of 0. Use
+     * {@link #addBoneWeight(int[], float[], int[], int, int, float)} to fill
+     * them.
+     * 
+     * @param boneIds
+     *            Packed bone ids: indices into the mesh's bone list
+     * @param boneWeights
+     *            Packed bone weights
+     */
+    public void setBoneWeights(int[] boneIds, float[] boneWeights) {
+        NativeVertexBoneData.setBoneWeights(getNative(), boneIds, boneWeights);
+    }
+
+    /**
+     * Puts a bone weight in the next free slot of a vertex, in packed arrays
+     * for {@link #setBoneWeights(int[], float[])}.
+     * 
+     * @param boneCounts
+     *            Number of slots used, per vertex: starts out all 0, and is
+     *            updated by this method. Slots are counted, rather than
+     *            detected by their weight, so an influence with a weight of 0
+     *            still keeps its slot.
+     * @return The slot used, or -1 if the vertex already has
+     *         {@link #BONES_PER_VERTEX} bones.
+     */
+    public static int addBoneWeight(int[] boneIds, float[] boneWeights,
+            int[] boneCounts, int vertexId, int boneId, float weight) {
+        final int slot = boneCounts[vertexId];
+        if (slot >= BONES_PER_VERTEX) {
+            return -1;
+        }
+        final int index = vertexId * BONES_PER_VERTEX + slot;
+        boneIds[index] = boneId;
+        boneWeights[index] = weight;
+        boneCounts[vertexId] = slot + 1;
+        return slot;
+    }
+
     @Override
     public void prettyPrint(StringBuffer sb, int indent) {        
     }
@@ -39,4 +95,6 @@ class NativeVertexBoneData {
     static native int getFreeBoneSlot(long nativePtr, int vertexId);
     static native void setVertexBoneWeight(long nativePtr, int vertexId, int boneSlot, int boneId, float boneWeight);
     static native void normalizeWeights(long nativePtr);
+    static native int getVertexCount(long nativePtr);
+    static native void setBoneWeights(long nativePtr, int[] boneIds, float[] boneWeights);
 }
\ No newline at end of file
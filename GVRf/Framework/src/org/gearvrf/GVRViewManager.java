@@ -23,9 +23,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.LinkedBlockingQueue;
 
 import javax.microedition.khronos.egl.EGL10;
 import javax.microedition.khronos.egl.EGLContext;
@@ -85,7 +83,7 @@ class GVRViewManager extends GVRContext implements RotationSensorListener {
 
     private static final String TAG = Log.tag(GVRViewManager.class);
 
-    protected final Queue<Runnable> mRunnables = new LinkedBlockingQueue<Runnable>();
+    protected final GVRGlTaskScheduler mGlTaskScheduler = new GVRGlTaskScheduler();
     protected final Map<Runnable, Integer> mRunnablesPostRender = new HashMap<Runnable, Integer>();
 
     protected List<GVRDrawFrameListener> mFrameListeners = new CopyOnWriteArrayList<GVRDrawFrameListener>();
@@ -118,6 +116,8 @@ class GVRViewManager extends GVRContext implements RotationSensorListener {
     private final GVRInputManagerImpl mInputManager;
 
     private native void cull(long scene, long camera, long shader_manager);
+    private native void cullStereo(long scene, long centerCamera,
+            long leftCamera, long rightCamera, long shader_manager);
     private native void renderCamera(long appPtr, long scene, long camera,
             long shaderManager, long postEffectShaderManager,
             long postEffectRenderTextureA, long postEffectRenderTextureB);
@@ -532,8 +532,16 @@ class GVRViewManager extends GVRContext implements RotationSensorListener {
     /** Called once per frame, before {@link #onDrawEyeView(int, float)}. */
     void onDrawFrame() {
 
-        GVRPerspectiveCamera centerCamera = mMainScene.getMainCameraRig().getCenterCamera();
-        cull(mMainScene.getNative(), centerCamera.getNative(), mRenderBundle.getMaterialShaderManager().getNative());
+        GVRCameraRig cameraRig = mMainScene.getMainCameraRig();
+        GVRPerspectiveCamera centerCamera = cameraRig.getCenterCamera();
+        if (mMainScene.getStereoCulling()) {
+            cullStereo(mMainScene.getNative(), centerCamera.getNative(),
+                    cameraRig.getLeftCamera().getNative(),
+                    cameraRig.getRightCamera().getNative(),
+                    mRenderBundle.getMaterialShaderManager().getNative());
+        } else {
+            cull(mMainScene.getNative(), centerCamera.getNative(), mRenderBundle.getMaterialShaderManager().getNative());
+        }
 
         if (mCurrentEye == 1) {
             mActivity.setCamera(mMainScene.getMainCameraRig().getLeftCamera());
@@ -697,10 +705,7 @@ class GVRViewManager extends GVRContext implements RotationSensorListener {
          * Without the sensor data, can't draw a scene properly.
          */
         if (!(mSensoredScene == null || !mMainScene.equals(mSensoredScene))) {
-            Runnable runnable = null;
-            while ((runnable = mRunnables.poll()) != null) {
-                runnable.run();
-            }
+            mGlTaskScheduler.runFrameTasks();
 
             final List<GVRDrawFrameListener> frameListeners = mFrameListeners;
             for (GVRDrawFrameListener listener : frameListeners) {
@@ -840,7 +845,17 @@ class GVRViewManager extends GVRContext implements RotationSensorListener {
 
     @Override
     public void runOnGlThread(Runnable runnable) {
-        mRunnables.add(runnable);
+        mGlTaskScheduler.post(runnable);
+    }
+
+    @Override
+    public void runOnGlThread(Runnable runnable, int priority) {
+        mGlTaskScheduler.post(runnable, priority);
+    }
+
+    @Override
+    public GVRGlTaskScheduler getGlTaskScheduler() {
+        return mGlTaskScheduler;
     }
 
     @Override
@@ -0,0 +1,70 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scene's name index: maps each name to the scene objects that have it.
+ *
+ * Each indexed {@link GVRSceneObject} points to its scene's index, and keeps
+ * it up to date as it is renamed, added to the scene graph, or removed from
+ * it. See {@link GVRScene#setNameIndexEnabled(boolean)}.
+ */
+class SceneNameIndex {
+    private static final GVRSceneObject[] NO_OBJECTS = new GVRSceneObject[0];
+
+    // Guarded by this
+    private final Map<String, List<GVRSceneObject>> mObjectsByName = new HashMap<String, List<GVRSceneObject>>();
+    private final Map<GVRSceneObject, String> mNames = new HashMap<GVRSceneObject, String>();
+
+    synchronized void add(GVRSceneObject sceneObject, String name) {
+        remove(sceneObject);
+        mNames.put(sceneObject, name);
+        if (!name.isEmpty()) {
+            List<GVRSceneObject> objects = mObjectsByName.get(name);
+            if (objects == null) {
+                objects = new ArrayList<GVRSceneObject>(1);
+                mObjectsByName.put(name, objects);
+            }
+            objects.add(sceneObject);
+        }
+    }
+
+    synchronized void remove(GVRSceneObject sceneObject) {
+        final String name = mNames.remove(sceneObject);
+        if (name != null && !name.isEmpty()) {
+            final List<GVRSceneObject> objects = mObjectsByName.get(name);
+            objects.remove(sceneObject);
+            if (objects.isEmpty()) {
+                mObjectsByName.remove(name);
+            }
+        }
+    }
+
+    /**
+     * @return The objects with this name, in no particular order. Never
+     *         null.
+     */
+    synchronized GVRSceneObject[] get(String name) {
+        final List<GVRSceneObject> objects = mObjectsByName.get(name);
+        return objects == null ? NO_OBJECTS
+                : objects.toArray(new GVRSceneObject[objects.size()]);
+    }
+}
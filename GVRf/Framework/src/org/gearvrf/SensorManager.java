@@ -15,32 +15,64 @@
 
 package org.gearvrf;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.gearvrf.GVRCursorController.ActiveState;
 import org.gearvrf.utility.Log;
 
 /**
  * This class manages {@link GVRBaseSensor}s
+ *
+ * <p>
+ * Picking walks a flattened index of the scene objects a ray can hit: those
+ * with an enabled (own or inherited) sensor and a mesh, in pre-order, each
+ * with the index just past its subtree. One native call tests the whole
+ * index against a ray, skipping every subtree whose hierarchical bounding
+ * volume the ray misses.
+ *
+ * The index depends only on the scene graph's structure, sensors and meshes:
+ * moving an object does not change it, as bounding volumes are computed
+ * natively. Structural changes call {@link #invalidate()}, and the index is
+ * rebuilt on the next pick.
  */
 class SensorManager {
     private static final String TAG = SensorManager.class.getSimpleName();
     private static final float[] ORIGIN = new float[] { 0.0f, 0.0f, 0.0f };
 
+    // Bumped by every change that can affect the index
+    private static final AtomicInteger sGraphVersion = new AtomicInteger();
+
     // Create a HashMap to keep reference counts
     private final Map<GVRBaseSensor, Integer> sensors;
 
+    // The index: only used by the picking thread
+    private GVRScene indexedScene = null;
+    private int indexedVersion;
+    private int count = 0;
+    private GVRSceneObject[] objects = new GVRSceneObject[16];
+    private GVRBaseSensor[] objectSensors = new GVRBaseSensor[16];
+    private long[] nativeObjects = new long[16];
+    private int[] subtreeEnds = new int[16];
+    private int[] hitIndices = new int[16];
+    private float[] hitPoints = new float[48];
+
     SensorManager() {
         sensors = new HashMap<GVRBaseSensor, Integer>();
     }
 
     /**
-     * Uses the GVR Picker for now .. but would need help from the renderer
-     * later for efficiency.
-     * 
-     * We could possibly push this functionality to the native layer. But for
-     * now we keep it here.
+     * Marks every sensor index out of date. Called when scene objects are
+     * added or removed, and when sensors, render data or meshes change.
+     */
+    static void invalidate() {
+        sGraphVersion.incrementAndGet();
+    }
+
+    /**
+     * Picks the scene with the controller's ray, and sends the sensor events.
      */
     void processPick(GVRScene scene, GVRCursorController controller) {
         if (scene != null) {
@@ -55,56 +87,83 @@ class SensorManager {
                 }
             }
 
-            for (GVRSceneObject object : scene.getSceneObjects()) {
-                recurseSceneObject(controller, object, null, markActiveNodes);
+            updateIndex(scene);
+            final int hits = GVRPicker.pickSceneObjectsAgainstBoundingBoxes(
+                    nativeObjects, subtreeEnds, count, ORIGIN[0], ORIGIN[1],
+                    ORIGIN[2], controller.getRayX(), controller.getRayY(),
+                    controller.getRayZ(), hitIndices, hitPoints);
+            for (int i = 0; i < hits; ++i) {
+                final int index = hitIndices[i];
+                final GVRBaseSensor objectSensor = objectSensors[index];
+                objectSensor.addSceneObject(controller, objects[index],
+                        new float[] { hitPoints[i * 3], hitPoints[i * 3 + 1],
+                                hitPoints[i * 3 + 2] });
+
+                // if we are doing an active search and we find one.
+                if (markActiveNodes) {
+                    objectSensor.setActive(controller, true);
+                }
             }
+
             for (GVRBaseSensor sensor : sensors.keySet()) {
                 sensor.processList(controller);
             }
         }
     }
 
-    void recurseSceneObject(GVRCursorController controller,
-            GVRSceneObject object, GVRBaseSensor sensor,
-            boolean markActiveNodes) {
+    private void updateIndex(GVRScene scene) {
+        final int version = sGraphVersion.get();
+        if (scene == indexedScene && version == indexedVersion) {
+            return;
+        }
+
+        Arrays.fill(objects, 0, count, null);
+        Arrays.fill(objectSensors, 0, count, null);
+        count = 0;
+        for (GVRSceneObject object : scene.getSceneObjects()) {
+            indexSceneObject(object, null);
+        }
+        indexedScene = scene;
+        indexedVersion = version;
+    }
+
+    /*
+     * Appends object and (recursively) its children, with the same rules the
+     * per-event recursion used to apply.
+     */
+    private void indexSceneObject(GVRSceneObject object,
+            GVRBaseSensor sensor) {
         GVRBaseSensor objectSensor = object.getSensor();
 
         if (objectSensor == null) {
             objectSensor = sensor;
         }
 
-        // Well at least we are not comparing against all scene objects.
         if (objectSensor != null && objectSensor.isEnabled()
                 && object.getRenderData() != null
                 && object.getRenderData().getMesh() != null) {
-
-            /**
-             * Compare ray against the hierarchical bounding volume and then add
-             * the children accordingly.
-             */
-            if (object.intersectsBoundingVolume(ORIGIN[0], ORIGIN[1], ORIGIN[2],
-                    controller.getRayX(), controller.getRayY(),
-                    controller.getRayZ())) {
-                float[] hitPoint = GVRPicker.pickSceneObjectAgainstBoundingBox(
-                        object, ORIGIN[0], ORIGIN[1], ORIGIN[2],
-                        controller.getRayX(), controller.getRayY(),
-                        controller.getRayZ());
-
-                if (hitPoint != null) {
-                    objectSensor.addSceneObject(controller, object, hitPoint);
-
-                    // if we are doing an active search and we find one.
-                    if (markActiveNodes) {
-                        objectSensor.setActive(controller, true);
-                    }
-                }
-
-                for (GVRSceneObject child : object.getChildren()) {
-                    recurseSceneObject(controller, child, objectSensor,
-                            markActiveNodes);
-                }
+            final int index = append(object, objectSensor);
+            for (GVRSceneObject child : object.childrenSnapshot()) {
+                indexSceneObject(child, objectSensor);
             }
+            subtreeEnds[index] = count;
+        }
+    }
+
+    private int append(GVRSceneObject object, GVRBaseSensor sensor) {
+        if (count == objects.length) {
+            final int capacity = count * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            objectSensors = Arrays.copyOf(objectSensors, capacity);
+            nativeObjects = Arrays.copyOf(nativeObjects, capacity);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+            hitIndices = new int[capacity];
+            hitPoints = new float[capacity * 3];
         }
+        objects[count] = object;
+        objectSensors[count] = sensor;
+        nativeObjects[count] = object.getNative();
+        return count++;
     }
 
     void addSensor(GVRBaseSensor sensor) {
@@ -121,6 +180,10 @@ class SensorManager {
 
     void clear() {
         sensors.clear();
+        Arrays.fill(objects, 0, count, null);
+        Arrays.fill(objectSensors, 0, count, null);
+        count = 0;
+        indexedScene = null;
     }
 
     void removeSensor(GVRBaseSensor sensor) {
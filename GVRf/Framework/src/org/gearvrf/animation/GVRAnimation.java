@@ -118,6 +118,10 @@ public abstract class GVRAnimation {
     
     private boolean isFinished = false;
 
+    // Slot in the running list of the animation engine; -1 if not running.
+    // Only touched on the GL thread.
+    int mEngineIndex = -1;
+
     /**
      * Base constructor.
      * 
@@ -17,6 +17,8 @@ package org.gearvrf.animation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRDrawFrameListener;
@@ -59,9 +61,25 @@ public class GVRAnimationEngine {
         });
     }
 
+    /*
+     * start() and stop() can be called from any thread: they just queue a
+     * command, without blocking the GL thread. Commands are applied at the
+     * start of each frame, and only the GL thread touches mAnimations.
+     */
+    private final Queue<Command> mCommands = new ConcurrentLinkedQueue<Command>();
     private final List<GVRAnimation> mAnimations = new ArrayList<GVRAnimation>();
     private final GVRDrawFrameListener mOnDrawFrame = new DrawFrame();
 
+    private static final class Command {
+        final GVRAnimation animation;
+        final boolean start;
+
+        Command(GVRAnimation animation, boolean start) {
+            this.animation = animation;
+            this.start = start;
+        }
+    }
+
     protected GVRAnimationEngine(GVRContext gvrContext) {
         gvrContext.registerDrawFrameListener(mOnDrawFrame);
     }
@@ -111,10 +129,9 @@ public class GVRAnimationEngine {
      */
     public GVRAnimation start(GVRAnimation animation) {
         if (animation.getRepeatCount() != 0) {
-            synchronized (mAnimations) {
-                animation.reset();
-                mAnimations.add(animation);
-            }
+            // Reset in applyCommands(), on the GL thread: the animation may
+            // be running right now
+            mCommands.add(new Command(animation, true));
         }
         return animation;
     }
@@ -140,22 +157,59 @@ public class GVRAnimationEngine {
      *            an animation
      */
     public void stop(GVRAnimation animation) {
-        synchronized (mAnimations) {
-            mAnimations.remove(animation);
+        mCommands.add(new Command(animation, false));
+    }
+
+    /*
+     * GL thread only.
+     */
+    private void applyCommands() {
+        Command command;
+        while ((command = mCommands.poll()) != null) {
+            GVRAnimation animation = command.animation;
+            if (command.start) {
+                animation.reset();
+                if (animation.mEngineIndex == -1) {
+                    animation.mEngineIndex = mAnimations.size();
+                    mAnimations.add(animation);
+                }
+            } else if (animation.mEngineIndex != -1) {
+                remove(animation.mEngineIndex);
+            }
         }
     }
 
+    /*
+     * Swap-remove: the last animation takes the place of the removed one, so
+     * removal is O(1) but does not preserve order.
+     */
+    private void remove(int index) {
+        final int last = mAnimations.size() - 1;
+        final GVRAnimation removed = mAnimations.get(index);
+        if (index != last) {
+            final GVRAnimation moved = mAnimations.get(last);
+            moved.mEngineIndex = index;
+            mAnimations.set(index, moved);
+        }
+        mAnimations.remove(last);
+        removed.mEngineIndex = -1;
+    }
+
     private final class DrawFrame implements GVRDrawFrameListener {
 
         @Override
         public void onDrawFrame(float frameTime) {
-            synchronized (mAnimations) {
-                List<GVRAnimation> animations = new ArrayList<GVRAnimation>(
-                        mAnimations);
-                for (GVRAnimation animation : animations) {
-                    if (animation.onDrawFrame(frameTime) == false) {
-                        mAnimations.remove(animation);
-                    }
+            applyCommands();
+
+            // Animations started or stopped by callbacks during this loop
+            // are queued, and take effect on the next frame
+            int index = 0;
+            while (index < mAnimations.size()) {
+                if (mAnimations.get(index).onDrawFrame(frameTime) == false) {
+                    // Re-visit index, which now holds the last animation
+                    remove(index);
+                } else {
+                    ++index;
                 }
             }
         }
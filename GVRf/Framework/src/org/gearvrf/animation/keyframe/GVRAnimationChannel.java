@@ -21,94 +21,53 @@ import org.joml.Vector3f;
  */
 public final class GVRAnimationChannel implements PrettyPrint {
     private static final String TAG = GVRAnimationChannel.class.getSimpleName();
-    protected static interface ValueInterpolator<T> {
-        T interpolate(T begin, T end, float factor);
-    }
-
-    protected static ValueInterpolator<Vector3f> sInterpolatorVector3f = new ValueInterpolator<Vector3f>() {
-        public Vector3f interpolate(Vector3f begin, Vector3f end, float factor) {
-            return new Vector3f().set(end).sub(begin).mul(factor).add(begin);
-        }
-    };
-
-    protected static ValueInterpolator<Quaternionf> sInterpolatorQuaternion = new ValueInterpolator<Quaternionf>() {
-        public Quaternionf interpolate(Quaternionf begin, Quaternionf end, float factor) {
-            return new Quaternionf().set(begin).slerp(end, factor);
-        }
-    };
-
-    protected class KeyFrameInterplator<T> {
-        GVRKeyFrame<T>[] keys;
-        ValueInterpolator<T> interpolator;
 
+    /**
+     * Finds the keyframe interval containing a given time, remembering the
+     * last interval found: playback usually stays in it or moves to a
+     * neighbor.
+     */
+    private static class KeyIndexFinder {
+        private final float[] times;
         private int lastKeyIndex;
 
-        KeyFrameInterplator(GVRKeyFrame<T>[] keys, ValueInterpolator<T> interpolator) {
-            this.keys = keys;
-            this.interpolator = interpolator;
+        KeyIndexFinder(float[] times) {
+            this.times = times;
             lastKeyIndex = -1;
         }
 
-        protected T interpolate(float time) {
-            int index = getKeyIndex(time);
-            int nextIndex = index + 1;
-
-            if (index != -1 && keys[index].getTime() <= time && time < keys[nextIndex].getTime()) {
-                // interpolate
-                float deltaTime = (float)(keys[nextIndex].getTime() - keys[index].getTime());
-                float factor = (float)((time - keys[index].getTime()) / deltaTime);
-
-                T start = keys[index].getValue();
-                T end = keys[nextIndex].getValue();
-
-                return interpolator.interpolate(start, end, factor);
-            } else {
-                // time is out of range of animation time frame
-                float firstFrameTime = keys[0].getTime();
-                float lastFrameTime = keys[keys.length - 1].getTime();
-                T firstFrameValue = keys[0].getValue();
-                T lastFrameValue = keys[keys.length - 1].getValue();
-
-                if (time <= firstFrameTime) {
-                    return firstFrameValue;
-                } else if (time >= lastFrameTime) {
-                    return lastFrameValue;
-                } else {
-                    // Shouldn't happen
-                    return lastFrameValue;
-                }
-            }
-        }
-
+        /**
+         * @return index i such that times[i] <= time < times[i + 1], or -1
+         */
         protected int getKeyIndex(float time) {
             // Try cached key first
             if (lastKeyIndex != -1) {
-                if (keys[lastKeyIndex].getTime() <= time && time < keys[lastKeyIndex + 1].getTime()) {
+                if (times[lastKeyIndex] <= time && time < times[lastKeyIndex + 1]) {
                     return lastKeyIndex;
                 }
 
                 // Try neighboring keys
-                if (lastKeyIndex + 2 < keys.length &&
-                        keys[lastKeyIndex + 1].getTime() <= time && time < keys[lastKeyIndex + 2].getTime()) {
+                if (lastKeyIndex + 2 < times.length &&
+                        times[lastKeyIndex + 1] <= time && time < times[lastKeyIndex + 2]) {
                     return ++lastKeyIndex;
                 }
 
                 if (lastKeyIndex >= 1 &&
-                        keys[lastKeyIndex - 1].getTime() <= time && time < keys[lastKeyIndex].getTime()) {
+                        times[lastKeyIndex - 1] <= time && time < times[lastKeyIndex]) {
                     return --lastKeyIndex;
                 }
             }
 
             // Binary search for the interval
             // Each of the index i represents an interval I(i) = [time(i), time(i + 1)).
-            int low = 0, high = keys.length - 2;
+            int low = 0, high = times.length - 2;
             // invariant: I(low)...I(high) contains time if time can be found
             // post-condition: |high - low| <= 1, only need to check I(low) and I(low + 1)
             while (high - low > 1) {
                 int mid = (low + high) / 2;
-                if (time < keys[mid].getTime()) {
+                if (time < times[mid]) {
                     high = mid;
-                } else if (time >= keys[mid + 1].getTime()) {
+                } else if (time >= times[mid + 1]) {
                     low = mid + 1;
                 } else {
                     // time in I(mid) by definition
@@ -116,18 +75,44 @@ public final class GVRAnimationChannel implements PrettyPrint {
                 }
             }
 
-            if (keys[low].getTime() <= time && time < keys[low + 1].getTime()) {
+            if (times[low] <= time && time < times[low + 1]) {
                 return lastKeyIndex = low;
             }
 
-            if (low + 2 < keys.length &&
-                    keys[low + 1].getTime() <= time && time < keys[low + 2].getTime()) {
+            if (low + 2 < times.length &&
+                    times[low + 1] <= time && time < times[low + 2]) {
                 return lastKeyIndex = low + 1;
             }
 
-            Log.v(TAG, "Warning: interpolation failed at time " + time);
             return lastKeyIndex = -1;
         }
+
+        /**
+         * @return index of the interval to interpolate in, or -1 if the
+         *         time is outside the keys and the value of the first or
+         *         last key, as returned by {@link #getClampedKey(float)},
+         *         applies
+         */
+        protected int getInterpolationIndex(float time) {
+            if (times.length < 2 || time <= times[0]
+                    || time >= times[times.length - 1]) {
+                return -1;
+            }
+            int index = getKeyIndex(time);
+            if (index == -1) {
+                Log.v(TAG, "Warning: interpolation failed at time " + time);
+            }
+            return index;
+        }
+
+        protected int getClampedKey(float time) {
+            return time <= times[0] ? 0 : times.length - 1;
+        }
+
+        protected float getFactor(int index, float time) {
+            float deltaTime = times[index + 1] - times[index];
+            return (time - times[index]) / deltaTime;
+        }
     }
 
     /**
@@ -144,15 +129,18 @@ public final class GVRAnimationChannel implements PrettyPrint {
             int numScaleKeys, GVRAnimationBehavior preBehavior, GVRAnimationBehavior postBehavior) {
 
         m_nodeName = nodeName;
-        mPositionKeys = new GVRPositionKey[numPosKeys];
-        mRotationKeys = new GVRRotationKey[numRotKeys];
-        mScaleKeys = new GVRScaleKey[numScaleKeys];
+        mPosTimes = new float[numPosKeys];
+        mPosValues = new float[numPosKeys * 3];
+        mRotTimes = new float[numRotKeys];
+        mRotValues = new float[numRotKeys * 4];
+        mScaleTimes = new float[numScaleKeys];
+        mScaleValues = new float[numScaleKeys * 3];
         mPreState = preBehavior;
         mPostState = postBehavior;
 
-        mPositionInterpolator = new KeyFrameInterplator<Vector3f>(mPositionKeys, sInterpolatorVector3f);
-        mRotationInterpolator = new KeyFrameInterplator<Quaternionf>(mRotationKeys, sInterpolatorQuaternion);
-        mScaleInterpolator = new KeyFrameInterplator<Vector3f>(mScaleKeys, sInterpolatorVector3f);
+        mPositionFinder = new KeyIndexFinder(mPosTimes);
+        mRotationFinder = new KeyIndexFinder(mRotTimes);
+        mScaleFinder = new KeyIndexFinder(mScaleTimes);
 
         mCurrentTransform = new Matrix4f();
     }
@@ -176,7 +164,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of position keys
      */
     public int getNumPosKeys() {
-        return mPositionKeys.length;
+        return mPosTimes.length;
     }
     
     /**
@@ -186,7 +174,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getPosKeyTime(int keyIndex) {
-        return mPositionKeys[keyIndex].getTime();
+        return mPosTimes[keyIndex];
     }
 
     /**
@@ -197,11 +185,12 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the position as vector
      */
     public Vector3f getPosKeyVector(int keyIndex) {
-        return mPositionKeys[keyIndex].getValue();
+        return getVector(mPosValues, keyIndex, new Vector3f());
     }
 
     public void setPosKeyVector(int keyIndex, float time, Vector3f pos) {
-        mPositionKeys[keyIndex] = new GVRPositionKey(time, pos.x, pos.y, pos.z);
+        mPosTimes[keyIndex] = time;
+        setVector(mPosValues, keyIndex, pos);
     }
 
     /** 
@@ -210,7 +199,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of rotation keys
      */
     public int getNumRotKeys() {
-       return mRotationKeys.length;
+       return mRotTimes.length;
     }
 
 
@@ -221,7 +210,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getRotKeyTime(int keyIndex) {
-        return mRotationKeys[keyIndex].getTime();
+        return mRotTimes[keyIndex];
     }
 
 
@@ -234,11 +223,16 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the rotation as quaternion
      */
     public Quaternionf getRotKeyQuaternion(int keyIndex) {
-        return mRotationKeys[keyIndex].getValue();
+        return getQuaternion(mRotValues, keyIndex, new Quaternionf());
     } 
 
     public void setRotKeyQuaternion(int keyIndex, float time, Quaternionf rot) {
-        mRotationKeys[keyIndex] = new GVRRotationKey(time, rot.x, rot.y, rot.z, rot.w);
+        int base = keyIndex * 4;
+        mRotTimes[keyIndex] = time;
+        mRotValues[base] = rot.x;
+        mRotValues[base + 1] = rot.y;
+        mRotValues[base + 2] = rot.z;
+        mRotValues[base + 3] = rot.w;
     }
 
     /** 
@@ -247,7 +241,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the number of scaling keys
      */
     public int getNumScaleKeys() {
-        return mScaleKeys.length;
+        return mScaleTimes.length;
     }
 
 
@@ -258,7 +252,7 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the time component
      */
     public double getScaleKeyTime(int keyIndex) {
-        return mRotationKeys[keyIndex].getTime();
+        return mScaleTimes[keyIndex];
     }
 
 
@@ -270,11 +264,12 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * @return the scaling factor as vector
      */
     public Vector3f getScaleKeyVector(int keyIndex) {
-        return mScaleKeys[keyIndex].getValue();
+        return getVector(mScaleValues, keyIndex, new Vector3f());
     }
 
     public void setScaleKeyVector(int keyIndex, float time, Vector3f scale) {
-        mScaleKeys[keyIndex] = new GVRScaleKey(time, scale.x, scale.y, scale.z);
+        mScaleTimes[keyIndex] = time;
+        setVector(mScaleValues, keyIndex, scale);
     }
 
     /** 
@@ -308,15 +303,27 @@ public final class GVRAnimationChannel implements PrettyPrint {
      * 
      * @param animationTime The time in animation.
      * 
-     * @return The transform.
+     * @return The transform. The matrix is reused by the next call.
      */
     public Matrix4f animate(float animationTime) {
-        Vector3f scale = getScale(animationTime);
-        Vector3f pos = getPosition(animationTime);
-        Quaternionf rot = getRotation(animationTime);
+        return animate(animationTime, mCurrentTransform);
+    }
 
-        // Allocation-free
-        Matrix4f mat = mCurrentTransform.set(rot);
+    /**
+     * Computes the transform for a specific time in animation, without
+     * allocating.
+     * 
+     * @param animationTime The time in animation.
+     * @param dest The matrix to hold the transform.
+     * 
+     * @return {@code dest}
+     */
+    public Matrix4f animate(float animationTime, Matrix4f dest) {
+        Vector3f scale = getScale(animationTime, mScale);
+        Vector3f pos = getPosition(animationTime, mPosition);
+        Quaternionf rot = getRotation(animationTime, mRotation);
+
+        Matrix4f mat = dest.set(rot);
 
         mat.m00 *= scale.x;
         mat.m01 *= scale.x;
@@ -334,40 +341,66 @@ public final class GVRAnimationChannel implements PrettyPrint {
         return mat;
     }
 
-    protected Vector3f getPosition(float time) {
-        Vector3f defaultPosition = new Vector3f();
-        
-        if (mPositionKeys.length == 0) {
-            return defaultPosition;
-        } else if (mPositionKeys.length == 1) {
-            return mPositionKeys[0].getValue();
+    protected Vector3f getPosition(float time, Vector3f dest) {
+        if (mPosTimes.length == 0) {
+            return dest.set(0f, 0f, 0f);
         }
+        return interpolateVector(mPosValues, mPositionFinder, time, dest);
+    }
 
-        return mPositionInterpolator.interpolate(time);
+    protected Vector3f getScale(float time, Vector3f dest) {
+        if (mScaleTimes.length == 0) {
+            return dest.set(1f, 1f, 1f);
+        }
+        return interpolateVector(mScaleValues, mScaleFinder, time, dest);
     }
 
-    protected Vector3f getScale(float time) {
-        Vector3f defaultScale = new Vector3f(1f, 1f, 1f);
-        
-        if (mScaleKeys.length == 0) {
-            return defaultScale;
-        } else if (mScaleKeys.length == 1) {
-            return mScaleKeys[0].getValue();
+    protected Quaternionf getRotation(float time, Quaternionf dest) {
+        if (mRotTimes.length == 0) {
+            return dest.set(0f, 0f, 0f, 1f);
         }
 
-        return mScaleInterpolator.interpolate(time);
-    }
+        int index = mRotationFinder.getInterpolationIndex(time);
+        if (index == -1) {
+            return getQuaternion(mRotValues, mRotationFinder.getClampedKey(time), dest);
+        }
 
-    protected Quaternionf getRotation(float time) {
-        Quaternionf defaultRotation = new Quaternionf();
+        float factor = mRotationFinder.getFactor(index, time);
+        getQuaternion(mRotValues, index + 1, mRotationEnd);
+        return getQuaternion(mRotValues, index, dest).slerp(mRotationEnd, factor);
+    }
 
-        if (mRotationKeys.length == 0) {
-            return defaultRotation;
-        } else if (mRotationKeys.length == 1) {
-            return mRotationKeys[0].getValue();
+    private static Vector3f interpolateVector(float[] values, KeyIndexFinder finder,
+            float time, Vector3f dest) {
+        int index = finder.getInterpolationIndex(time);
+        if (index == -1) {
+            return getVector(values, finder.getClampedKey(time), dest);
         }
 
-        return mRotationInterpolator.interpolate(time);
+        float factor = finder.getFactor(index, time);
+        int begin = index * 3;
+        int end = begin + 3;
+        return dest.set(
+                values[begin] + (values[end] - values[begin]) * factor,
+                values[begin + 1] + (values[end + 1] - values[begin + 1]) * factor,
+                values[begin + 2] + (values[end + 2] - values[begin + 2]) * factor);
+    }
+
+    private static Vector3f getVector(float[] values, int keyIndex, Vector3f dest) {
+        int base = keyIndex * 3;
+        return dest.set(values[base], values[base + 1], values[base + 2]);
+    }
+
+    private static void setVector(float[] values, int keyIndex, Vector3f vector) {
+        int base = keyIndex * 3;
+        values[base] = vector.x;
+        values[base + 1] = vector.y;
+        values[base + 2] = vector.z;
+    }
+
+    private static Quaternionf getQuaternion(float[] values, int keyIndex, Quaternionf dest) {
+        int base = keyIndex * 4;
+        return dest.set(values[base], values[base + 1], values[base + 2], values[base + 3]);
     }
 
     @Override
@@ -375,9 +408,9 @@ public final class GVRAnimationChannel implements PrettyPrint {
         sb.append(Log.getSpaces(indent));
         sb.append(GVRAnimationChannel.class.getSimpleName());
         sb.append(" [nodeName=" + m_nodeName + ", positionKeys="
-                + mPositionKeys.length + ", rotationKeys="
-                + mRotationKeys.length + ", scaleKeys="
-                + mScaleKeys.length + ", m_preState=" + mPreState
+                + mPosTimes.length + ", rotationKeys="
+                + mRotTimes.length + ", scaleKeys="
+                + mScaleTimes.length + ", m_preState=" + mPreState
                 + ", m_postState=" + mPostState + "]");
         sb.append(System.lineSeparator());
     }
@@ -394,13 +427,26 @@ public final class GVRAnimationChannel implements PrettyPrint {
      */
     private final String m_nodeName;
 
-    private final GVRPositionKey[] mPositionKeys;
-    private final GVRRotationKey[] mRotationKeys;
-    private final GVRScaleKey[] mScaleKeys;
-
-    private final KeyFrameInterplator<Vector3f> mPositionInterpolator;
-    private final KeyFrameInterplator<Quaternionf> mRotationInterpolator;
-    private final KeyFrameInterplator<Vector3f> mScaleInterpolator;
+    /*
+     * Keyframes are stored as parallel arrays of times and values: x, y, z
+     * for positions and scales, x, y, z, w for rotations.
+     */
+    private final float[] mPosTimes;
+    private final float[] mPosValues;
+    private final float[] mRotTimes;
+    private final float[] mRotValues;
+    private final float[] mScaleTimes;
+    private final float[] mScaleValues;
+
+    private final KeyIndexFinder mPositionFinder;
+    private final KeyIndexFinder mRotationFinder;
+    private final KeyIndexFinder mScaleFinder;
+
+    // Scratch values, so that animate() does not allocate
+    private final Vector3f mPosition = new Vector3f();
+    private final Vector3f mScale = new Vector3f();
+    private final Quaternionf mRotation = new Quaternionf();
+    private final Quaternionf mRotationEnd = new Quaternionf();
 
     protected Matrix4f mCurrentTransform;
 
@@ -12,6 +12,8 @@ import org.gearvrf.GVRBone;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRTransform;
+import org.gearvrf.GVRTransformBatch;
 import org.gearvrf.GVRVertexBoneData;
 import org.gearvrf.utility.Log;
 import org.joml.Matrix4f;
@@ -30,6 +32,20 @@ public class GVRSkinningController {
     protected Map<String, SceneAnimNode> nodeByName;
     protected Map<GVRSceneObject, List<GVRBone>> boneMap;
 
+    // Transforms read every frame: un-animated nodes and the scene objects
+    // that own the bones, fetched with one JNI call each for TRS and matrices
+    protected GVRTransformBatch transformBatch;
+    protected Map<GVRSceneObject, Integer> transformIndices;
+
+    // Flattened boneMap, resolved once so that animate() does no lookups
+    protected List<BoneBinding> boneBindings;
+
+    // Scratch values, so that animate() does not allocate
+    private final Matrix4f rootTransform = new Matrix4f();
+    private final Matrix4f finalMatrix = new Matrix4f();
+    private final Matrix4f globalInverse = new Matrix4f();
+    private final float[] finalMatrixArray = new float[16];
+
     protected class SceneAnimNode {
         GVRSceneObject sceneObject;
         SceneAnimNode parent;
@@ -37,6 +53,7 @@ public class GVRSkinningController {
         Matrix4f localTransform;
         Matrix4f globalTransform;
         int channelId;
+        int transformIndex;
 
         SceneAnimNode(GVRSceneObject sceneObject, SceneAnimNode parent) {
             this.sceneObject = sceneObject;
@@ -45,6 +62,21 @@ public class GVRSkinningController {
             localTransform = new Matrix4f();
             globalTransform = new Matrix4f();
             channelId = -1;
+            transformIndex = -1;
+        }
+    }
+
+    protected static class BoneBinding {
+        final GVRBone bone;
+        final SceneAnimNode node;
+        final Matrix4f offsetMatrix;
+        final int ownerIndex;
+
+        BoneBinding(GVRBone bone, SceneAnimNode node, int ownerIndex) {
+            this.bone = bone;
+            this.node = node;
+            this.offsetMatrix = bone.getOffsetMatrix();
+            this.ownerIndex = ownerIndex;
         }
     }
 
@@ -64,6 +96,43 @@ public class GVRSkinningController {
 
         animRoot = createAnimationTree(sceneRoot, null);
         pruneTree(animRoot);
+        createTransformBatch();
+    }
+
+    protected void createTransformBatch() {
+        List<GVRTransform> transforms = new ArrayList<GVRTransform>();
+        transformIndices = new HashMap<GVRSceneObject, Integer>();
+        boneBindings = new ArrayList<BoneBinding>();
+
+        addBatchedTransforms(animRoot, transforms);
+        for (Entry<GVRSceneObject, List<GVRBone>> ent : boneMap.entrySet()) {
+            SceneAnimNode node = nodeByName.get(ent.getKey().getName());
+            for (GVRBone bone : ent.getValue()) {
+                int ownerIndex = addBatchedTransform(bone.getSceneObject(), transforms);
+                boneBindings.add(new BoneBinding(bone, node, ownerIndex));
+            }
+        }
+
+        transformBatch = new GVRTransformBatch(transforms);
+    }
+
+    private void addBatchedTransforms(SceneAnimNode node, List<GVRTransform> transforms) {
+        if (node.channelId == -1) {
+            node.transformIndex = addBatchedTransform(node.sceneObject, transforms);
+        }
+        for (SceneAnimNode child : node.children) {
+            addBatchedTransforms(child, transforms);
+        }
+    }
+
+    private int addBatchedTransform(GVRSceneObject sceneObject, List<GVRTransform> transforms) {
+        Integer index = transformIndices.get(sceneObject);
+        if (index == null) {
+            index = transforms.size();
+            transforms.add(sceneObject.getTransform());
+            transformIndices.put(sceneObject, index);
+        }
+        return index;
     }
 
     protected SceneAnimNode createAnimationTree(GVRSceneObject node, SceneAnimNode parent) {
@@ -136,15 +205,15 @@ public class GVRSkinningController {
         float animationTime = timeInTicks % animation.mDurationTicks; // auto-repeat
         animationTransform = animation.getTransforms(animationTime);
 
-        updateTransforms(animRoot, new Matrix4f(), animationTransform);
+        transformBatch.pull();
+        transformBatch.readModelMatrices();
 
-        for (Entry<GVRSceneObject, List<GVRBone>> ent : boneMap.entrySet()) {
-            // Transform all bone splits (a bone can be split into multiple instances if they influence
-            // different meshes)
-            SceneAnimNode node = nodeByName.get(ent.getKey().getName());
-            for (GVRBone bone : ent.getValue()) {
-                updateBoneMatrices(bone, node);
-            }
+        updateTransforms(animRoot, rootTransform.identity(), animationTransform);
+
+        // Transform all bone splits (a bone can be split into multiple instances if they influence
+        // different meshes)
+        for (int i = 0, n = boneBindings.size(); i < n; ++i) {
+            updateBoneMatrices(boneBindings.get(i));
         }
     }
 
@@ -153,25 +222,25 @@ public class GVRSkinningController {
             node.localTransform.set(animationTransform[node.channelId]);
         } else {
             // Default local transform
-            node.localTransform.set(node.sceneObject.getTransform().getLocalModelMatrix4f());
+            transformBatch.getLocalModelMatrix(node.transformIndex, node.localTransform);
         }
 
         parentTransform.mul(node.localTransform, node.globalTransform);
 
-        for (SceneAnimNode child : node.children) {
-            updateTransforms(child, node.globalTransform, animationTransform);
+        List<SceneAnimNode> children = node.children;
+        for (int i = 0, n = children.size(); i < n; ++i) {
+            updateTransforms(children.get(i), node.globalTransform, animationTransform);
         }
     }
 
-    protected void updateBoneMatrices(GVRBone bone, SceneAnimNode node) {
-        Matrix4f finalMatrix = new Matrix4f().set(bone.getOffsetMatrix());
-
-        node.globalTransform.mul(finalMatrix, finalMatrix);
+    protected void updateBoneMatrices(BoneBinding binding) {
+        binding.node.globalTransform.mul(binding.offsetMatrix, finalMatrix);
 
-        Matrix4f globalInverse = new Matrix4f().set(bone.getSceneObject().getTransform().getModelMatrix4f()).invert();
+        transformBatch.getModelMatrix(binding.ownerIndex, globalInverse).invert();
         globalInverse.mul(finalMatrix, finalMatrix);
 
-        bone.setFinalTransformMatrix(finalMatrix);
+        finalMatrix.get(finalMatrixArray);
+        binding.bone.setFinalTransformMatrix(finalMatrixArray);
     }
 
     /* Returns true if the subtree should be kept */
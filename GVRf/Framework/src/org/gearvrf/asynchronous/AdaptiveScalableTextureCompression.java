@@ -17,6 +17,8 @@ package org.gearvrf.asynchronous;
 
 import static org.gearvrf.asynchronous.GLESX.*;
 
+import java.nio.ByteBuffer;
+
 import org.gearvrf.utility.RuntimeAssertion;
 
 /** .astc loader */
@@ -48,6 +50,11 @@ class AdaptiveScalableTextureCompression extends GVRCompressedTextureLoader {
 
     @Override
     public CompressedTexture parse(byte[] data, Reader reader) {
+        return parse(ByteBuffer.wrap(data), reader);
+    }
+
+    @Override
+    public CompressedTexture parse(ByteBuffer data, Reader reader) {
         reader.skip(4);
         int blockdim_x = reader.read(1);
         int blockdim_y = reader.read(1);
@@ -60,8 +67,9 @@ class AdaptiveScalableTextureCompression extends GVRCompressedTextureLoader {
         int width = reader.read(3);
         int height = reader.read(3);
 
-        return CompressedTexture(format, width, height, data.length - 16, 1,
-                data, 16, data.length - 16);
+        int dataBytes = data.remaining() - 16;
+        return CompressedTexture(format, width, height, dataBytes, 1, data, 16,
+                dataBytes);
     }
 
     /**
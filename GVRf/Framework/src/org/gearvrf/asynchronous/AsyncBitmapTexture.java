@@ -301,14 +301,41 @@ abstract class AsyncBitmapTexture {
             }
         };
 
+        private final boolean progressive;
+
         protected AsyncLoadTextureResource(GVRContext gvrContext,
                 GVRAndroidResource request,
                 CancelableCallback<GVRHybridObject> callback, int priority) {
-            super(gvrContext, sConverter, request, callback);
+            this(gvrContext, request, callback, priority,
+                    GVRAsynchronousResourceLoader.sProgressive);
+        }
+
+        private AsyncLoadTextureResource(GVRContext gvrContext,
+                GVRAndroidResource request,
+                CancelableCallback<GVRHybridObject> callback, int priority,
+                boolean progressive) {
+            super(gvrContext, progressive ? new RefiningConverter(request,
+                    priority) : sConverter, request, callback);
+            this.progressive = progressive;
         }
 
         @Override
         protected Bitmap loadResource() {
+            if (progressive) {
+                // The RefiningConverter will rewind, decode again, and close
+                // the stream - but only if there is a preview to convert
+                resource.mark();
+                Bitmap preview = null;
+                try {
+                    preview = decodeStream(resource.getStream(), PREVIEW_SIZE,
+                            PREVIEW_SIZE, true, null, false);
+                } finally {
+                    if (preview == null) {
+                        resource.closeStream();
+                    }
+                }
+                return preview;
+            }
             Bitmap bitmap = decodeStream(resource.getStream(),
                     glMaxTextureSize, glMaxTextureSize, true, null, false);
             resource.closeStream();
@@ -316,6 +343,71 @@ abstract class AsyncBitmapTexture {
         }
     }
 
+    /**
+     * Longest side of the subsampled preview that a progressive load
+     * delivers first. {@code decodeStream()} only shrinks by powers of two, so
+     * the preview may be up to twice this size.
+     */
+    private static final int PREVIEW_SIZE = 256;
+
+    /**
+     * Converts a progressive load's preview to a texture, then decodes the
+     * full-size image in the background and copies it into the same texture.
+     */
+    private static class RefiningConverter implements
+            GlConverter<GVRTexture, Bitmap> {
+
+        private final GVRAndroidResource resource;
+        private final int priority;
+
+        RefiningConverter(GVRAndroidResource resource, int priority) {
+            this.resource = resource;
+            this.priority = priority;
+        }
+
+        @Override
+        public GVRTexture convert(final GVRContext gvrContext, Bitmap preview) {
+            final GVRBitmapTexture texture = new GVRBitmapTexture(gvrContext,
+                    preview);
+
+            // A full-size decode: keep it under the loads' thread limit
+            Throttler.spawnDecode(new Runnable() {
+
+                @Override
+                public void run() {
+                    final Bitmap bitmap;
+                    try {
+                        resource.reset();
+                        bitmap = decodeStream(resource.getStream(),
+                                glMaxTextureSize, glMaxTextureSize, true, null,
+                                false);
+                    } finally {
+                        resource.closeStream();
+                    }
+                    if (bitmap == null) {
+                        // Keep the preview
+                        Log.w(TAG, "Couldn't refine %s", resource);
+                        return;
+                    }
+                    gvrContext.runOnGlThread(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            // update() would only replace level 0, leaving
+                            // the preview's (smaller) mip chain behind
+                            texture.refine(bitmap);
+                            // The cache sized the texture by its preview
+                            gvrContext.getTextureCache().resized(resource,
+                                    texture);
+                        }
+                    }, priority);
+                }
+            }, priority);
+
+            return texture;
+        }
+    }
+
     static {
         Throttler.registerDatatype(TEXTURE_CLASS,
                 new AsyncLoaderFactory<GVRTexture, Bitmap>() {
@@ -21,6 +21,7 @@ import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
+import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRTextureParameters;
 import org.gearvrf.asynchronous.GVRCompressedTextureLoader.Reader;
@@ -90,24 +91,24 @@ class CompressedTexture {
         this.data = data;
 
         /*
-         * Initial position is the data offset in backing array. We cannot use
-         * ByteBuffer.arrayOffset() which is always 0.
+         * Initial position is the data offset in the buffer. For a buffer from
+         * ByteBuffer.wrap(), that is also the offset in the backing array.
          */
         this.dataOffset = data.position();
     }
 
     /*
-     * Get backing array.
+     * Get backing array. Null for a direct (e.g., memory-mapped) buffer.
      */
     protected byte[] getArray() {
-        return data.array();
+        return data.hasArray() ? data.array() : null;
     }
 
     /*
      * Get offset of data in backing array.
      */
     protected int getArrayOffset() {
-        return dataOffset;
+        return data.arrayOffset() + dataOffset;
     }
 
     /*
@@ -118,18 +119,104 @@ class CompressedTexture {
     }
 
     GVRCompressedTexture toTexture(GVRContext gvrContext, int quality) {
-        return new GVRCompressedTexture(gvrContext, internalformat, width,
-                height, imageSize, getArray(), getArrayOffset(), levels, quality);
+        return toTexture(gvrContext, quality,
+                gvrContext.DEFAULT_TEXTURE_PARAMETERS);
     }
 
     // Texture parameters
     GVRCompressedTexture toTexture(GVRContext gvrContext, int quality,
             GVRTextureParameters textureParameters) {
+        if (data.isDirect()) {
+            // Upload straight from the mapped file
+            return new GVRCompressedTexture(gvrContext, internalformat, width,
+                    height, imageSize, data, dataOffset, levels, quality,
+                    textureParameters);
+        }
         return new GVRCompressedTexture(gvrContext, internalformat, width,
                 height, imageSize, getArray(), getArrayOffset(), levels, quality,
                 textureParameters);
     }
 
+    /**
+     * Like {@link #toTexture(GVRContext, int)}, but may upload a usable
+     * low-resolution version first, and add the detail on later frames (as
+     * deferrable GL tasks, at {@code priority}). Formats that can't do that
+     * just call {@link #toTexture(GVRContext, int)}.
+     */
+    GVRCompressedTexture toProgressiveTexture(GVRContext gvrContext,
+            int quality, int priority) {
+        return toTexture(gvrContext, quality);
+    }
+
+    /**
+     * Maps a resource into memory, if possible; detects type, and calls the
+     * appropriate {@link GVRCompressedTextureLoader#parse(ByteBuffer, Reader)}
+     * method. If the resource can't be mapped, this falls back to
+     * {@link #load(InputStream, int, boolean)}.
+     * 
+     * <p>
+     * Either way, this closes the resource's stream.
+     * 
+     * @param resource
+     *            A compressed texture file
+     * @return A {@link CompressedTexture}
+     * @throws IOException
+     *             Does not catch any internal exceptions
+     */
+    static CompressedTexture load(GVRAndroidResource resource)
+            throws IOException {
+        ByteBuffer data = map(resource);
+        if (data == null) {
+            try {
+                return load(resource.getStream(), -1, false);
+            } finally {
+                resource.closeStream();
+            }
+        }
+        resource.closeStream();
+
+        GVRCompressedTextureLoader loader = sniff(data);
+        if (loader == null) {
+            throw new IllegalArgumentException(
+                    "No loader thinks this smells right");
+        }
+        return loader.parse(data, new Reader(data));
+    }
+
+    /**
+     * Like {@link #parse(InputStream, boolean, GVRCompressedTextureLoader)},
+     * but maps the resource into memory, if possible. Closes the resource's
+     * stream.
+     */
+    static CompressedTexture parse(GVRAndroidResource resource,
+            GVRCompressedTextureLoader loader) throws IOException {
+        ByteBuffer data = map(resource);
+        if (data == null) {
+            try {
+                return parse(resource.getStream(), false, loader);
+            } finally {
+                resource.closeStream();
+            }
+        }
+        resource.closeStream();
+
+        return loader.parse(data, new Reader(data));
+    }
+
+    /*
+     * Returns null if the resource is not in a file that we can map. Mapping
+     * is an optimization: we don't want a mapping failure to fail the load.
+     */
+    private static ByteBuffer map(GVRAndroidResource resource) {
+        try {
+            return resource.getMappedBuffer();
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     /**
      * Loads a file into memory; detects type, and calls the appropriate
      * {@link GVRCompressedTextureLoader#parse(byte[], Reader)} method.
@@ -212,6 +299,39 @@ class CompressedTexture {
         }
     }
 
+    /**
+     * Sniffs the first
+     * {@linkplain GVRCompressedTextureLoader#maximumHeaderLength header bytes}
+     * of a buffer: only that prefix is copied.
+     * 
+     * @return The one loader that recognizes the data, or {@code null}
+     */
+    static GVRCompressedTextureLoader sniff(ByteBuffer data) {
+        // Zero-padded, like readBytes(stream, bytes), if the file is short
+        byte[] header = new byte[GVRCompressedTextureLoader.maximumHeaderLength];
+        data.duplicate().get(header, 0,
+                Math.min(header.length, data.remaining()));
+
+        Reader reader = new Reader(header);
+
+        GVRCompressedTextureLoader valid = null;
+        List<GVRCompressedTextureLoader> loaders = GVRCompressedTextureLoader
+                .getLoaders();
+        synchronized (loaders) {
+            for (GVRCompressedTextureLoader loader : loaders) {
+                if (loader.sniff(header, reader)) {
+                    if (valid != null) {
+                        throw new IllegalArgumentException(
+                                "Multiple loaders think this smells right");
+                    }
+                    valid = loader;
+                }
+                reader.reset();
+            }
+            return valid;
+        }
+    }
+
     static CompressedTexture parse(InputStream stream, boolean closeStream,
             GVRCompressedTextureLoader loader) throws IOException {
         byte[] data;
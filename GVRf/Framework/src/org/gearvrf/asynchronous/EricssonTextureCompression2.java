@@ -17,6 +17,8 @@ package org.gearvrf.asynchronous;
 
 import static android.opengl.GLES30.*;
 
+import java.nio.ByteBuffer;
+
 import org.gearvrf.utility.RuntimeAssertion;
 
 import android.util.SparseArray;
@@ -44,6 +46,11 @@ class EricssonTextureCompression2 extends GVRCompressedTextureLoader {
 
     @Override
     public CompressedTexture parse(byte[] data, Reader reader) {
+        return parse(ByteBuffer.wrap(data), reader);
+    }
+
+    @Override
+    public CompressedTexture parse(ByteBuffer data, Reader reader) {
         // paddedWidthMSB = data[8];
         // paddedWidthLSB = data[9];
         // paddedHeightMSB = data[10];
@@ -84,7 +91,7 @@ class EricssonTextureCompression2 extends GVRCompressedTextureLoader {
         int imageSize = etc2(width) * etc2(height) * multiplier;
 
         return CompressedTexture(internalformat, width, height, imageSize, 1,
-                data, 16, data.length - 16);
+                data, 16, data.remaining() - 16);
     }
 
     private int etc2(int dimension) {
@@ -0,0 +1,146 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.asynchronous;
+
+import java.util.Arrays;
+
+import android.util.SparseIntArray;
+
+/**
+ * A snapshot of the asynchronous loading pipeline's counters.
+ *
+ * Get one from {@link GVRAsynchronousResourceLoader#getStatistics()}. The
+ * counters accumulate from startup, or from the last
+ * {@link GVRAsynchronousResourceLoader#resetStatistics()}.
+ *
+ * <p>
+ * Times are kept in histograms with power-of-two buckets: bucket 0 counts
+ * times under 1 millisecond, and bucket {@code i} counts times from
+ * {@code 2^(i-1)} up to {@code 2^i} milliseconds. The last bucket also counts
+ * everything longer.
+ */
+public final class GVRAsyncLoadStatistics {
+
+    /** Number of buckets in each histogram */
+    public static final int HISTOGRAM_BUCKETS = 12;
+
+    private final int mRequests;
+    private final int mMergedRequests;
+    private final int mRecentlyLoadedHits;
+    private final int mLoads;
+    private final int mFailures;
+    private final int mCancellations;
+    private final SparseIntArray mQueueDepths;
+    private final int[] mDecodeTimes;
+    private final int[] mGlWaitTimes;
+
+    GVRAsyncLoadStatistics(int requests, int mergedRequests,
+            int recentlyLoadedHits, int loads, int failures, int cancellations,
+            SparseIntArray queueDepths, int[] decodeTimes, int[] glWaitTimes) {
+        mRequests = requests;
+        mMergedRequests = mergedRequests;
+        mRecentlyLoadedHits = recentlyLoadedHits;
+        mLoads = loads;
+        mFailures = failures;
+        mCancellations = cancellations;
+        mQueueDepths = queueDepths;
+        mDecodeTimes = decodeTimes;
+        mGlWaitTimes = glWaitTimes;
+    }
+
+    /** @return Number of load requests */
+    public int getRequestCount() {
+        return mRequests;
+    }
+
+    /**
+     * @return Number of requests that joined a pending load of the same
+     *         resource, instead of starting their own
+     */
+    public int getMergedRequestCount() {
+        return mMergedRequests;
+    }
+
+    /**
+     * @return Number of requests that were served from the
+     *         {@linkplain GVRAsynchronousResourceLoader#setRecentlyLoadedWindow(long)
+     *         recently loaded window}
+     */
+    public int getRecentlyLoadedHitCount() {
+        return mRecentlyLoadedHits;
+    }
+
+    /** @return Number of resources actually read and decoded */
+    public int getLoadCount() {
+        return mLoads;
+    }
+
+    /** @return Number of loads that threw an exception or returned nothing */
+    public int getFailureCount() {
+        return mFailures;
+    }
+
+    /**
+     * @return Number of pending loads that were dropped because none of their
+     *         callbacks still wanted the resource
+     */
+    public int getCancellationCount() {
+        return mCancellations;
+    }
+
+    /**
+     * @return Number of loads waiting for a decode thread, by priority. Loads
+     *         that are running are not counted.
+     */
+    public SparseIntArray getQueueDepths() {
+        return mQueueDepths.clone();
+    }
+
+    /** @return Histogram of the time spent decoding, on background threads */
+    public int[] getDecodeTimes() {
+        return mDecodeTimes.clone();
+    }
+
+    /**
+     * @return Histogram of the time between the end of a decode and the start
+     *         of its GL conversion (upload)
+     */
+    public int[] getGlWaitTimes() {
+        return mGlWaitTimes.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "requests=%d, merged=%d, recentlyLoadedHits=%d, loads=%d, failures=%d, cancellations=%d, queueDepths=%s, decodeTimes=%s, glWaitTimes=%s",
+                mRequests, mMergedRequests, mRecentlyLoadedHits, mLoads,
+                mFailures, mCancellations, mQueueDepths,
+                Arrays.toString(mDecodeTimes), Arrays.toString(mGlWaitTimes));
+    }
+
+    /**
+     * @return The histogram bucket for a time
+     */
+    static int bucket(long nanoseconds) {
+        long milliseconds = nanoseconds / 1000000;
+        int bucket = 0;
+        while (milliseconds > 0 && bucket < HISTOGRAM_BUCKETS - 1) {
+            milliseconds >>= 1;
+            bucket += 1;
+        }
+        return bucket;
+    }
+}
@@ -62,6 +62,76 @@ public class GVRAsynchronousResourceLoader {
         AsyncBitmapTexture.setup(gvrContext);
     }
 
+    /**
+     * Get a snapshot of the loading pipeline's counters: requests, merged
+     * requests, cancellations, queue depths, and decode and GL wait times.
+     * 
+     * @return A new snapshot
+     */
+    public static GVRAsyncLoadStatistics getStatistics() {
+        return Throttler.getStatistics();
+    }
+
+    /**
+     * Zero the counters returned by {@link #getStatistics()}.
+     */
+    public static void resetStatistics() {
+        Throttler.resetStatistics();
+    }
+
+    /**
+     * Share loads between requests that arrive shortly after each other.
+     * 
+     * Requests for a resource that is still loading always share the load.
+     * With a recently loaded window, a request for a resource that finished
+     * loading less than {@code milliseconds} ago gets the same object too, so
+     * long as it is still in memory. This helps when a scene load requests
+     * the same resource in several bursts.
+     * 
+     * @param milliseconds
+     *            Window length; 0 (the default) disables the window.
+     */
+    public static void setRecentlyLoadedWindow(long milliseconds) {
+        Throttler.setRecentlyLoadedWindow(milliseconds);
+    }
+
+    /**
+     * Show a low-resolution copy of each texture first, then refine it.
+     * 
+     * When progressive loading is on, bitmap texture loads decode a heavily
+     * subsampled copy of the image, and deliver a texture made from that.
+     * The full-size image is then decoded in the background and copied into
+     * the <em>same</em> {@link GVRTexture}, so materials that already use the
+     * texture simply get sharper. Mipmapped KTX textures (loaded with
+     * {@link GVRContext#loadTexture(GVRAndroidResource.TextureCallback, GVRAndroidResource)
+     * loadTexture()} or
+     * {@link GVRContext#loadFutureTexture(GVRAndroidResource)
+     * loadFutureTexture()}) upload their smallest mip levels first, and add
+     * the larger levels one per frame.
+     * 
+     * <p>
+     * This trades some extra work for a much shorter time to first pixel on
+     * large images, like panoramas.
+     * 
+     * @param progressive
+     *            {@code true} to load progressively; {@code false} (the
+     *            default) to deliver each texture only when it is complete.
+     */
+    public static void setProgressiveTextureLoading(boolean progressive) {
+        sProgressive = progressive;
+    }
+
+    /**
+     * @return Whether textures are
+     *         {@linkplain #setProgressiveTextureLoading(boolean) loaded
+     *         progressively}
+     */
+    public static boolean getProgressiveTextureLoading() {
+        return sProgressive;
+    }
+
+    static volatile boolean sProgressive = false;
+
     /**
      * Load a compressed texture asynchronously.
      * 
@@ -142,8 +212,7 @@ public class GVRAsynchronousResourceLoader {
                 public void run() {
                     try {
                         final CompressedTexture compressedTexture = CompressedTexture
-                                .load(resource.getStream(), -1, false);
-                        resource.closeStream();
+                                .load(resource);
                         // Create texture on GL thread
                         gvrContext.runOnGlThread(new Runnable() {
 
@@ -156,7 +225,7 @@ public class GVRAsynchronousResourceLoader {
                                 }
                                 callback.loaded(texture, resource);
                             }
-                        });
+                        }, GVRContext.DEFAULT_PRIORITY);
                     } catch (Exception e) {
                         callback.failed(e, resource);
                     }
@@ -281,20 +350,24 @@ public class GVRAsynchronousResourceLoader {
                             // We have a compressed texture: proceed on this
                             // thread
                             final CompressedTexture compressedTexture = CompressedTexture
-                                    .parse(resource.getStream(), false, loader);
-                            resource.closeStream();
+                                    .parse(resource, loader);
+
+                            final boolean progressive = sProgressive;
 
                             // Create texture on GL thread
                             gvrContext.runOnGlThread(new Runnable() {
 
                                 @Override
                                 public void run() {
-                                    GVRTexture texture = compressedTexture
-                                            .toTexture(gvrContext, quality);
+                                    GVRTexture texture = progressive ? compressedTexture
+                                            .toProgressiveTexture(gvrContext,
+                                                    quality, priority)
+                                            : compressedTexture.toTexture(
+                                                    gvrContext, quality);
                                     textureCache.put(resource, texture);
                                     callback.loaded(texture, resource);
                                 }
-                            });
+                            }, priority);
                         } else {
                             // We don't have a compressed texture: pass to
                             // AsyncBitmapTexture code
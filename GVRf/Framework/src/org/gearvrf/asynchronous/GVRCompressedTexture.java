@@ -17,6 +17,8 @@ package org.gearvrf.asynchronous;
 
 import static android.opengl.GLES20.*;
 
+import java.nio.ByteBuffer;
+
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRTexture;
 import org.gearvrf.GVRTextureParameters;
@@ -77,10 +79,27 @@ public class GVRCompressedTexture extends GVRTexture {
                 textureParameters.getCurrentValuesArray()));
         mLevels = levels;
         mQuality = GVRCompressedTexture.clamp(quality);
+        setByteCount(estimateByteCount(imageSize, levels));
 
         updateMinification();
     }
 
+    // Direct (memory-mapped) data
+    GVRCompressedTexture(GVRContext gvrContext, int internalFormat, int width,
+            int height, int imageSize, ByteBuffer data, int dataOffset,
+            int levels, int quality,
+            GVRTextureParameters textureParameters) {
+        super(gvrContext, NativeCompressedTexture.bufferConstructor(GL_TARGET,
+                internalFormat, width, height, imageSize, data, dataOffset,
+                textureParameters.getCurrentValuesArray()));
+        mLevels = levels;
+        mQuality = GVRCompressedTexture.clamp(quality);
+        setByteCount(estimateByteCount(imageSize, levels));
+
+        updateMinification();
+    }
+
+    // The caller uploads the levels, and sets the byte count
     GVRCompressedTexture(GVRContext gvrContext, int target, int levels,
             int quality) {
         super(gvrContext, NativeCompressedTexture.mipmappedConstructor(target));
@@ -90,6 +109,11 @@ public class GVRCompressedTexture extends GVRTexture {
         updateMinification();
     }
 
+    /** Size of all the levels, for a texture from the mipmapped constructor */
+    void setLevelsByteCount(long byteCount) {
+        setByteCount(byteCount);
+    }
+
     private void updateMinification() {
         boolean rebound = true; // in 2 out of 3 branches ...
         if (mLevels > 1) {
@@ -166,5 +190,9 @@ class NativeCompressedTexture {
             int width, int height, int imageSize, byte[] data, int dataOffset,
             int[] textureParameterValues);
 
+    static native long bufferConstructor(int target, int internalFormat,
+            int width, int height, int imageSize, ByteBuffer data,
+            int dataOffset, int[] textureParameterValues);
+
     static native long mipmappedConstructor(int target);
 }
\ No newline at end of file
@@ -38,10 +38,12 @@ import android.opengl.GLES20;
  * <p>
  * The general data flow is
  * <ul>
- * <li>The internal load method loads the file into memory
+ * <li>The internal load method maps the file into memory (or, if the file
+ * can't be mapped, reads it into a {@code byte[]})
  * <li>If one and only one {@linkplain #sniff(byte[], Reader) sniff()} method
- * returns {@code true}, the data is passed to the corresponding
- * {@linkplain #parse(byte[], Reader) parse()} method
+ * returns {@code true} for the file's first {@link #headerLength()} bytes,
+ * the data is passed to the corresponding
+ * {@linkplain #parse(ByteBuffer, Reader) parse()} method
  * <li>The {@code parse()} method extracts GL parameters, and uses
  * {@code CompressedTexture()} to return an internal {@code CompressedTexture}
  * instance
@@ -113,6 +115,31 @@ public abstract class GVRCompressedTextureLoader {
      */
     public abstract CompressedTexture parse(byte[] data, Reader reader);
 
+    /**
+     * Parse the header of a file that is in a {@link ByteBuffer}, and return a
+     * {@link CompressedTexture}.
+     * 
+     * The buffer is usually a memory-mapped file. Override this method, and
+     * return
+     * {@link #CompressedTexture(int, int, int, int, int, ByteBuffer, int, int)}
+     * so that the texture is uploaded straight from the file, without ever
+     * copying it onto the Java heap. The default implementation copies the
+     * buffer into a {@code byte[]} and calls {@link #parse(byte[], Reader)}.
+     * 
+     * @param data
+     *            A compressed texture file's contents, from
+     *            {@code data.position()} to {@code data.limit()}. Don't
+     *            change the buffer's position or limit.
+     * @param reader
+     *            A data reader, pointing to the buffer's position
+     * @return A {@code CompressedTexture}
+     */
+    public CompressedTexture parse(ByteBuffer data, Reader reader) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return parse(bytes, new Reader(bytes));
+    }
+
     /**
      * Provides external parsers access to the internal
      * {@code CompressedTexture} constructor.
@@ -164,6 +191,43 @@ public abstract class GVRCompressedTextureLoader {
                 levels, buffer);
     }
 
+    /**
+     * Provides external parsers access to the internal
+     * {@code CompressedTexture} constructor, for data in a {@link ByteBuffer}.
+     * 
+     * Just like
+     * {@link #CompressedTexture(int, int, int, int, int, byte[], int, int)},
+     * except that the texture data stays in {@code data}: nothing is copied.
+     * 
+     * @param data
+     *            The {@code ByteBuffer} passed to
+     *            {@link #parse(ByteBuffer, Reader)}
+     * @param dataOffset
+     *            Header length - offset of first byte of texture data,
+     *            relative to {@code data.position()}
+     * @param dataBytes
+     *            Number of bytes of texture data
+     */
+    protected CompressedTexture CompressedTexture(int internalformat,
+            int width, int height, int imageSize, int levels, ByteBuffer data,
+            int dataOffset, int dataBytes) {
+        return new CompressedTexture(internalformat, width, height, imageSize,
+                levels, view(data, dataOffset, dataBytes));
+    }
+
+    /**
+     * @return A view of {@code bytes} bytes of {@code data}, starting
+     *         {@code offset} bytes past its position. Shares {@code data}'s
+     *         contents, but has its own position and limit.
+     */
+    static ByteBuffer view(ByteBuffer data, int offset, int bytes) {
+        ByteBuffer view = data.duplicate();
+        int position = data.position() + offset;
+        view.limit(position + bytes);
+        view.position(position);
+        return view;
+    }
+
     /**
      * Register a loader with the 'sniffer'.
      * 
@@ -213,19 +277,27 @@ public abstract class GVRCompressedTextureLoader {
 
     /** Utility class for reading big- and little-endian numbers from a header */
     protected static final class Reader {
-        private final byte[] data;
-        // private final int length;
+        private final ByteBuffer data;
+        private final int base;
         private int readPointer;
 
         /** Wrap a Reader around a byte array */
         protected Reader(byte[] data) {
+            this(ByteBuffer.wrap(data));
+        }
+
+        /**
+         * Wrap a Reader around a buffer. The read pointer starts at the
+         * buffer's position; reading does not change the position.
+         */
+        protected Reader(ByteBuffer data) {
             this.data = data;
-            // this.length = data.length;
+            this.base = data.position();
             this.readPointer = 0;
         }
 
         private byte read() {
-            return data[readPointer++];
+            return data.get(base + readPointer++);
         }
 
         protected static final int INTEGER_BYTES = Integer.SIZE / Byte.SIZE;
@@ -23,6 +23,7 @@ import java.nio.ByteOrder;
 import org.gearvrf.GVRContext;
 import org.gearvrf.utility.Log;
 import org.gearvrf.utility.RuntimeAssertion;
+import org.gearvrf.utility.Threads;
 
 import android.opengl.GLES30;
 
@@ -68,6 +69,11 @@ class KTX extends GVRCompressedTextureLoader {
 
     @Override
     public CompressedTexture parse(byte[] data, Reader reader) {
+        return parse(ByteBuffer.wrap(data), reader);
+    }
+
+    @Override
+    public CompressedTexture parse(ByteBuffer data, Reader reader) {
         reader.skip(SIGNATURE.length * Reader.INTEGER_BYTES);
 
         int endianness = reader.readLE(Reader.INTEGER_BYTES);
@@ -128,7 +134,8 @@ class KTX extends GVRCompressedTextureLoader {
         int headerSize = (SIGNATURE.length + 13) * Reader.INTEGER_BYTES
                 + bytesOfKeyValueData;
 
-        ByteBuffer buffer = ByteBuffer.wrap(data, headerSize, data.length
+        // A view, not a copy: the mip levels are uploaded straight from data
+        ByteBuffer buffer = view(data, headerSize, data.remaining()
                 - headerSize);
         return new KtxCompressedTexture(
         /* glBaseInternalFormat */glInternalFormat, pixelWidth, pixelHeight,
@@ -173,10 +180,12 @@ class KTX extends GVRCompressedTextureLoader {
 
             result.rebind();
 
+            long byteCount = 0;
             for (int fileLevel = 0; fileLevel < levels; ++fileLevel) {
                 data.order(dataOrder);
                 int imageSize = data.getInt();
                 data.order(defaultOrder);
+                byteCount += imageSize;
 
                 int imagePadding = (4 - (imageSize & 0x03)) & 0x03;
 
@@ -195,8 +204,101 @@ class KTX extends GVRCompressedTextureLoader {
             }
 
             result.unbind();
+            result.setLevelsByteCount(byteCount);
+            return result;
+        }
+
+        /** Mip levels no bigger than this are uploaded right away */
+        private static final int PREVIEW_SIZE = 128;
+
+        /*
+         * Upload the smallest levels now, with GL_TEXTURE_BASE_LEVEL set to
+         * the largest of them, so the texture is complete (and drawable) right
+         * away. Each larger level is then uploaded by its own deferrable GL
+         * task, which lowers the base level when it's done.
+         */
+        @Override
+        GVRCompressedTexture toProgressiveTexture(GVRContext gvrContext,
+                int quality, int priority) {
+            if (levels <= 1) {
+                return toTexture(gvrContext, quality);
+            }
+
+            // Find each level, without moving the shared buffer's position
+            ByteBuffer data = getData().duplicate();
+            data.order(littleEndian ? ByteOrder.LITTLE_ENDIAN
+                    : ByteOrder.BIG_ENDIAN);
+            int[] offsets = new int[levels];
+            int[] sizes = new int[levels];
+            int position = data.position();
+            long byteCount = 0;
+            for (int fileLevel = 0; fileLevel < levels; ++fileLevel) {
+                int imageSize = data.getInt(position);
+                int imagePadding = (4 - (imageSize & 0x03)) & 0x03;
+                offsets[fileLevel] = position + Reader.INTEGER_BYTES;
+                sizes[fileLevel] = imageSize;
+                byteCount += imageSize;
+                position = offsets[fileLevel] + imageSize + imagePadding;
+            }
+
+            int baseLevel = levels - 1;
+            while (baseLevel > 0
+                    && Math.max(width >> (baseLevel - 1),
+                            height >> (baseLevel - 1)) <= PREVIEW_SIZE) {
+                --baseLevel;
+            }
+            if (Threads.VERBOSE_SCHEDULING) {
+                Log.d(TAG, "Progressive upload of %dx%d: levels %d..%d first",
+                        width, height, baseLevel, levels - 1);
+            }
+
+            GVRCompressedTexture result = new GVRCompressedTexture(gvrContext,
+                    GVRCompressedTexture.GL_TARGET, levels, quality);
+            // The size it will have once all the levels are uploaded
+            result.setLevelsByteCount(byteCount);
+
+            result.rebind();
+            for (int level = levels - 1; level >= baseLevel; --level) {
+                upload(data, offsets, sizes, level);
+            }
+            glTexParameteri(GL_TEXTURE_2D, GLES30.GL_TEXTURE_BASE_LEVEL,
+                    baseLevel);
+            result.unbind();
+
+            refine(gvrContext, result, data, offsets, sizes, baseLevel - 1,
+                    priority);
             return result;
         }
 
+        private void refine(final GVRContext gvrContext,
+                final GVRCompressedTexture texture, final ByteBuffer data,
+                final int[] offsets, final int[] sizes, final int level,
+                final int priority) {
+            if (level < 0) {
+                return;
+            }
+            gvrContext.runOnGlThread(new Runnable() {
+
+                @Override
+                public void run() {
+                    texture.rebind();
+                    upload(data, offsets, sizes, level);
+                    glTexParameteri(GL_TEXTURE_2D,
+                            GLES30.GL_TEXTURE_BASE_LEVEL, level);
+                    texture.unbind();
+
+                    refine(gvrContext, texture, data, offsets, sizes,
+                            level - 1, priority);
+                }
+            }, priority);
+        }
+
+        private void upload(ByteBuffer data, int[] offsets, int[] sizes,
+                int level) {
+            data.position(offsets[level]);
+            GLES30.glCompressedTexImage2D(GL_TEXTURE_2D, level,
+                    internalformat, Math.max(1, width >> level),
+                    Math.max(1, height >> level), 0, sizes[level], data);
+        }
     }
 }
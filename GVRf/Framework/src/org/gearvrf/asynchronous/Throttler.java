@@ -17,8 +17,11 @@ package org.gearvrf.asynchronous;
 
 import static org.gearvrf.utility.Threads.*;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
@@ -40,6 +43,7 @@ import org.gearvrf.utility.Threads.ThreadPolicyProvider;
 
 import android.graphics.Bitmap;
 import android.util.SparseArray;
+import android.util.SparseIntArray;
 
 /**
  * Asynchronous, heterogeneous resource loading with integrated thread
@@ -66,6 +70,27 @@ abstract class Throttler {
                 priority);
     }
 
+    static GVRAsyncLoadStatistics getStatistics() {
+        return statistics.snapshot(requests.deviceThreadLimiterPolicy
+                .getQueueDepths());
+    }
+
+    static void resetStatistics() {
+        statistics.reset();
+    }
+
+    static void setRecentlyLoadedWindow(long milliseconds) {
+        requests.setRecentlyLoadedWindow(milliseconds);
+    }
+
+    /**
+     * Runs a decode that is not a load request (like a progressive load's
+     * refinement) under the same thread limit as the loads.
+     */
+    static void spawnDecode(Runnable decode, int priority) {
+        requests.spawnDecode(decode, priority);
+    }
+
     /*
      * Static constants
      */
@@ -92,6 +117,66 @@ abstract class Throttler {
      */
     private static final int DECODE_THREAD_LIMIT = Math.max(CORE_COUNT - 1, 1);
 
+    private static final Statistics statistics = new Statistics();
+
+    /*
+     * Instrumentation
+     */
+
+    /**
+     * The counters behind {@link GVRAsyncLoadStatistics}.
+     */
+    private static class Statistics {
+        private int requests;
+        private int mergedRequests;
+        private int recentlyLoadedHits;
+        private int loads;
+        private int failures;
+        private int cancellations;
+        private final int[] decodeTimes = new int[GVRAsyncLoadStatistics.HISTOGRAM_BUCKETS];
+        private final int[] glWaitTimes = new int[GVRAsyncLoadStatistics.HISTOGRAM_BUCKETS];
+
+        synchronized void request(boolean merged, boolean recentlyLoaded) {
+            requests += 1;
+            if (merged) {
+                mergedRequests += 1;
+            }
+            if (recentlyLoaded) {
+                recentlyLoadedHits += 1;
+            }
+        }
+
+        synchronized void loaded(long decodeTime, boolean failed) {
+            loads += 1;
+            decodeTimes[GVRAsyncLoadStatistics.bucket(decodeTime)] += 1;
+            if (failed) {
+                failures += 1;
+            }
+        }
+
+        synchronized void glWait(long waitTime) {
+            glWaitTimes[GVRAsyncLoadStatistics.bucket(waitTime)] += 1;
+        }
+
+        synchronized void canceled() {
+            cancellations += 1;
+        }
+
+        synchronized GVRAsyncLoadStatistics snapshot(SparseIntArray queueDepths) {
+            return new GVRAsyncLoadStatistics(requests, mergedRequests,
+                    recentlyLoadedHits, loads, failures, cancellations,
+                    queueDepths, decodeTimes.clone(), glWaitTimes.clone());
+        }
+
+        synchronized void reset() {
+            requests = mergedRequests = recentlyLoadedHits = 0;
+            loads = failures = cancellations = 0;
+            for (int index = 0; index < decodeTimes.length; ++index) {
+                decodeTimes[index] = glWaitTimes[index] = 0;
+            }
+        }
+    }
+
     /*
      * Extension points
      */
@@ -171,6 +256,7 @@ abstract class Throttler {
         @Override
         public void run() {
             INTERMEDIATE async = null;
+            final long start = System.nanoTime();
             try {
                 async = loadResource(); // load resource, on background thread
             } catch (Throwable t) {
@@ -178,17 +264,27 @@ abstract class Throttler {
                 async = null;
                 callback.failed(t, resource);
             } finally {
+                final long decoded = System.nanoTime();
+                statistics.loaded(decoded - start, async == null);
+
                 if (async != null) {
                     final INTERMEDIATE loadedResource = async;
+                    // Uploads are deferrable, so a burst of loads is spread
+                    // over several frames
+                    final int priority = callback instanceof PriorityCancelable
+                            ? ((PriorityCancelable) callback).getPriority()
+                            : GVRContext.DEFAULT_PRIORITY;
                     gvrContext.runOnGlThread(new Runnable() {
 
                         @Override
                         public void run() {
+                            statistics.glWait(System.nanoTime() - decoded);
+
                             OUTPUT gvrfResource = converter.convert(gvrContext,
                                     loadedResource);
                             callback.loaded(gvrfResource, resource);
                         }
-                    });
+                    }, priority);
                 } else {
                     // loadResource() returned null
                     callback.failed(null, resource);
@@ -279,17 +375,94 @@ abstract class Throttler {
 
         >();
 
+        private final PriorityCancelingLifoThreadPolicyProvider deviceThreadLimiterPolicy = new PriorityCancelingLifoThreadPolicyProvider();
+
         private final ThreadLimiter<PriorityCancelable> deviceThreadLimiter = new ThreadLimiter<PriorityCancelable>(
-                DECODE_THREAD_LIMIT,
-                new PriorityCancelingLifoThreadPolicyProvider(),
+                DECODE_THREAD_LIMIT, deviceThreadLimiterPolicy,
                 /* Don't exceed DECODE_THREAD_LIMIT when a download gets wedged */
                 Integer.MAX_VALUE);
 
+        /*
+         * Recently loaded window: resources that finished loading in the
+         * last recentlyLoadedWindow nanoseconds, oldest first. A burst of
+         * requests for the same resource shares one load, even if the load
+         * finishes in the middle of the burst. Guarded by pendingRequests.
+         */
+        private long recentlyLoadedWindow = 0;
+        private final LinkedHashMap<GVRAndroidResource, RecentlyLoaded> recentlyLoaded = new LinkedHashMap<GVRAndroidResource, RecentlyLoaded>();
+
+        private class RecentlyLoaded {
+            final WeakReference<GVRHybridObject> resource;
+            final long time;
+
+            RecentlyLoaded(GVRHybridObject resource, long time) {
+                this.resource = new WeakReference<GVRHybridObject>(resource);
+                this.time = time;
+            }
+        }
+
+        void setRecentlyLoadedWindow(long milliseconds) {
+            synchronized (pendingRequests) {
+                recentlyLoadedWindow = milliseconds * 1000000;
+                if (recentlyLoadedWindow <= 0) {
+                    recentlyLoaded.clear();
+                }
+            }
+        }
+
+        /* Call holding the pendingRequests lock */
+        private GVRHybridObject lockedGetRecentlyLoaded(
+                GVRAndroidResource request,
+                Class<? extends GVRHybridObject> outClass) {
+            if (recentlyLoaded.isEmpty()) {
+                return null;
+            }
+
+            // Expire old entries
+            long expired = System.nanoTime() - recentlyLoadedWindow;
+            Iterator<RecentlyLoaded> iterator = recentlyLoaded.values()
+                    .iterator();
+            while (iterator.hasNext() && iterator.next().time < expired) {
+                iterator.remove();
+            }
+
+            RecentlyLoaded recent = recentlyLoaded.get(request);
+            if (recent == null) {
+                return null;
+            }
+            GVRHybridObject resource = recent.resource.get();
+            return outClass.isInstance(resource) ? resource : null;
+        }
+
         void registerDatatype(Class<? extends GVRHybridObject> targetClass,
                 AsyncLoaderFactory<? extends GVRHybridObject, ?> factory) {
             threadFactories.put(targetClass, factory);
         }
 
+        void spawnDecode(final Runnable decode, final int priority) {
+            deviceThreadLimiter.spawn(new PriorityCancelable() {
+
+                @Override
+                public void run() {
+                    decode.run();
+                }
+
+                @Override
+                public boolean stillWanted() {
+                    return true;
+                }
+
+                @Override
+                public void updatePriority() {
+                }
+
+                @Override
+                public int getPriority() {
+                    return priority;
+                }
+            });
+        }
+
         void registerCallback(GVRContext gvrContext,
                 Class<? extends GVRHybridObject> outClass,
                 CancelableCallback<? extends GVRHybridObject> callback,
@@ -311,7 +484,34 @@ abstract class Throttler {
             ThreadLimiter<PriorityCancelable> threadLimiter = deviceThreadLimiter;
 
             synchronized (pendingRequests) {
+                final GVRHybridObject recent = lockedGetRecentlyLoaded(request,
+                        outClass);
+                if (recent != null) {
+                    if (VERBOSE_SCHEDULING) {
+                        Log.d(TAG, "Thread %d: %s was recently loaded",
+                                threadId(), request);
+                    }
+                    statistics.request(false, true);
+
+                    // No one will ever read this stream
+                    request.closeStream();
+
+                    @SuppressWarnings("unchecked")
+                    final CancelableCallback<GVRHybridObject> recentCallback = (CancelableCallback<GVRHybridObject>) callback;
+                    final GVRAndroidResource recentRequest = request;
+                    // Loads always complete on the GL thread
+                    gvrContext.runOnGlThread(new Runnable() {
+
+                        @Override
+                        public void run() {
+                            recentCallback.loaded(recent, recentRequest);
+                        }
+                    });
+                    return;
+                }
+
                 PendingRequest pending = pendingRequests.get(request);
+                statistics.request(pending != null, false);
 
                 if (pending != null) {
                     if (request == pending.request) {
@@ -461,7 +661,16 @@ abstract class Throttler {
                             "ready(), thread %d: clearing pending request for request %s",
                             threadId(), request);
                 }
-                PendingRequest removed = pendingRequests.remove(request);
+                PendingRequest removed;
+                synchronized (pendingRequests) {
+                    if (gvrResource != null && recentlyLoadedWindow > 0) {
+                        // Re-insert, to keep oldest-first order
+                        recentlyLoaded.remove(request);
+                        recentlyLoaded.put(request, new RecentlyLoaded(
+                                gvrResource, System.nanoTime()));
+                    }
+                    removed = pendingRequests.remove(request);
+                }
                 if (RUNTIME_ASSERTIONS) {
                     if (removed != this) {
                         throw new RuntimeAssertion(
@@ -515,6 +724,7 @@ abstract class Throttler {
                             Log.d(TAG, "Canceling %s, request %s", this,
                                     request);
                         }
+                        statistics.canceled();
                         PendingRequest removed = pendingRequests
                                 .remove(request);
                         if (removed != this) {
@@ -584,6 +794,18 @@ abstract class Throttler {
         private final PriorityQueue<PriorityGroup> queue = new PriorityQueue<PriorityGroup>();
         private final SparseArray<PriorityGroup> groups = new SparseArray<PriorityGroup>();
 
+        /**
+         * @return Number of waiting requests, by priority
+         */
+        synchronized SparseIntArray getQueueDepths() {
+            SparseIntArray depths = new SparseIntArray(groups.size());
+            for (int index = 0, size = groups.size(); index < size; ++index) {
+                PriorityGroup group = groups.valueAt(index);
+                depths.put(group.priority, group.content.size());
+            }
+            return depths;
+        }
+
         private void addGroup(int priority, PriorityGroup newGroup) {
             queue.add(newGroup);
             groups.put(priority, newGroup);
@@ -595,7 +817,7 @@ abstract class Throttler {
         }
 
         @Override
-        public void put(PriorityCancelable procedure) {
+        public synchronized void put(PriorityCancelable procedure) {
             int priority = procedure.getPriority();
 
             PriorityGroup group = groups.get(priority);
@@ -610,7 +832,7 @@ abstract class Throttler {
         }
 
         @Override
-        public boolean isEmpty() {
+        public synchronized boolean isEmpty() {
             while (queue.size() > 0) {
                 PriorityGroup first = queue.peek();
 
@@ -635,7 +857,7 @@ abstract class Throttler {
         }
 
         @Override
-        public Runnable get() {
+        public synchronized Runnable get() {
             PriorityGroup first = queue.peek();
             if (first == null) {
                 return null;
@@ -650,7 +872,7 @@ abstract class Throttler {
         }
 
         @Override
-        public void reschedule(PriorityCancelable threadProc) {
+        public synchronized void reschedule(PriorityCancelable threadProc) {
             int priority = threadProc.getPriority();
             threadProc.updatePriority();
             int newPriority = threadProc.getPriority();
@@ -95,6 +95,18 @@ public enum AiAnimBehavior {
     }
 
 
+    /**
+     * Utility method for converting from java enums to c/c++ based integer
+     * enums.<p>
+     * 
+     * @param type the type to convert, may not be null
+     * @return the rawValue corresponding to type
+     */
+    static int toRawValue(AiAnimBehavior type) {
+        return type.m_rawValue;
+    }
+
+
     /**
      * Constructor.
      * 
@@ -63,6 +63,18 @@ public final class AiBone {
     }
     
     
+    /**
+     * This constructor is used by {@link GVRJassimpCache}. Do not call.
+     * 
+     * @param name the name
+     * @param offsetMatrix the wrapped offset matrix
+     */
+    AiBone(String name, Object offsetMatrix) {
+        m_name = name;
+        m_offsetMatrix = offsetMatrix;
+    }
+    
+    
     /**
      * Returns the name of the bone.
      * 
@@ -53,6 +53,18 @@ public final class AiBoneWeight {
     }
     
     
+    /**
+     * This constructor is used by {@link GVRJassimpCache}. Do not call.
+     * 
+     * @param vertexId the vertex index
+     * @param weight the weight
+     */
+    AiBoneWeight(int vertexId, float weight) {
+        m_vertexId = vertexId;
+        m_weight = weight;
+    }
+    
+    
     /**
      * Index of the vertex which is influenced by the bone.
      * 
@@ -292,6 +292,18 @@ public final class AiMaterial {
         }
 
 
+        /**
+         * Utility method for converting from java enums to c/c++ based 
+         * integer enums.<p>
+         * 
+         * @param type the type to convert, may not be null
+         * @return the rawValue corresponding to type
+         */
+        static int toRawValue(PropertyType type) {
+            return type.m_rawValue;
+        }
+
+
         /**
          * Constructor.
          * 
@@ -1188,6 +1200,16 @@ public final class AiMaterial {
     }
     
     
+    /**
+     * This method is used by {@link GVRJassimpCache}. Do not call.
+     * 
+     * @return the number of textures for each type
+     */
+    Map<AiTextureType, Integer> getTextureNumbers() {
+        return m_numTextures;
+    }
+    
+    
     /**
      * List of properties.
      */
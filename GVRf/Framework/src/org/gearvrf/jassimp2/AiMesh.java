@@ -1280,6 +1280,67 @@ public final class AiMesh {
     }
     
     
+    // {{ Cache support
+    /**
+     * This constructor is used by {@link GVRJassimpCache}. Do not call.
+     */
+    AiMesh(String name, int materialIndex, Set<AiPrimitiveType> primitiveTypes,
+            int numVertices, int numFaces) {
+        m_name = name;
+        m_materialIndex = materialIndex;
+        m_primitiveTypes.addAll(primitiveTypes);
+        m_numVertices = numVertices;
+        m_numFaces = numFaces;
+    }
+    
+    
+    /**
+     * This method is used by {@link GVRJassimpCache}. Do not call.<p>
+     * 
+     * @return the data buffers: vertices, faces, face offsets, normals,
+     *         tangents, bitangents, then the color sets and the texture
+     *         coordinate sets. Missing buffers are null.
+     */
+    ByteBuffer[] getDataBuffers() {
+        ByteBuffer[] buffers = new ByteBuffer[6 + m_colorsets.length + 
+                                              m_texcoords.length];
+        buffers[0] = m_vertices;
+        buffers[1] = m_faces;
+        buffers[2] = m_faceOffsets;
+        buffers[3] = m_normals;
+        buffers[4] = m_tangents;
+        buffers[5] = m_bitangents;
+        System.arraycopy(m_colorsets, 0, buffers, 6, m_colorsets.length);
+        System.arraycopy(m_texcoords, 0, buffers, 6 + m_colorsets.length,
+                m_texcoords.length);
+        return buffers;
+    }
+    
+    
+    /**
+     * This method is used by {@link GVRJassimpCache}. Do not call.<p>
+     * 
+     * @param buffers native order buffers, as returned by 
+     *              {@link #getDataBuffers()}
+     * @param numUVComponents number of components of each texture 
+     *              coordinate set
+     */
+    void setDataBuffers(ByteBuffer[] buffers, int[] numUVComponents) {
+        m_vertices = buffers[0];
+        m_faces = buffers[1];
+        m_faceOffsets = buffers[2];
+        m_normals = buffers[3];
+        m_tangents = buffers[4];
+        m_bitangents = buffers[5];
+        System.arraycopy(buffers, 6, m_colorsets, 0, m_colorsets.length);
+        System.arraycopy(buffers, 6 + m_colorsets.length, m_texcoords, 0,
+                m_texcoords.length);
+        System.arraycopy(numUVComponents, 0, m_numUVComponents, 0,
+                m_numUVComponents.length);
+    }
+    // }}
+    
+    
     /**
      * This method is used by JNI. Do not call or modify.<p>
      * 
@@ -64,6 +64,16 @@ public final class AiScene {
     }
     
     
+    /**
+     * This method is used by {@link GVRJassimpCache}. Do not call.
+     * 
+     * @param sceneRoot the wrapped root node
+     */
+    void setSceneRoot(Object sceneRoot) {
+        m_sceneRoot = sceneRoot;
+    }
+    
+    
     /**
      * Returns the number of meshes contained in the scene.<p>
      * 
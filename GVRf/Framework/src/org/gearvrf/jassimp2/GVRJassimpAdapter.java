@@ -1,6 +1,7 @@
 package org.gearvrf.jassimp2;
 
-import java.nio.CharBuffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
@@ -10,11 +11,11 @@ import java.util.List;
 import java.util.Set;
 
 import org.gearvrf.GVRBone;
-import org.gearvrf.GVRBoneWeight;
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRImportSettings;
 import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRSceneObject;
+import org.gearvrf.GVRVertexBoneData;
 import org.gearvrf.animation.keyframe.GVRAnimationBehavior;
 import org.gearvrf.animation.keyframe.GVRAnimationChannel;
 import org.gearvrf.animation.keyframe.GVRKeyFrameAnimation;
@@ -55,58 +56,73 @@ public class GVRJassimpAdapter {
     public GVRMesh createMesh(GVRContext ctx, AiMesh aiMesh) {
         GVRMesh mesh = new GVRMesh(ctx);
 
-        // Vertices
+        // Vertices, normals and indices are direct buffers: GVRMesh reads
+        // them natively, without Java array copies
         FloatBuffer verticesBuffer = aiMesh.getPositionBuffer();
         if (verticesBuffer != null) {
-            float[] verticesArray = new float[verticesBuffer.capacity()];
-            verticesBuffer.get(verticesArray, 0, verticesBuffer.capacity());
-            mesh.setVertices(verticesArray);
+            mesh.setVertices(verticesBuffer);
         }
 
         // Normals
         FloatBuffer normalsBuffer = aiMesh.getNormalBuffer();
         if (normalsBuffer != null) {
-            float[] normalsArray = new float[normalsBuffer.capacity()];
-            normalsBuffer.get(normalsArray, 0, normalsBuffer.capacity());
-            mesh.setNormals(normalsArray);
+            mesh.setNormals(normalsBuffer);
         }
 
         // TexCoords
         final int coordIdx = 0;
         FloatBuffer fbuf = aiMesh.getTexCoordBuffer(coordIdx);
         if (fbuf != null) {
-            FloatBuffer coords = FloatBuffer.allocate(aiMesh.getNumVertices() * 2);
             if (aiMesh.getNumUVComponents(coordIdx) == 2) {
-                FloatBuffer coordsSource = aiMesh.getTexCoordBuffer(coordIdx);
-                coords.put(coordsSource);
+                mesh.setTexCoords(fbuf);
             } else {
+                FloatBuffer coords = ByteBuffer
+                        .allocateDirect(aiMesh.getNumVertices() * 2 * 4)
+                        .order(ByteOrder.nativeOrder()).asFloatBuffer();
                 for (int i = 0; i < aiMesh.getNumVertices(); ++i) {
                     float u = aiMesh.getTexCoordU(i, coordIdx);
                     float v = aiMesh.getTexCoordV(i, coordIdx);
                     coords.put(u);
                     coords.put(v);
                 }
+                coords.flip();
+                mesh.setTexCoords(coords);
             }
-            mesh.setTexCoords(coords.array());
         }
 
-        // Triangles
+        // Triangles: 32-bit, so meshes may have more than 65,535 vertices
         IntBuffer indexBuffer = aiMesh.getIndexBuffer();
         if (indexBuffer != null) {
-            CharBuffer triangles = CharBuffer.allocate(indexBuffer.capacity());
-            for (int i = 0; i < indexBuffer.capacity(); ++i) {
-                triangles.put((char)indexBuffer.get());
-            }
-            mesh.setIndices(triangles.array());
+            mesh.setIndices(indexBuffer);
         }
 
-        // Bones
+        // Bones: the weights are packed straight into arrays, instead of
+        // creating a GVRBoneWeight hybrid object for each one
         if (aiMesh.hasBones()) {
             List<GVRBone> bones = new ArrayList<GVRBone>();
+            final int vertexCount = aiMesh.getNumVertices();
+            int[] boneIds = new int[vertexCount
+                    * GVRVertexBoneData.BONES_PER_VERTEX];
+            float[] boneWeights = new float[boneIds.length];
+            int[] boneCounts = new int[vertexCount];
+            int boneId = 0;
             for (AiBone bone : aiMesh.getBones()) {
                 bones.add(createBone(ctx, bone));
+                for (AiBoneWeight weight : bone.getBoneWeights()) {
+                    final int vid = weight.getVertexId();
+                    if (vid < 0 || vid >= vertexCount) {
+                        Log.w(TAG, "Bad vertex id %d (total %d)", vid,
+                                vertexCount);
+                    } else if (GVRVertexBoneData.addBoneWeight(boneIds,
+                            boneWeights, boneCounts, vid, boneId,
+                            weight.getWeight()) < 0) {
+                        Log.w(TAG, "Vertex %d has too many bones", vid);
+                    }
+                }
+                boneId++;
             }
             mesh.setBones(bones);
+            mesh.getVertexBoneData().setBoneWeights(boneIds, boneWeights);
         }
 
         return mesh;
@@ -118,24 +134,9 @@ public class GVRJassimpAdapter {
         bone.setName(aiBone.getName());
         bone.setOffsetMatrix(aiBone.getOffsetMatrix(sWrapperProvider));
 
-        List<GVRBoneWeight> weights = new ArrayList<GVRBoneWeight>();
-        for (AiBoneWeight aiBoneWeight : aiBone.getBoneWeights()) {
-            weights.add(createBoneWeight(ctx, aiBoneWeight));
-        }
-        bone.setBoneWeights(weights);
-
         return bone;
     }
 
-    private GVRBoneWeight createBoneWeight(GVRContext ctx, AiBoneWeight aiBoneWeight) {
-        GVRBoneWeight boneWeight = new GVRBoneWeight(ctx);
-
-        boneWeight.setVertexId(aiBoneWeight.getVertexId());
-        boneWeight.setWeight(aiBoneWeight.getWeight());
-
-        return boneWeight;
-    }
-
     public GVRSceneObject createSceneObject(GVRContext ctx, AiNode node) {
         GVRSceneObject sceneObject = null;
 
@@ -153,12 +154,19 @@ public class GVRJassimpAdapter {
     }
 
     public GVRKeyFrameAnimation createAnimation(AiAnimation aiAnim, GVRSceneObject target) {
+        return createAnimation(aiAnim, target, createAnimChannels(aiAnim));
+    }
+
+    /**
+     * Creates an animation from channels that were converted ahead of time,
+     * by {@link #createAnimChannels(AiAnimation)}.
+     */
+    public GVRKeyFrameAnimation createAnimation(AiAnimation aiAnim, GVRSceneObject target,
+            List<GVRAnimationChannel> channels) {
         GVRKeyFrameAnimation anim = new GVRKeyFrameAnimation(aiAnim.getName(), target,
                 (float)aiAnim.getDuration(), (float)aiAnim.getTicksPerSecond());
 
-        // Convert node anims
-        for (AiNodeAnim aiNodeAnim : aiAnim.getChannels()) {
-            GVRAnimationChannel channel = createAnimChannel(aiNodeAnim);
+        for (GVRAnimationChannel channel : channels) {
             anim.addChannel(channel);
         }
 
@@ -167,6 +175,18 @@ public class GVRJassimpAdapter {
         return anim;
     }
 
+    /**
+     * Converts an animation's node anims. This does not need the target scene
+     * object, so it can run before (or while) the scene graph is built.
+     */
+    public List<GVRAnimationChannel> createAnimChannels(AiAnimation aiAnim) {
+        List<GVRAnimationChannel> channels = new ArrayList<GVRAnimationChannel>();
+        for (AiNodeAnim aiNodeAnim : aiAnim.getChannels()) {
+            channels.add(createAnimChannel(aiNodeAnim));
+        }
+        return channels;
+    }
+
     private GVRAnimationChannel createAnimChannel(AiNodeAnim aiNodeAnim) {
         GVRAnimationChannel node = new GVRAnimationChannel(aiNodeAnim.getNodeName(), aiNodeAnim.getNumPosKeys(),
                 aiNodeAnim.getNumRotKeys(),  aiNodeAnim.getNumScaleKeys(),
@@ -0,0 +1,695 @@
+/* Copyright 2015 Samsung Electronics Co., LTD
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gearvrf.jassimp2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.gearvrf.utility.Log;
+
+/**
+ * An on-disk cache of imported {@link AiScene scenes}.
+ *
+ * Importing a model runs the Assimp parser and post-processing steps, then
+ * copies every vertex channel across JNI. The cache saves the result in a
+ * compact binary file, so later loads of the same model with the same
+ * settings skip Assimp entirely: the file is memory-mapped, and the mesh
+ * buffers are slices of the mapping, not copies.
+ *
+ * <p>
+ * Entries are keyed by {@link #getKey(InputStream, Set)}: a hash of the model
+ * file, the post-processing steps, and the format version. Files that a
+ * model refers to (like an OBJ file's MTL library) are not part of the key.
+ *
+ * <p>
+ * Only scenes built by {@link GVRNewWrapperProvider} can be stored. Lights
+ * and cameras are not stored, as GVRF does not use them.
+ */
+public final class GVRJassimpCache {
+    private static final String TAG = GVRJassimpCache.class.getSimpleName();
+
+    /** Bump this whenever the file layout changes. */
+    private static final int VERSION = 1;
+    private static final int MAGIC = 0x4D525647; // "GVRM"
+    private static final String SUFFIX = ".gvrm";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte DATA_NULL = 0;
+    private static final byte DATA_COLOR = 1;
+    private static final byte DATA_FLOAT = 2;
+    private static final byte DATA_INTEGER = 3;
+    private static final byte DATA_STRING = 4;
+    private static final byte DATA_BUFFER = 5;
+
+    private final File mDirectory;
+    private volatile boolean mEnabled = true;
+
+    /**
+     * Constructs a cache.
+     *
+     * @param directory
+     *            Where to keep the cache files. It is created when the first
+     *            file is stored.
+     */
+    public GVRJassimpCache(File directory) {
+        mDirectory = directory;
+    }
+
+    /**
+     * @return The directory that holds the cache files.
+     */
+    public File getDirectory() {
+        return mDirectory;
+    }
+
+    /**
+     * Enables or disables the cache. While disabled, {@link #load(String)}
+     * always misses and {@link #store(String, AiScene)} does nothing.
+     *
+     * @param enabled
+     *            {@code true} to use the cache
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    /**
+     * @return Whether the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * Computes the key of a model.
+     *
+     * @param model
+     *            The model file contents. The stream is read to the end, but
+     *            not closed.
+     * @param settings
+     *            The post-processing steps the model is imported with.
+     * @return The key: a hex string.
+     * @throws IOException
+     *             If the stream cannot be read.
+     */
+    public static String getKey(InputStream model,
+            Set<AiPostProcessSteps> settings) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        byte[] buffer = new byte[16 * 1024];
+        int count;
+        while ((count = model.read(buffer)) != -1) {
+            digest.update(buffer, 0, count);
+        }
+
+        ByteBuffer suffix = ByteBuffer.allocate(12);
+        suffix.putLong(AiPostProcessSteps.toRawValue(settings));
+        suffix.putInt(VERSION);
+        digest.update(suffix.array());
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Loads a scene from the cache.
+     *
+     * A file that cannot be read (because it is truncated, or was written by
+     * a different version, or on a device with different native sizes) is
+     * deleted, and counts as a miss.
+     *
+     * @param key
+     *            The model's {@linkplain #getKey(InputStream, Set) key}
+     * @return The scene, or {@code null} on a miss.
+     */
+    public AiScene load(String key) {
+        if (!mEnabled) {
+            return null;
+        }
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = raf.getChannel();
+                // A private mapping is copy-on-write, so callers can modify
+                // the mesh buffers, just like the ones that JNI allocates
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.PRIVATE,
+                        0, channel.size());
+                map.order(ByteOrder.nativeOrder());
+                return new Reader(map).readScene();
+            } finally {
+                raf.close();
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Discarding unreadable cache file %s: %s", file, e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores a scene in the cache.
+     *
+     * The file is written under a temporary name, then renamed, so a
+     * concurrent {@link #load(String)} never sees a partial file. Failures
+     * are logged, not thrown: the cache is an optimization.
+     *
+     * @param key
+     *            The model's {@linkplain #getKey(InputStream, Set) key}
+     * @param scene
+     *            The imported scene
+     */
+    public void store(String key, AiScene scene) {
+        if (!mEnabled) {
+            return;
+        }
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            Log.w(TAG, "Cannot create cache directory %s", mDirectory);
+            return;
+        }
+
+        File file = getFile(key);
+        File temporary = new File(mDirectory, key + "."
+                + Thread.currentThread().getId() + ".tmp");
+        try {
+            RandomAccessFile raf = new RandomAccessFile(temporary, "rw");
+            try {
+                raf.setLength(0);
+                Writer writer = new Writer(raf.getChannel());
+                writer.writeScene(scene);
+                writer.flush();
+            } finally {
+                raf.close();
+            }
+            if (!temporary.renameTo(file)) {
+                throw new IOException("Cannot rename " + temporary);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Cannot cache model %s: %s", key, e);
+            temporary.delete();
+        }
+    }
+
+    /**
+     * Deletes all cache files.
+     */
+    public void clear() {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(mDirectory, key + SUFFIX);
+    }
+
+    private static int getDataBufferCount() {
+        return 6 + JassimpConfig.MAX_NUMBER_COLORSETS
+                + JassimpConfig.MAX_NUMBER_TEXCOORDS;
+    }
+
+    /*
+     * Everything is written in native byte order, so that the reader can use
+     * slices of the mapping directly. Raw buffers start on 8 byte boundaries.
+     */
+    private static final class Writer {
+        private final FileChannel mChannel;
+        private final ByteBuffer mBuffer = ByteBuffer.allocateDirect(64 * 1024)
+                .order(ByteOrder.nativeOrder());
+        private long mPosition = 0;
+
+        Writer(FileChannel channel) {
+            mChannel = channel;
+        }
+
+        void writeScene(AiScene scene) throws IOException {
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(Jassimp.NATIVE_AIVEKTORKEY_SIZE);
+            putInt(Jassimp.NATIVE_AIQUATKEY_SIZE);
+            putInt(Jassimp.NATIVE_AIVEKTOR3D_SIZE);
+
+            List<AiMesh> meshes = scene.getMeshes();
+            putInt(meshes.size());
+            for (AiMesh mesh : meshes) {
+                writeMesh(mesh);
+            }
+
+            List<AiMaterial> materials = scene.getMaterials();
+            putInt(materials.size());
+            for (AiMaterial material : materials) {
+                writeMaterial(material);
+            }
+
+            AiNode root = scene.getSceneRoot(GVRJassimpAdapter.sWrapperProvider);
+            putInt(root != null ? 1 : 0);
+            if (root != null) {
+                writeNode(root);
+            }
+
+            List<AiAnimation> animations = scene.getAnimations();
+            putInt(animations.size());
+            for (AiAnimation animation : animations) {
+                writeAnimation(animation);
+            }
+        }
+
+        private void writeMesh(AiMesh mesh) throws IOException {
+            putString(mesh.getName());
+            putInt(mesh.getMaterialIndex());
+            int primitiveTypes = 0;
+            for (AiPrimitiveType type : mesh.getPrimitiveTypes()) {
+                primitiveTypes |= 1 << type.ordinal();
+            }
+            putInt(primitiveTypes);
+            putInt(mesh.getNumVertices());
+            putInt(mesh.getNumFaces());
+            for (int i = 0; i < JassimpConfig.MAX_NUMBER_TEXCOORDS; ++i) {
+                putInt(mesh.getNumUVComponents(i));
+            }
+            for (ByteBuffer buffer : mesh.getDataBuffers()) {
+                putBuffer(buffer);
+            }
+
+            List<AiBone> bones = mesh.getBones();
+            putInt(bones.size());
+            for (AiBone bone : bones) {
+                putString(bone.getName());
+                putMatrix(bone.getOffsetMatrix(GVRJassimpAdapter.sWrapperProvider));
+                List<AiBoneWeight> weights = bone.getBoneWeights();
+                putInt(weights.size());
+                for (AiBoneWeight weight : weights) {
+                    putInt(weight.getVertexId());
+                    putFloat(weight.getWeight());
+                }
+            }
+        }
+
+        private void writeMaterial(AiMaterial material) throws IOException {
+            List<AiMaterial.Property> properties = material.getProperties();
+            putInt(properties.size());
+            for (AiMaterial.Property property : properties) {
+                putString(property.getKey());
+                putInt(property.getSemantic());
+                putInt(property.getIndex());
+                putInt(AiMaterial.PropertyType.toRawValue(property.getType()));
+
+                Object data = property.getData();
+                if (data == null) {
+                    putByte(DATA_NULL);
+                } else if (data instanceof AiColor) {
+                    AiColor color = (AiColor) data;
+                    putByte(DATA_COLOR);
+                    putFloat(color.getRed());
+                    putFloat(color.getGreen());
+                    putFloat(color.getBlue());
+                    putFloat(color.getAlpha());
+                } else if (data instanceof Float) {
+                    putByte(DATA_FLOAT);
+                    putFloat((Float) data);
+                } else if (data instanceof Integer) {
+                    putByte(DATA_INTEGER);
+                    putInt((Integer) data);
+                } else if (data instanceof String) {
+                    putByte(DATA_STRING);
+                    putString((String) data);
+                } else if (data instanceof ByteBuffer) {
+                    putByte(DATA_BUFFER);
+                    putBuffer((ByteBuffer) data);
+                } else {
+                    throw new IOException("Unsupported property data: "
+                            + data.getClass());
+                }
+            }
+
+            Map<AiTextureType, Integer> textureNumbers = material
+                    .getTextureNumbers();
+            putInt(textureNumbers.size());
+            for (Map.Entry<AiTextureType, Integer> entry : textureNumbers
+                    .entrySet()) {
+                putInt(AiTextureType.toRawValue(entry.getKey()));
+                putInt(entry.getValue());
+            }
+        }
+
+        private void writeNode(AiNode node) throws IOException {
+            putString(node.getName());
+            putMatrix(node.getTransform(GVRJassimpAdapter.sWrapperProvider));
+            int[] meshes = node.getMeshes();
+            putInt(meshes.length);
+            for (int mesh : meshes) {
+                putInt(mesh);
+            }
+            List<AiNode> children = node.getChildren();
+            putInt(children.size());
+            for (AiNode child : children) {
+                writeNode(child);
+            }
+        }
+
+        private void writeAnimation(AiAnimation animation) throws IOException {
+            putString(animation.getName());
+            putDouble(animation.getDuration());
+            putDouble(animation.getTicksPerSecond());
+            List<AiNodeAnim> channels = animation.getChannels();
+            putInt(channels.size());
+            for (AiNodeAnim channel : channels) {
+                putString(channel.getNodeName());
+                putInt(channel.getNumPosKeys());
+                putInt(channel.getNumRotKeys());
+                putInt(channel.getNumScaleKeys());
+                putInt(AiAnimBehavior.toRawValue(channel.getPreState()));
+                putInt(AiAnimBehavior.toRawValue(channel.getPostState()));
+                putBuffer(channel.getPosKeyBuffer());
+                putBuffer(channel.getRotKeyBuffer());
+                putBuffer(channel.getScaleKeyBuffer());
+            }
+        }
+
+        private void putMatrix(float[] matrix) throws IOException {
+            for (int i = 0; i < 16; ++i) {
+                putFloat(matrix[i]);
+            }
+        }
+
+        private void putString(String string) throws IOException {
+            if (string == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = string.getBytes(UTF8);
+            putInt(bytes.length);
+            reserve(bytes.length);
+            mBuffer.put(bytes);
+        }
+
+        /*
+         * Writes a length (-1 for null), pads to 8 bytes, then writes the
+         * buffer's contents from 0 to its capacity.
+         */
+        private void putBuffer(ByteBuffer buffer) throws IOException {
+            if (buffer == null) {
+                putInt(-1);
+                return;
+            }
+            ByteBuffer contents = buffer.duplicate();
+            contents.clear();
+            putInt(contents.remaining());
+            int padding = (int) (-(mPosition + mBuffer.position()) & 7);
+            reserve(padding);
+            for (int i = 0; i < padding; ++i) {
+                mBuffer.put((byte) 0);
+            }
+            if (contents.remaining() <= mBuffer.remaining()) {
+                mBuffer.put(contents);
+            } else {
+                flush();
+                while (contents.hasRemaining()) {
+                    mPosition += mChannel.write(contents);
+                }
+            }
+        }
+
+        private void putByte(byte value) throws IOException {
+            reserve(1);
+            mBuffer.put(value);
+        }
+
+        private void putInt(int value) throws IOException {
+            reserve(4);
+            mBuffer.putInt(value);
+        }
+
+        private void putFloat(float value) throws IOException {
+            reserve(4);
+            mBuffer.putFloat(value);
+        }
+
+        private void putDouble(double value) throws IOException {
+            reserve(8);
+            mBuffer.putDouble(value);
+        }
+
+        private void reserve(int bytes) throws IOException {
+            if (mBuffer.remaining() < bytes) {
+                flush();
+                if (mBuffer.remaining() < bytes) {
+                    throw new IOException("Value too large: " + bytes);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            mBuffer.flip();
+            while (mBuffer.hasRemaining()) {
+                mPosition += mChannel.write(mBuffer);
+            }
+            mBuffer.clear();
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer mMap;
+
+        Reader(ByteBuffer map) {
+            mMap = map;
+        }
+
+        AiScene readScene() throws IOException {
+            if (mMap.getInt() != MAGIC || mMap.getInt() != VERSION
+                    || mMap.getInt() != Jassimp.NATIVE_AIVEKTORKEY_SIZE
+                    || mMap.getInt() != Jassimp.NATIVE_AIQUATKEY_SIZE
+                    || mMap.getInt() != Jassimp.NATIVE_AIVEKTOR3D_SIZE) {
+                throw new IOException("Incompatible cache file");
+            }
+
+            AiScene scene = new AiScene();
+            List<AiMesh> meshes = scene.getMeshes();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                meshes.add(readMesh());
+            }
+
+            List<AiMaterial> materials = scene.getMaterials();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                materials.add(readMaterial());
+            }
+
+            if (mMap.getInt() != 0) {
+                scene.setSceneRoot(readNode(null));
+            }
+
+            List<AiAnimation> animations = scene.getAnimations();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                animations.add(readAnimation());
+            }
+            return scene;
+        }
+
+        private AiMesh readMesh() throws IOException {
+            String name = getString();
+            int materialIndex = mMap.getInt();
+            int primitiveTypeBits = mMap.getInt();
+            Set<AiPrimitiveType> primitiveTypes = EnumSet
+                    .noneOf(AiPrimitiveType.class);
+            for (AiPrimitiveType type : AiPrimitiveType.values()) {
+                if ((primitiveTypeBits & (1 << type.ordinal())) != 0) {
+                    primitiveTypes.add(type);
+                }
+            }
+            int numVertices = mMap.getInt();
+            int numFaces = mMap.getInt();
+            AiMesh mesh = new AiMesh(name, materialIndex, primitiveTypes,
+                    numVertices, numFaces);
+
+            int[] numUVComponents = new int[JassimpConfig.MAX_NUMBER_TEXCOORDS];
+            for (int i = 0; i < numUVComponents.length; ++i) {
+                numUVComponents[i] = mMap.getInt();
+            }
+            ByteBuffer[] buffers = new ByteBuffer[getDataBufferCount()];
+            for (int i = 0; i < buffers.length; ++i) {
+                buffers[i] = getBuffer();
+            }
+            mesh.setDataBuffers(buffers, numUVComponents);
+
+            List<AiBone> bones = mesh.getBones();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                AiBone bone = new AiBone(getString(), getMatrix());
+                List<AiBoneWeight> weights = bone.getBoneWeights();
+                for (int w = mMap.getInt(); w > 0; --w) {
+                    int vertexId = mMap.getInt();
+                    weights.add(new AiBoneWeight(vertexId, mMap.getFloat()));
+                }
+                bones.add(bone);
+            }
+            return mesh;
+        }
+
+        private AiMaterial readMaterial() throws IOException {
+            AiMaterial material = new AiMaterial();
+            List<AiMaterial.Property> properties = material.getProperties();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                String key = getString();
+                int semantic = mMap.getInt();
+                int index = mMap.getInt();
+                int type = mMap.getInt();
+
+                Object data;
+                byte tag = mMap.get();
+                switch (tag) {
+                case DATA_NULL:
+                    data = null;
+                    break;
+                case DATA_COLOR:
+                    ByteBuffer rgba = ByteBuffer.allocate(4 * 4);
+                    for (int i = 0; i < 4; ++i) {
+                        rgba.putFloat(mMap.getFloat());
+                    }
+                    data = new AiColor(rgba, 0);
+                    break;
+                case DATA_FLOAT:
+                    data = Float.valueOf(mMap.getFloat());
+                    break;
+                case DATA_INTEGER:
+                    data = Integer.valueOf(mMap.getInt());
+                    break;
+                case DATA_STRING:
+                    data = getString();
+                    break;
+                case DATA_BUFFER:
+                    data = getBuffer();
+                    break;
+                default:
+                    throw new IOException("Bad property data tag " + tag);
+                }
+                properties.add(new AiMaterial.Property(key, semantic, index,
+                        type, data));
+            }
+
+            Map<AiTextureType, Integer> textureNumbers = material
+                    .getTextureNumbers();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                AiTextureType type = AiTextureType.fromRawValue(mMap.getInt());
+                textureNumbers.put(type, mMap.getInt());
+            }
+            return material;
+        }
+
+        private AiNode readNode(AiNode parent) throws IOException {
+            String name = getString();
+            float[] transform = getMatrix();
+            int[] meshes = new int[mMap.getInt()];
+            for (int i = 0; i < meshes.length; ++i) {
+                meshes[i] = mMap.getInt();
+            }
+            // The constructor adds the node to its parent
+            AiNode node = new AiNode(parent, transform, meshes, name);
+            for (int count = mMap.getInt(); count > 0; --count) {
+                readNode(node);
+            }
+            return node;
+        }
+
+        private AiAnimation readAnimation() throws IOException {
+            String name = getString();
+            double duration = mMap.getDouble();
+            AiAnimation animation = new AiAnimation(name, duration,
+                    mMap.getDouble());
+            List<AiNodeAnim> channels = animation.getChannels();
+            for (int count = mMap.getInt(); count > 0; --count) {
+                AiNodeAnim channel = new AiNodeAnim(getString(), mMap.getInt(),
+                        mMap.getInt(), mMap.getInt(), mMap.getInt(),
+                        mMap.getInt());
+                // Key buffers are small: copy them into the ones the
+                // constructor allocated
+                channel.getPosKeyBuffer().put(getBuffer());
+                channel.getRotKeyBuffer().put(getBuffer());
+                channel.getScaleKeyBuffer().put(getBuffer());
+                channels.add(channel);
+            }
+            return animation;
+        }
+
+        private float[] getMatrix() {
+            float[] matrix = new float[16];
+            for (int i = 0; i < 16; ++i) {
+                matrix[i] = mMap.getFloat();
+            }
+            return matrix;
+        }
+
+        private String getString() throws IOException {
+            int length = mMap.getInt();
+            if (length < 0) {
+                return null;
+            }
+            if (length > mMap.remaining()) {
+                throw new IOException("Truncated cache file");
+            }
+            byte[] bytes = new byte[length];
+            mMap.get(bytes);
+            return new String(bytes, UTF8);
+        }
+
+        /*
+         * Returns a slice of the mapping: no copy.
+         */
+        private ByteBuffer getBuffer() throws IOException {
+            int length = mMap.getInt();
+            if (length < 0) {
+                return null;
+            }
+            int start = (mMap.position() + 7) & ~7;
+            if (start + length > mMap.limit()) {
+                throw new IOException("Truncated cache file");
+            }
+            ByteBuffer slice = mMap.duplicate();
+            slice.position(start);
+            slice.limit(start + length);
+            mMap.position(start + length);
+            return slice.slice().order(ByteOrder.nativeOrder());
+        }
+    }
+}
@@ -2,11 +2,19 @@ package org.gearvrf.jassimp2;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.gearvrf.FutureWrapper;
 import org.gearvrf.GVRAndroidResource;
 import org.gearvrf.GVRContext;
+import org.gearvrf.GVRImportProgressListener;
 import org.gearvrf.GVRMaterial;
 import org.gearvrf.GVRResourceVolume;
 import org.gearvrf.GVRMaterial.GVRShaderType;
@@ -14,26 +22,165 @@ import org.gearvrf.GVRMesh;
 import org.gearvrf.GVRRenderData;
 import org.gearvrf.GVRSceneObject;
 import org.gearvrf.GVRTexture;
+import org.gearvrf.animation.keyframe.GVRAnimationChannel;
 import org.gearvrf.scene_objects.GVRModelSceneObject;
 import org.gearvrf.utility.Log;
+import org.gearvrf.utility.Threads;
+
+import android.util.SparseArray;
 
 public class GVRJassimpSceneObject extends GVRModelSceneObject {
     private static final String TAG = GVRJassimpSceneObject.class.getSimpleName();
     protected AiScene scene;
     protected GVRResourceVolume volume;
 
+    /*
+     * Import-scoped registry: nodes that reference the same (unskinned) AiMesh
+     * share a GVRMesh, meshes that reference the same AiMaterial share a GVRMaterial,
+     * and each texture file is loaded once. Only used while importing.
+     */
+    private SparseArray<GVRMesh> meshes;
+    private SparseArray<GVRMaterial> materials;
+    private Map<String, Future<GVRTexture>> textures;
+    // Meshes converted up front, by scene mesh index
+    private GVRMesh[] converted;
+
     public GVRJassimpSceneObject(GVRContext gvrContext, AiScene scene, GVRResourceVolume volume) {
+        this(gvrContext, scene, volume, null);
+    }
+
+    /**
+     * Builds the scene object for an imported scene.
+     *
+     * Meshes (with their bones) and animation channels don't depend on each
+     * other, so they are converted in parallel, on the {@link Threads} pool.
+     * The scene graph is then built on the calling thread. Nothing here needs
+     * the GL thread.
+     *
+     * @param listener
+     *            Told as each mesh and animation is converted. May be null.
+     */
+    public GVRJassimpSceneObject(GVRContext gvrContext, AiScene scene, GVRResourceVolume volume,
+            GVRImportProgressListener listener) {
         super(gvrContext);
         this.volume = volume;
 
         if (scene != null) {
             this.scene = scene;
-            recurseAssimpNodes(this, scene.getSceneRoot(GVRJassimpAdapter.sWrapperProvider));
+            final List<AiAnimation> aiAnims = scene.getAnimations();
+            final List<List<GVRAnimationChannel>> channels = convert(
+                    scene.getMeshes(), aiAnims, listener);
+
+            meshes = new SparseArray<GVRMesh>();
+            materials = new SparseArray<GVRMaterial>();
+            textures = new HashMap<String, Future<GVRTexture>>();
+            try {
+                recurseAssimpNodes(this, scene.getSceneRoot(GVRJassimpAdapter.sWrapperProvider));
+            } finally {
+                converted = null;
+                meshes = null;
+                materials = null;
+                textures = null;
+            }
 
             // Animations
-            for (AiAnimation aiAnim : scene.getAnimations()) {
-                mAnimations.add(GVRJassimpAdapter.get().createAnimation(aiAnim, this));
+            for (int i = 0; i < aiAnims.size(); ++i) {
+                AiAnimation aiAnim = aiAnims.get(i);
+                List<GVRAnimationChannel> animChannels = channels.get(i);
+                mAnimations.add(animChannels != null
+                        ? GVRJassimpAdapter.get().createAnimation(aiAnim, this, animChannels)
+                        : GVRJassimpAdapter.get().createAnimation(aiAnim, this));
+            }
+        }
+    }
+
+    /*
+     * Converts every mesh into converted[], and returns each animation's
+     * channels. A conversion that fails leaves a null, and is retried on the
+     * serial path.
+     */
+    private List<List<GVRAnimationChannel>> convert(final List<AiMesh> aiMeshes,
+            final List<AiAnimation> aiAnims, final GVRImportProgressListener listener) {
+        final int meshCount = aiMeshes.size();
+        final int total = meshCount + aiAnims.size();
+        final GVRMesh[] meshArray = new GVRMesh[meshCount];
+        final List<List<GVRAnimationChannel>> channels = new ArrayList<List<GVRAnimationChannel>>(
+                Collections.<List<GVRAnimationChannel>> nCopies(aiAnims.size(), null));
+        final AtomicInteger done = new AtomicInteger();
+
+        runParallel(total, new IndexedTask() {
+            @Override
+            public void run(int index) {
+                try {
+                    if (index < meshCount) {
+                        meshArray[index] = GVRJassimpAdapter.get()
+                                .createMesh(getGVRContext(), aiMeshes.get(index));
+                    } else {
+                        List<GVRAnimationChannel> animChannels = GVRJassimpAdapter
+                                .get().createAnimChannels(aiAnims.get(index - meshCount));
+                        channels.set(index - meshCount, animChannels);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error converting item %d: %s", index, e);
+                }
+                if (listener != null) {
+                    listener.onProgress(done.incrementAndGet(), total);
+                }
+            }
+        });
+
+        // The latch in runParallel() publishes the workers' writes
+        converted = meshArray;
+        return channels;
+    }
+
+    private interface IndexedTask {
+        void run(int index);
+    }
+
+    /*
+     * Runs task for 0 <= index < count on the thread pool, and waits for it
+     * to finish. The calling thread takes items too, so this can't deadlock
+     * even when it is itself a pool thread and the pool is busy.
+     */
+    private static void runParallel(final int count, final IndexedTask task) {
+        if (count == 0) {
+            return;
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(count);
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = next.getAndIncrement()) < count) {
+                    try {
+                        task.run(index);
+                    } finally {
+                        finished.countDown();
+                    }
+                }
             }
+        };
+
+        final int helpers = Math.min(count,
+                Runtime.getRuntime().availableProcessors()) - 1;
+        for (int i = 0; i < helpers; ++i) {
+            Threads.spawn(worker);
+        }
+        worker.run();
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                finished.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -52,10 +199,11 @@ public class GVRJassimpSceneObject extends GVRModelSceneObject {
             } else {
                 sceneObject = GVRJassimpAdapter.get().createSceneObject(getGVRContext(), node);
                 parentSceneObject.addChildObject(sceneObject);
+                List<GVRSceneObject> meshObjects = new ArrayList<GVRSceneObject>(node.getNumMeshes());
                 for (int i = 0; i < node.getNumMeshes(); i++) {
-                    GVRSceneObject childSceneObject = createSubSceneObject(node, i);
-                    sceneObject.addChildObject(childSceneObject);
+                    meshObjects.add(createSubSceneObject(node, i));
                 }
+                sceneObject.addChildObjects(meshObjects);
             }
 
             if (node.getTransform(GVRJassimpAdapter.sWrapperProvider) != null) {
@@ -106,10 +254,43 @@ public class GVRJassimpSceneObject extends GVRModelSceneObject {
             AiNode node,
             int index)
             throws IOException {
-        AiMesh aiMesh = scene.getMeshes().get(node.getMeshes()[index]);
-        FutureWrapper<GVRMesh> futureMesh = new FutureWrapper<GVRMesh>(
-        		GVRJassimpAdapter.get().createMesh(getGVRContext(), aiMesh));
+        int meshIndex = node.getMeshes()[index];
+        AiMesh aiMesh = scene.getMeshes().get(meshIndex);
+        // Skinned meshes carry per-instance bone data: don't share them
+        GVRMesh mesh = aiMesh.hasBones() ? null : meshes.get(meshIndex);
+        if (mesh == null) {
+            // The first user gets the pre-converted mesh; later users of a
+            // skinned mesh (or a failed conversion) convert their own
+            mesh = converted[meshIndex];
+            converted[meshIndex] = null;
+            if (mesh == null) {
+                mesh = GVRJassimpAdapter.get().createMesh(getGVRContext(), aiMesh);
+            }
+            if (!aiMesh.hasBones()) {
+                meshes.put(meshIndex, mesh);
+            }
+        }
+        FutureWrapper<GVRMesh> futureMesh = new FutureWrapper<GVRMesh>(mesh);
+
+        // Skinned and unskinned meshes need different feature sets
+        int materialKey = aiMesh.getMaterialIndex() * 2
+                + (aiMesh.hasBones() ? 1 : 0);
+        GVRMaterial meshMaterial = materials.get(materialKey);
+        if (meshMaterial == null) {
+            meshMaterial = createMaterial(aiMesh);
+            materials.put(materialKey, meshMaterial);
+        }
 
+        GVRSceneObject sceneObject = GVRJassimpAdapter.get().createSceneObject(getGVRContext(), node);
+        GVRRenderData sceneObjectRenderData = new GVRRenderData(getGVRContext());
+        sceneObjectRenderData.setMesh(futureMesh);
+        sceneObjectRenderData.setMaterial(meshMaterial);
+        sceneObject.attachRenderData(sceneObjectRenderData);
+
+        return sceneObject;
+    }
+
+    private GVRMaterial createMaterial(AiMesh aiMesh) {
         AiMaterial material = scene.getMaterials().get(aiMesh.getMaterialIndex());
         GVRMaterial meshMaterial = new GVRMaterial(getGVRContext(), GVRShaderType.Assimp.ID);
 
@@ -150,9 +331,14 @@ public class GVRJassimpSceneObject extends GVRModelSceneObject {
         if (texDiffuseFileName != null && !texDiffuseFileName.isEmpty()) {
             try {
                 if (volume != null) {
-                    GVRAndroidResource resource = volume.openResource(texDiffuseFileName);
-                    Future<GVRTexture> futureDiffuseTexture = getGVRContext()
-                            .loadFutureTexture(resource);
+                    Future<GVRTexture> futureDiffuseTexture = textures
+                            .get(texDiffuseFileName);
+                    if (futureDiffuseTexture == null) {
+                        GVRAndroidResource resource = volume.openResource(texDiffuseFileName);
+                        futureDiffuseTexture = getGVRContext()
+                                .loadFutureTexture(resource);
+                        textures.put(texDiffuseFileName, futureDiffuseTexture);
+                    }
                     meshMaterial.setMainTexture(futureDiffuseTexture);
                 }
                 assimpFeatureSet = GVRShaderType.Assimp.setBit(
@@ -175,12 +361,6 @@ public class GVRJassimpSceneObject extends GVRModelSceneObject {
         /* Apply feature set to the material */
         meshMaterial.setShaderFeatureSet(assimpFeatureSet);
 
-        GVRSceneObject sceneObject = GVRJassimpAdapter.get().createSceneObject(getGVRContext(), node);
-        GVRRenderData sceneObjectRenderData = new GVRRenderData(getGVRContext());
-        sceneObjectRenderData.setMesh(futureMesh);
-        sceneObjectRenderData.setMaterial(meshMaterial);
-        sceneObject.attachRenderData(sceneObjectRenderData);
-
-        return sceneObject;
+        return meshMaterial;
     }
 }
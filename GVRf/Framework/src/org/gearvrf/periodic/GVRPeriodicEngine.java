@@ -15,7 +15,8 @@
 
 package org.gearvrf.periodic;
 
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.gearvrf.GVRContext;
 import org.gearvrf.GVRDrawFrameListener;
@@ -55,9 +56,11 @@ import org.gearvrf.GVRScript;
  * something like a notification.
  * 
  * <p>
- * The engine maintains a priority queue of events, which it checks in a
- * {@linkplain GVRDrawFrameListener frame listener}; events run as
- * {@linkplain GVRContext#runOnGlThread(Runnable) run-once events.} Every frame,
+ * The engine keeps events in a hierarchical timing wheel, which it checks in a
+ * {@linkplain GVRDrawFrameListener frame listener}; scheduling and canceling
+ * an event take constant time, no matter how many events are pending. The
+ * events that are due on a frame run together, as a single
+ * {@linkplain GVRContext#runOnGlThread(Runnable) run-once event.} Every frame,
  * GVRF runs any run-once events; then any frame listeners (including
  * animations); then your {@linkplain GVRScript#onStep() onStep() method;} and
  * then it renders the scene. This means that any periodic events that run on a
@@ -84,12 +87,58 @@ public class GVRPeriodicEngine {
         });
     }
 
+    /*
+     * Timing wheel geometry: LEVELS levels of SLOTS slots each. A slot of
+     * level 0 holds the events due in one tick; a slot of level n spans
+     * SLOTS^n ticks, and is cascaded down into the lower levels when the
+     * current tick reaches it. Four levels of 64 slots at 128 ticks per
+     * second cover 36 hours; later events are parked in the top level, and
+     * re-filed each time it cascades.
+     */
+    private static final float TICKS_PER_SECOND = 128f;
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long HORIZON = 1L << (LEVELS * SLOT_BITS);
+
     private final GVRContext mContext;
     private final DrawFrameListener mDrawFrameListener = new DrawFrameListener();
-    private final PriorityQueue<EventImplementation> mQueue = new PriorityQueue<EventImplementation>();
+
+    /*
+     * Heads of the doubly-linked event lists. Also the lock for all the
+     * scheduling state, including the Event fields that link them.
+     */
+    private final Event[][] mWheel = new Event[LEVELS][SLOTS];
+    private long mCurrentTick;
+    private int mEventCount = 0;
+
+    /*
+     * Events that came due on this frame, and the run-once event that runs
+     * them.
+     */
+    private List<Event> mDue = new ArrayList<Event>();
+    private List<Event> mRunning = new ArrayList<Event>();
+    private final Runnable mRunDue = new Runnable() {
+
+        @Override
+        public void run() {
+            List<Event> running;
+            synchronized (mWheel) {
+                running = mDue;
+                mDue = mRunning;
+                mRunning = running;
+            }
+            for (int index = 0, size = running.size(); index < size; ++index) {
+                running.get(index).run();
+            }
+            running.clear();
+        }
+    };
 
     protected GVRPeriodicEngine(GVRContext context) {
         mContext = context;
+        mCurrentTick = tick(now());
         context.registerDrawFrameListener(mDrawFrameListener);
     }
 
@@ -329,11 +378,6 @@ public class GVRPeriodicEngine {
         void runEvery(float delay, float period, KeepRunning callback);
     }
 
-    private interface EventImplementation extends PeriodicEvent,
-            Comparable<EventImplementation>, Runnable {
-        float getScheduledTime();
-    }
-
     /**
      * The periodic engine's time base.
      * 
@@ -343,26 +387,133 @@ public class GVRPeriodicEngine {
         return System.nanoTime() / 1e9f;
     }
 
+    private static long tick(float time) {
+        return (long) Math.floor(time * TICKS_PER_SECOND);
+    }
+
     private class DrawFrameListener implements GVRDrawFrameListener {
 
         @Override
         public void onDrawFrame(float frameTime) {
             float now = GVRPeriodicEngine.now();
-            synchronized (mQueue) {
-                for (EventImplementation //
-                first = mQueue.peek(); //
-                first != null && first.getScheduledTime() <= now; //
-                first = mQueue.peek() //
-                ) {
+            synchronized (mWheel) {
+                boolean idle = mDue.isEmpty();
+                lockedAdvance(now);
+                if (idle && mDue.isEmpty() == false) {
+                    mContext.runOnGlThread(mRunDue);
+                }
+            }
+        }
+    }
 
-                    mContext.runOnGlThread(mQueue.poll());
+    /*
+     * Timing wheel. All these methods must be called holding the mWheel lock.
+     */
 
+    /**
+     * Move every event that is due at {@code now} to {@link #mDue}.
+     * 
+     * The current tick stays 'open' until {@code now} has moved past it, so
+     * that events do not run early.
+     */
+    private void lockedAdvance(float now) {
+        final long nowTick = tick(now);
+        if (mEventCount == 0) {
+            // Nothing to cascade
+            if (nowTick > mCurrentTick) {
+                mCurrentTick = nowTick;
+            }
+            return;
+        }
+
+        while (true) {
+            final int slot = (int) (mCurrentTick & SLOT_MASK);
+            Event event = mWheel[0][slot];
+            while (event != null) {
+                Event next = event.mNext;
+                if (event.mScheduledTime <= now) {
+                    lockedUnlink(event);
+                    mDue.add(event);
+                }
+                event = next;
+            }
+
+            if (mCurrentTick >= nowTick || mEventCount == 0) {
+                break;
+            }
+
+            mCurrentTick += 1;
+            for (int level = 1; level < LEVELS; ++level) {
+                final int shift = level * SLOT_BITS;
+                if ((mCurrentTick & ((1L << shift) - 1)) != 0) {
+                    break;
                 }
+                lockedCascade(level, (int) ((mCurrentTick >> shift) & SLOT_MASK));
             }
         }
+
+        if (nowTick > mCurrentTick) {
+            mCurrentTick = nowTick;
+        }
     }
 
-    private class Event implements EventImplementation {
+    private void lockedCascade(int level, int slot) {
+        Event event = mWheel[level][slot];
+        while (event != null) {
+            Event next = event.mNext;
+            lockedUnlink(event);
+            lockedLink(event);
+            event = next;
+        }
+    }
+
+    private void lockedLink(Event event) {
+        long eventTick = tick(event.mScheduledTime);
+        if (eventTick < mCurrentTick) {
+            eventTick = mCurrentTick;
+        }
+        long delta = eventTick - mCurrentTick;
+        if (delta >= HORIZON) {
+            eventTick = mCurrentTick + HORIZON - 1;
+            delta = HORIZON - 1;
+        }
+
+        int level = 0;
+        while (delta >= (1L << ((level + 1) * SLOT_BITS))) {
+            level += 1;
+        }
+        final int slot = (int) ((eventTick >> (level * SLOT_BITS)) & SLOT_MASK);
+
+        Event head = mWheel[level][slot];
+        event.mPrevious = null;
+        event.mNext = head;
+        if (head != null) {
+            head.mPrevious = event;
+        }
+        mWheel[level][slot] = event;
+        event.mLevel = level;
+        event.mSlot = slot;
+        mEventCount += 1;
+    }
+
+    private void lockedUnlink(Event event) {
+        if (event.mLevel < 0) {
+            return;
+        }
+        if (event.mPrevious != null) {
+            event.mPrevious.mNext = event.mNext;
+        } else {
+            mWheel[event.mLevel][event.mSlot] = event.mNext;
+        }
+        if (event.mNext != null) {
+            event.mNext.mPrevious = event.mPrevious;
+        }
+        event.mPrevious = event.mNext = null;
+        event.mLevel = event.mSlot = -1;
+        mEventCount -= 1;
+    }
+
+    private class Event implements PeriodicEvent, Runnable {
 
         /*
          * Task, and run-count
@@ -388,25 +539,33 @@ public class GVRPeriodicEngine {
          */
         private boolean mCanceled = false;
 
+        /*
+         * Timing wheel links: mLevel is -1 when the event is not enqueued.
+         */
+        private Event mPrevious = null;
+        private Event mNext = null;
+        private int mLevel = -1;
+        private int mSlot = -1;
+
         private void lockedEnqueue() {
             if (mCanceled != true) {
-                mQueue.add(this);
+                lockedLink(this);
             }
         }
 
         private void lockedDequeue() {
-            mQueue.remove(this);
+            lockedUnlink(this);
         }
 
         private void enqueue() {
-            synchronized (mQueue) {
+            synchronized (mWheel) {
                 lockedEnqueue();
             }
         }
 
         @SuppressWarnings("unused")
         private void dequeue() {
-            synchronized (mQueue) {
+            synchronized (mWheel) {
                 lockedDequeue();
             }
         }
@@ -463,15 +622,9 @@ public class GVRPeriodicEngine {
         }
 
         private boolean enqueued() {
-            synchronized (mQueue) {
-                for (EventImplementation event : mQueue) {
-                    if (this == event) {
-                        return true;
-                    }
-                }
+            synchronized (mWheel) {
+                return mLevel >= 0;
             }
-            // else
-            return false;
         }
 
         private boolean scheduled() {
@@ -517,7 +670,7 @@ public class GVRPeriodicEngine {
 
         @Override
         public void cancel() {
-            synchronized (mQueue) {
+            synchronized (mWheel) {
                 deschedule();
                 lockedDequeue();
                 mCanceled = true;
@@ -528,7 +681,7 @@ public class GVRPeriodicEngine {
         public void runAfter(float delay) {
             validateDelay(delay);
 
-            synchronized (mQueue) {
+            synchronized (mWheel) {
                 lockedDequeue();
                 setDelay(delay);
                 lockedEnqueue();
@@ -551,32 +704,13 @@ public class GVRPeriodicEngine {
             validateDelay(delay);
             validatePeriod(period);
 
-            synchronized (mQueue) {
+            synchronized (mWheel) {
                 lockedDequeue();
                 setRepeat(delay, period, callback);
                 lockedEnqueue();
             }
         }
 
-        /*
-         * EventImplementation
-         */
-
-        @Override
-        public float getScheduledTime() {
-            return mScheduledTime;
-        }
-
-        /*
-         * Comparable<EventImplementation>
-         */
-
-        @Override
-        public int compareTo(EventImplementation other) {
-            final float delta = getScheduledTime() - other.getScheduledTime();
-            return delta < 0 ? -1 : (delta == 0 ? 0 : 1);
-        }
-
         /*
          * Runnable
          */
@@ -17,6 +17,8 @@ package org.gearvrf.utility;
 
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.gearvrf.GVRAndroidResource;
@@ -37,27 +39,133 @@ import org.gearvrf.GVRTexture;
  * Passing the descriptor for a cached mesh to a get-texture call would return
  * the mesh ....
  * 
+ * <p>
+ * A cache with a {@linkplain #setBudget(long) byte budget} also keeps strong
+ * references to the most recently used resources, up to that budget, so they
+ * are not reloaded just because the garbage collector ran. When the budget is
+ * exceeded, the least recently used resources are evicted down to weak
+ * references. Resources whose size is not known are only weakly referenced.
+ * 
+ * <p>
+ * All methods are thread safe.
+ * 
  * @since 2.0.2
  */
 public class ResourceCache<T extends GVRHybridObject> {
     // private static final String TAG = Log.tag(ResourceCache.class);
 
+    /** Estimates the memory a cached resource holds on to. */
+    public interface SizeEstimator<T> {
+        /**
+         * @return Estimated size in bytes, or 0 if not known.
+         */
+        long getByteCount(T resource);
+    }
+
+    /** Uses {@link GVRTexture#getByteCount()} */
+    public static final SizeEstimator<GVRTexture> TEXTURE_SIZE_ESTIMATOR = new SizeEstimator<GVRTexture>() {
+        @Override
+        public long getByteCount(GVRTexture texture) {
+            return texture.getByteCount();
+        }
+    };
+
+    private static final class Entry<T> {
+        final T resource;
+        final long byteCount;
+
+        Entry(T resource, long byteCount) {
+            this.resource = resource;
+            this.byteCount = byteCount;
+        }
+    }
+
     private final Map<GVRAndroidResource, WeakReference<T>> cache //
     = new HashMap<GVRAndroidResource, WeakReference<T>>();
 
-    /** Save a weak reference to the resource */
-    public void put(GVRAndroidResource androidResource, T resource) {
+    // Strong references, in least- to most-recently used order
+    private final LinkedHashMap<GVRAndroidResource, Entry<T>> recent //
+    = new LinkedHashMap<GVRAndroidResource, Entry<T>>(16, 0.75f, true);
+
+    private final SizeEstimator<? super T> estimator;
+    private long budget;
+    private long byteCount = 0;
+
+    private int hits = 0;
+    private int misses = 0;
+    private int evictions = 0;
+
+    /** Create a cache that only keeps weak references. */
+    public ResourceCache() {
+        this(0, null);
+    }
+
+    /**
+     * Create a cache that keeps strong references to recently used
+     * resources.
+     * 
+     * @param budget
+     *            Total estimated size, in bytes, of the resources to keep
+     *            strong references to.
+     * @param estimator
+     *            Estimates the size of a resource. {@code null} means sizes
+     *            are not known, and only weak references are kept.
+     */
+    public ResourceCache(long budget, SizeEstimator<? super T> estimator) {
+        this.budget = budget;
+        this.estimator = estimator;
+    }
+
+    /** Save a reference to the resource */
+    public synchronized void put(GVRAndroidResource androidResource, T resource) {
         // Log.d(TAG, "put(%s) saving %s", androidResource, resource);
 
         cache.put(androidResource, new WeakReference<T>(resource));
+        retain(androidResource, resource);
+    }
+
+    /**
+     * Re-measure a resource whose size changed after it was
+     * {@linkplain #put(GVRAndroidResource, GVRHybridObject) put()}, like a
+     * progressively loaded texture. Does nothing if {@code resource} is no
+     * longer the one cached for {@code androidResource}.
+     */
+    public synchronized void resized(GVRAndroidResource androidResource,
+            T resource) {
+        WeakReference<T> reference = cache.get(androidResource);
+        if (reference != null && reference.get() == resource) {
+            retain(androidResource, resource);
+        }
     }
 
     /** Get the cached resource, or {@code null} */
     public T get(GVRAndroidResource androidResource) {
+        T cached;
+        synchronized (this) {
+            cached = lockedGet(androidResource);
+            if (cached == null) {
+                misses += 1;
+            } else {
+                hits += 1;
+            }
+        }
+        if (cached != null) {
+            // No one will ever read this stream
+            androidResource.closeStream();
+        }
+        // Log.d(TAG, "get(%s) returning %s", androidResource, cached);
+        return cached;
+    }
+
+    private T lockedGet(GVRAndroidResource androidResource) {
+        Entry<T> entry = recent.get(androidResource); // Marks it as used
+        if (entry != null) {
+            return entry.resource;
+        }
+
         WeakReference<T> reference = cache.get(androidResource);
         if (reference == null) {
             // Not in map
-            // Log.d(TAG, "get(%s) returning %s", androidResource, null);
             return null;
         }
         T cached = reference.get();
@@ -65,13 +173,79 @@ public class ResourceCache<T extends GVRHybridObject> {
             // In map, but not in memory
             cache.remove(androidResource);
         } else {
-            // No one will ever read this stream
-            androidResource.closeStream();
+            // Evicted, but still in memory: in use again
+            retain(androidResource, cached);
         }
-        // Log.d(TAG, "get(%s) returning %s", androidResource, cached);
         return cached;
     }
 
+    private void retain(GVRAndroidResource androidResource, T resource) {
+        Entry<T> previous = recent.remove(androidResource);
+        if (previous != null) {
+            byteCount -= previous.byteCount;
+        }
+
+        long size = estimator == null ? 0 : estimator.getByteCount(resource);
+        if (size > 0 && size <= budget) {
+            recent.put(androidResource, new Entry<T>(resource, size));
+            byteCount += size;
+            trim();
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry<T>> iterator = recent.values().iterator();
+        while (byteCount > budget && iterator.hasNext()) {
+            byteCount -= iterator.next().byteCount;
+            iterator.remove();
+            evictions += 1;
+        }
+    }
+
+    /**
+     * Set the total estimated size of the resources the cache keeps strong
+     * references to. Lowering the budget evicts resources right away.
+     * 
+     * @param budget
+     *            Size in bytes; 0 to only keep weak references.
+     */
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        trim();
+    }
+
+    /** @return The budget, in bytes */
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    /** @return Estimated size of the strongly referenced resources, in bytes */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /** @return Number of {@link #get(GVRAndroidResource)} calls that found a resource */
+    public synchronized int getHitCount() {
+        return hits;
+    }
+
+    /** @return Number of {@link #get(GVRAndroidResource)} calls that returned {@code null} */
+    public synchronized int getMissCount() {
+        return misses;
+    }
+
+    /** @return Number of resources evicted down to weak references */
+    public synchronized int getEvictionCount() {
+        return evictions;
+    }
+
+    /** Drop all strong and weak references. Does not reset the statistics. */
+    public synchronized void clear() {
+        recent.clear();
+        cache.clear();
+        byteCount = 0;
+    }
+
     /**
      * Wrap the callback, to cache the
      * {@link Callback#loaded(GVRHybridObject, GVRAndroidResource) loaded()}